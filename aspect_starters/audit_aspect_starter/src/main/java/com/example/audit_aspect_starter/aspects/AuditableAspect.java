@@ -1,8 +1,8 @@
 package com.example.audit_aspect_starter.aspects;
 
 import com.example.audit_aspect_starter.dtos.CreateUserAuditDto;
-import com.example.audit_aspect_starter.repositories.JdbcUserAuditRepository;
-import com.example.audit_aspect_starter.util.TokenHelper;
+import com.example.audit_aspect_starter.util.UserIdResolver;
+import com.example.audit_aspect_starter.writers.AuditWriter;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.http.HttpServletRequest;
@@ -13,28 +13,33 @@ import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
 import org.aspectj.lang.reflect.MethodSignature;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 import org.springframework.web.bind.annotation.RequestBody;
-import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
 import java.lang.reflect.Parameter;
-import java.util.Optional;
-
 @Aspect
 @Slf4j
 @Component
+@Order(AuditableAspect.ORDER)
 public class AuditableAspect {
 
+    /**
+     * Аудит выполняется снаружи остальных аспектов, поэтому запрос попадает в аудит,
+     * даже если ответ взят из кэша.
+     */
+    public static final int ORDER = 0;
+
     @Autowired
-    TokenHelper tokenHelper;
+    UserIdResolver userIdResolver;
 
     @Autowired
     ObjectMapper mapper;
 
     @Autowired
-    JdbcUserAuditRepository jdbcUserAuditRepository;
+    AuditWriter auditWriter;
 
 
     @Pointcut("@annotation(com.example.audit_aspect_starter.annotations.Auditable)")
@@ -48,32 +53,25 @@ public class AuditableAspect {
         Object[] args = joinPoint.getArgs();
         MethodSignature signature = (MethodSignature) joinPoint.getSignature();
         Parameter[] parameters = signature.getMethod().getParameters();
-        String token = null;
         Object requestBody = null;
         for (int i = 0; i < parameters.length; i++) {
             Parameter arg = parameters[i];
-            RequestHeader authorizationHeader = arg.getAnnotation(RequestHeader.class);
-            if (authorizationHeader != null && authorizationHeader.value().equals("Authorization")) {
-                token = (String) args[i];
-                continue;
-            }
             RequestBody requestBodyAnnotation = arg.getAnnotation(RequestBody.class);
             if (requestBodyAnnotation != null) {
                 requestBody = args[i];
             }
         }
-        createUserAudit(token, requestBody, responseBody, request);
+        createUserAudit(requestBody, responseBody, request);
 
         return responseBody;
     }
 
-    private void createUserAudit(String token, Object requestBody, Object responseBody, HttpServletRequest request) throws JsonProcessingException {
-        if (token != null && request != null) {
+    private void createUserAudit(Object requestBody, Object responseBody, HttpServletRequest request) throws JsonProcessingException {
+        if (request != null) {
             String requestUri = request.getRequestURI();
-            Optional<Integer> userIdFromToken = tokenHelper.getUserIdFromToken(token);
-            Integer userId = userIdFromToken.orElse(null);
+            Integer userId = userIdResolver.resolveUserId(request).orElse(null);
             if (userId == null) {
-                log.warn("userId not contains in token");
+                log.debug("Request {} is not authenticated, user audit skipped", requestUri);
                 return;
             }
             String requestBodyStr = null;
@@ -85,8 +83,8 @@ public class AuditableAspect {
                 responseBodyStr = mapper.writeValueAsString(responseBody);
             }
             CreateUserAuditDto dto = new CreateUserAuditDto(userId, requestUri, requestBodyStr, responseBodyStr);
-            jdbcUserAuditRepository.create(dto);
-            log.info("User audit added to db");
+            auditWriter.submit(dto);
+            log.debug("User audit queued for saving");
         }
     }
 }
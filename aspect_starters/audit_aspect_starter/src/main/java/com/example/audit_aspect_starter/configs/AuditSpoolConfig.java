@@ -0,0 +1,33 @@
+package com.example.audit_aspect_starter.configs;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "audit.spool")
+public class AuditSpoolConfig {
+    private boolean enabled = true;
+    private Path directory = Path.of("audit-spool");
+    private DataSize segmentSize = DataSize.ofMegabytes(16);
+    private FsyncPolicy fsyncPolicy = FsyncPolicy.INTERVAL;
+    private Duration fsyncInterval = Duration.ofSeconds(1);
+    private Duration replayInterval = Duration.ofSeconds(5);
+
+    /**
+     * Политика сброса журнала на диск.
+     * ALWAYS - после каждой записи,
+     * INTERVAL - не реже, чем раз в {@code audit.spool.fsync-interval},
+     * NEVER - сброс на усмотрение операционной системы.
+     */
+    public enum FsyncPolicy {
+        ALWAYS,
+        INTERVAL,
+        NEVER
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.audit_aspect_starter.configs;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "audit.writer")
+public class AuditWriterConfig {
+    private int queueCapacity = 10_000;
+    private int batchSize = 100;
+    private Duration flushInterval = Duration.ofSeconds(1);
+    private Duration shutdownTimeout = Duration.ofSeconds(10);
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_OLDEST;
+
+    /**
+     * Поведение при переполнении очереди аудита.
+     * BLOCK - поток запроса ждёт освобождения места в очереди,
+     * DROP_OLDEST - из очереди вытесняется самая старая запись,
+     * DROP - новая запись отбрасывается,
+     * SPOOL - новая запись сразу пишется в локальный журнал аудита.
+     * При DROP_OLDEST и DROP потерянные записи учитываются в счётчике.
+     */
+    public enum OverflowPolicy {
+        BLOCK,
+        DROP_OLDEST,
+        DROP,
+        SPOOL
+    }
+}
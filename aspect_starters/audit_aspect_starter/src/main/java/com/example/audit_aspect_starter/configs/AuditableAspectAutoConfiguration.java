@@ -1,6 +1,10 @@
 package com.example.audit_aspect_starter.configs;
 
 import com.example.audit_aspect_starter.aspects.AuditableAspect;
+import com.example.audit_aspect_starter.util.TokenUserIdResolver;
+import com.example.audit_aspect_starter.util.UserIdResolver;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
@@ -12,4 +16,10 @@ public class AuditableAspectAutoConfiguration {
     public AuditableAspect auditableAspect() {
         return new AuditableAspect();
     }
+
+    @Bean
+    @ConditionalOnMissingBean(UserIdResolver.class)
+    public UserIdResolver tokenUserIdResolver(@Value("${jwt.token.signing-key}") String key) {
+        return new TokenUserIdResolver(key);
+    }
 }
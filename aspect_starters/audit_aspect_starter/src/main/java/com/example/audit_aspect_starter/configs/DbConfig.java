@@ -4,11 +4,31 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+
 @Data
 @Component("auditDbConfig")
-@ConfigurationProperties(prefix = "spring.datasource")
+@ConfigurationProperties(prefix = "audit.datasource")
 public class DbConfig {
     private String username;
     private String password;
     private String url;
+    private String driverClassName;
+    private String schema = "habit_tracker_schema";
+    private Pool pool = new Pool();
+
+    /**
+     * Настройки пула соединений аудита.
+     * Пул отделён от основного, поэтому медленное хранилище аудита
+     * не может занять соединения, нужные запросам к привычкам.
+     */
+    @Data
+    public static class Pool {
+        private String name = "audit-pool";
+        private int minIdle = 0;
+        private int maxSize = 2;
+        private Duration acquireTimeout = Duration.ofSeconds(1);
+        private Duration idleTimeout = Duration.ofMinutes(5);
+        private Duration maxLifetime = Duration.ofMinutes(30);
+    }
 }
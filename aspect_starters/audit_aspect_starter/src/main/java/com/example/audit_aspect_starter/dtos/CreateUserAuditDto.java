@@ -4,6 +4,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
+
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -12,4 +14,9 @@ public class CreateUserAuditDto {
     String requestUri;
     String requestBody;
     String responseBody;
+    LocalDateTime timestamp;
+
+    public CreateUserAuditDto(int userId, String requestUri, String requestBody, String responseBody) {
+        this(userId, requestUri, requestBody, responseBody, LocalDateTime.now());
+    }
 }
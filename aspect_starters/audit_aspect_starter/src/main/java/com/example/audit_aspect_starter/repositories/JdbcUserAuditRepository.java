@@ -1,8 +1,8 @@
 package com.example.audit_aspect_starter.repositories;
 
+import com.example.audit_aspect_starter.configs.DbConfig;
 import com.example.audit_aspect_starter.dtos.CreateUserAuditDto;
 import com.example.audit_aspect_starter.util.ConnectionManager;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import com.example.audit_aspect_starter.constants.SqlConstants;
 import org.springframework.stereotype.Repository;
@@ -10,26 +10,40 @@ import org.springframework.stereotype.Repository;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
 
 @Repository
-@RequiredArgsConstructor
 @Slf4j
 public class JdbcUserAuditRepository {
     private final ConnectionManager connectionManager;
+    private final String createUserAuditSql;
 
-    public void create(CreateUserAuditDto createUserAuditDto) {
-        try (Connection connection = connectionManager.open()) {
-            PreparedStatement preparedStatement = connection.prepareStatement(SqlConstants.CREATE_USER_AUDIT_SQL);
-
-            preparedStatement.setInt(1, createUserAuditDto.getUserId());
-            preparedStatement.setString(2, createUserAuditDto.getRequestUri());
-            preparedStatement.setString(3, createUserAuditDto.getRequestBody());
-            preparedStatement.setString(4, createUserAuditDto.getResponseBody());
+    public JdbcUserAuditRepository(ConnectionManager connectionManager, DbConfig dbConfig) {
+        this.connectionManager = connectionManager;
+        this.createUserAuditSql = SqlConstants.CREATE_USER_AUDIT_SQL.formatted(dbConfig.getSchema());
+    }
 
-            preparedStatement.executeUpdate();
+    public void createAll(List<CreateUserAuditDto> createUserAuditDtos) throws SQLException {
+        try (Connection connection = connectionManager.open();
+             PreparedStatement preparedStatement = connection.prepareStatement(createUserAuditSql)) {
 
-        } catch (SQLException e) {
-            log.error("Error occurred while trying create user audit", e);
+            connection.setAutoCommit(false);
+            for (CreateUserAuditDto createUserAuditDto : createUserAuditDtos) {
+                preparedStatement.setInt(1, createUserAuditDto.getUserId());
+                preparedStatement.setString(2, createUserAuditDto.getRequestUri());
+                preparedStatement.setString(3, createUserAuditDto.getRequestBody());
+                preparedStatement.setString(4, createUserAuditDto.getResponseBody());
+                preparedStatement.setTimestamp(5, Timestamp.valueOf(createUserAuditDto.getTimestamp()));
+                preparedStatement.addBatch();
+            }
+            try {
+                preparedStatement.executeBatch();
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
         }
     }
 }
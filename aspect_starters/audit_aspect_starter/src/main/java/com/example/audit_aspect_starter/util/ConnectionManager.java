@@ -1,46 +1,56 @@
 package com.example.audit_aspect_starter.util;
 
 import com.example.audit_aspect_starter.configs.DbConfig;
-import lombok.RequiredArgsConstructor;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.stereotype.Component;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 
 /**
- * Менеджер соединений для работы с базой данных.
- * Обеспечивает загрузку драйвера, инициализацию параметров
- * соединения и управление соединением с базой данных.
+ * Менеджер соединений для работы с базой данных аудита.
+ * Владеет собственным пулом соединений, настроенным через {@code audit.datasource.*},
+ * и не делит соединения с основным приложением.
  */
 @Component("auditConnectionManager")
-@RequiredArgsConstructor
-public class ConnectionManager implements AutoCloseable {
+public class ConnectionManager implements DisposableBean {
 
-    private final DbConfig dbConfig;
-    private Connection connection;
+    private final HikariDataSource dataSource;
+
+    public ConnectionManager(DbConfig dbConfig) {
+        DbConfig.Pool pool = dbConfig.getPool();
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(dbConfig.getUrl());
+        dataSource.setUsername(dbConfig.getUsername());
+        dataSource.setPassword(dbConfig.getPassword());
+        if (dbConfig.getDriverClassName() != null) {
+            dataSource.setDriverClassName(dbConfig.getDriverClassName());
+        }
+        dataSource.setPoolName(pool.getName());
+        dataSource.setMinimumIdle(pool.getMinIdle());
+        dataSource.setMaximumPoolSize(pool.getMaxSize());
+        dataSource.setConnectionTimeout(pool.getAcquireTimeout().toMillis());
+        dataSource.setIdleTimeout(pool.getIdleTimeout().toMillis());
+        dataSource.setMaxLifetime(pool.getMaxLifetime().toMillis());
+    }
 
 
     /**
-     * Открывает новое соединение с базой данных.
+     * Берёт соединение из пула аудита.
      *
      * @return объект Connection, представляющий соединение с базой данных
-     * @throws SQLException если возникает ошибка при открытии соединения
+     * @throws SQLException если не удалось получить соединение за время ожидания пула
      */
     public Connection open() throws SQLException {
-        connection = DriverManager.getConnection(dbConfig.getUrl(), dbConfig.getUsername(), dbConfig.getPassword());
-        return connection;
+        return dataSource.getConnection();
     }
 
     /**
-     * Закрывает текущее соединение с базой данных.
-     *
-     * @throws SQLException если возникает ошибка при закрытии соединения
+     * Закрывает пул соединений аудита.
      */
     @Override
-    public void close() throws SQLException {
-        if (connection != null) {
-            connection.close();
-        }
+    public void destroy() {
+        dataSource.close();
     }
 }
@@ -0,0 +1,42 @@
+package com.example.audit_aspect_starter.util;
+
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+
+import java.util.Optional;
+
+/**
+ * Определяет пользователя по токену из заголовка Authorization.
+ * Используется, если приложение не объявило свой {@link UserIdResolver}.
+ */
+public class TokenUserIdResolver implements UserIdResolver {
+
+    private final JwtParser parser;
+
+    public TokenUserIdResolver(String key) {
+        this.parser = Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(key)))
+                .build();
+    }
+
+    @Override
+    public Optional<Integer> resolveUserId(HttpServletRequest request) {
+        String token = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (token == null || !token.startsWith("Bearer ")) {
+            return Optional.empty();
+        }
+        try {
+            Integer userId = parser.parseSignedClaims(token.substring(7))
+                    .getPayload()
+                    .get("user_id", Integer.class);
+            return Optional.ofNullable(userId);
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+}
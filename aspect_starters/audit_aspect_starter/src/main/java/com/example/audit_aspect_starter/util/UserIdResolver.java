@@ -0,0 +1,21 @@
+package com.example.audit_aspect_starter.util;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.util.Optional;
+
+/**
+ * Определяет пользователя, выполнившего запрос, для записи аудита.
+ * Приложение может объявить свою реализацию, например, если пользователь уже аутентифицирован фильтром.
+ * По умолчанию используется {@link TokenUserIdResolver}.
+ */
+public interface UserIdResolver {
+
+    /**
+     * Возвращает идентификатор пользователя текущего запроса.
+     *
+     * @param request текущий запрос
+     * @return идентификатор пользователя или пустой Optional, если пользователь не аутентифицирован
+     */
+    Optional<Integer> resolveUserId(HttpServletRequest request);
+}
@@ -0,0 +1,257 @@
+package com.example.audit_aspect_starter.writers;
+
+import com.example.audit_aspect_starter.configs.AuditSpoolConfig;
+import com.example.audit_aspect_starter.dtos.CreateUserAuditDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Локальный журнал записей аудита на случай недоступности базы данных.
+ * Журнал состоит из сегментов фиксированного размера, отображённых в память,
+ * записи в которые только добавляются. Заполненный сегмент закрывается и больше не меняется,
+ * после переноса записей в базу он удаляется.
+ * <p>
+ * Формат записи: длина данных (int), CRC32 данных (int), данные.
+ * Нулевая длина означает конец записей в сегменте.
+ */
+@Slf4j
+@Component
+public class AuditSpool implements DisposableBean {
+
+    private static final String SEGMENT_PREFIX = "audit-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final int RECORD_HEADER_SIZE = 2 * Integer.BYTES;
+
+    private final AuditSpoolConfig config;
+    private long nextSegmentNumber;
+    private Path activeSegment;
+    private MappedByteBuffer activeBuffer;
+    private long lastForce = System.nanoTime();
+
+    public AuditSpool(AuditSpoolConfig config) throws IOException {
+        this.config = config;
+        this.nextSegmentNumber = listSegments().stream()
+                .mapToLong(AuditSpool::getSegmentNumber)
+                .max()
+                .orElse(0) + 1;
+    }
+
+    private static long getSegmentNumber(Path segment) {
+        String fileName = segment.getFileName().toString();
+        return Long.parseLong(fileName.substring(SEGMENT_PREFIX.length(), fileName.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static byte[] encode(CreateUserAuditDto dto) {
+        byte[] requestUri = toBytes(dto.getRequestUri());
+        byte[] requestBody = toBytes(dto.getRequestBody());
+        byte[] responseBody = toBytes(dto.getResponseBody());
+        int size = Integer.BYTES + Long.BYTES + Integer.BYTES
+                + 3 * Integer.BYTES + length(requestUri) + length(requestBody) + length(responseBody);
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(dto.getUserId());
+        buffer.putLong(dto.getTimestamp().toEpochSecond(ZoneOffset.UTC));
+        buffer.putInt(dto.getTimestamp().getNano());
+        putBytes(buffer, requestUri);
+        putBytes(buffer, requestBody);
+        putBytes(buffer, responseBody);
+        return buffer.array();
+    }
+
+    private static CreateUserAuditDto decode(ByteBuffer buffer) {
+        int userId = buffer.getInt();
+        LocalDateTime timestamp = LocalDateTime.ofEpochSecond(buffer.getLong(), buffer.getInt(), ZoneOffset.UTC);
+        String requestUri = getString(buffer);
+        String requestBody = getString(buffer);
+        String responseBody = getString(buffer);
+        return new CreateUserAuditDto(userId, requestUri, requestBody, responseBody, timestamp);
+    }
+
+    private static byte[] toBytes(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int length(byte[] bytes) {
+        return bytes == null ? 0 : bytes.length;
+    }
+
+    private static void putBytes(ByteBuffer buffer, byte[] bytes) {
+        if (bytes == null) {
+            buffer.putInt(-1);
+        } else {
+            buffer.putInt(bytes.length);
+            buffer.put(bytes);
+        }
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int checksum(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Добавляет записи аудита в журнал.
+     *
+     * @param dtos записи аудита
+     * @throws UncheckedIOException если не удалось записать сегмент
+     */
+    public synchronized void append(List<CreateUserAuditDto> dtos) {
+        try {
+            for (CreateUserAuditDto dto : dtos) {
+                byte[] payload = encode(dto);
+                int recordSize = RECORD_HEADER_SIZE + payload.length;
+                if (activeBuffer == null || activeBuffer.remaining() < recordSize + Integer.BYTES) {
+                    rotate(recordSize + Integer.BYTES);
+                }
+                activeBuffer.putInt(payload.length);
+                activeBuffer.putInt(checksum(payload));
+                activeBuffer.put(payload);
+            }
+            if (config.getFsyncPolicy() == AuditSpoolConfig.FsyncPolicy.ALWAYS) {
+                activeBuffer.force();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Сбрасывает активный сегмент на диск, если это требует политика {@code INTERVAL}.
+     */
+    public synchronized void forceIfDue() {
+        boolean isForceTime = System.nanoTime() - lastForce >= config.getFsyncInterval().toNanos();
+        if (activeBuffer != null && config.getFsyncPolicy() == AuditSpoolConfig.FsyncPolicy.INTERVAL && isForceTime) {
+            activeBuffer.force();
+            lastForce = System.nanoTime();
+        }
+    }
+
+    /**
+     * Закрывает активный сегмент, чтобы его записи можно было перенести в базу.
+     * Следующая запись откроет новый сегмент.
+     */
+    public synchronized void sealActiveSegment() {
+        if (activeBuffer != null) {
+            if (config.getFsyncPolicy() != AuditSpoolConfig.FsyncPolicy.NEVER) {
+                activeBuffer.force();
+            }
+            activeBuffer = null;
+            activeSegment = null;
+        }
+    }
+
+    /**
+     * Возвращает закрытые сегменты в порядке их создания.
+     *
+     * @return список путей к закрытым сегментам
+     */
+    public synchronized List<Path> getSealedSegments() throws IOException {
+        return listSegments().stream()
+                .filter(segment -> !segment.equals(activeSegment))
+                .toList();
+    }
+
+    /**
+     * @return true, если в журнале есть открытый сегмент с записями
+     */
+    public synchronized boolean hasActiveSegment() {
+        return activeSegment != null;
+    }
+
+    /**
+     * Читает записи сегмента.
+     * Чтение останавливается на первой повреждённой записи, например недописанной при аварийном завершении.
+     *
+     * @param segment путь к сегменту
+     * @return записи аудита из сегмента
+     */
+    public List<CreateUserAuditDto> read(Path segment) throws IOException {
+        List<CreateUserAuditDto> dtos = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            while (buffer.remaining() >= RECORD_HEADER_SIZE) {
+                int length = buffer.getInt();
+                int crc = buffer.getInt();
+                if (length <= 0 || length > buffer.remaining()) {
+                    break;
+                }
+                byte[] payload = new byte[length];
+                buffer.get(payload);
+                if (checksum(payload) != crc) {
+                    log.warn("Audit spool segment {} is corrupted after {} records", segment, dtos.size());
+                    break;
+                }
+                dtos.add(decode(ByteBuffer.wrap(payload)));
+            }
+        }
+        return dtos;
+    }
+
+    /**
+     * Удаляет сегмент, записи которого перенесены в базу.
+     *
+     * @param segment путь к сегменту
+     */
+    public void delete(Path segment) throws IOException {
+        Files.deleteIfExists(segment);
+    }
+
+    private void rotate(int minSize) throws IOException {
+        sealActiveSegment();
+        long size = Math.max(config.getSegmentSize().toBytes(), minSize);
+        Files.createDirectories(config.getDirectory());
+        Path segment = config.getDirectory().resolve("%s%020d%s".formatted(SEGMENT_PREFIX, nextSegmentNumber++, SEGMENT_SUFFIX));
+        try (FileChannel channel = FileChannel.open(segment,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            activeBuffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+        activeSegment = segment;
+    }
+
+    private List<Path> listSegments() throws IOException {
+        if (!Files.isDirectory(config.getDirectory())) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(config.getDirectory())) {
+            return files
+                    .filter(file -> {
+                        String fileName = file.getFileName().toString();
+                        return fileName.startsWith(SEGMENT_PREFIX) && fileName.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        sealActiveSegment();
+    }
+}
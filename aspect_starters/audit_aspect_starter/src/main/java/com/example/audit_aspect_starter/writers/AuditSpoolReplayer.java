@@ -0,0 +1,107 @@
+package com.example.audit_aspect_starter.writers;
+
+import com.example.audit_aspect_starter.configs.AuditSpoolConfig;
+import com.example.audit_aspect_starter.dtos.CreateUserAuditDto;
+import com.example.audit_aspect_starter.repositories.JdbcUserAuditRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Переносит записи из журнала аудита в базу данных, когда она снова доступна.
+ * Каждый сегмент сохраняется одной транзакцией и удаляется после успешной записи,
+ * поэтому неудачная попытка не оставляет в базе части сегмента.
+ * Доставка выполняется хотя бы один раз: если процесс остановится после фиксации транзакции,
+ * но до удаления сегмента, при следующем запуске сегмент будет перенесён повторно и его записи задублируются.
+ * Пока в базу не удалось перенести закрытые сегменты, активный сегмент не закрывается.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AuditSpoolReplayer implements SmartLifecycle {
+
+    private final AuditSpool auditSpool;
+    private final JdbcUserAuditRepository userAuditRepository;
+    private final AuditSpoolConfig config;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Переносит в базу все записи журнала.
+     *
+     * @return true, если журнал пуст после переноса
+     */
+    public boolean replay() {
+        try {
+            if (!replaySealedSegments()) {
+                return false;
+            }
+            if (auditSpool.hasActiveSegment()) {
+                auditSpool.sealActiveSegment();
+                return replaySealedSegments();
+            }
+            return true;
+        } catch (IOException e) {
+            log.error("Error occurred while trying read audit spool", e);
+            return false;
+        }
+    }
+
+    private boolean replaySealedSegments() throws IOException {
+        for (Path segment : auditSpool.getSealedSegments()) {
+            List<CreateUserAuditDto> dtos = auditSpool.read(segment);
+            try {
+                if (!dtos.isEmpty()) {
+                    userAuditRepository.createAll(dtos);
+                }
+            } catch (SQLException e) {
+                log.debug("Audit database is still unavailable, spool replay postponed", e);
+                return false;
+            }
+            auditSpool.delete(segment);
+            log.info("Replayed {} user audits from spool segment {}", dtos.size(), segment.getFileName());
+        }
+        return true;
+    }
+
+    @Override
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "audit-spool-replayer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long replayInterval = config.getReplayInterval().toMillis();
+        long fsyncInterval = config.getFsyncInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::replay, replayInterval, replayInterval, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(auditSpool::forceIfDue, fsyncInterval, fsyncInterval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(config.getReplayInterval().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return scheduler != null && !scheduler.isShutdown();
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return config.isEnabled();
+    }
+}
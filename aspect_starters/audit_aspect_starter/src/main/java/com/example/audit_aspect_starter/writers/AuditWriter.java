@@ -0,0 +1,236 @@
+package com.example.audit_aspect_starter.writers;
+
+import com.example.audit_aspect_starter.configs.AuditSpoolConfig;
+import com.example.audit_aspect_starter.configs.AuditWriterConfig;
+import com.example.audit_aspect_starter.dtos.CreateUserAuditDto;
+import com.example.audit_aspect_starter.repositories.JdbcUserAuditRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Асинхронная запись аудита.
+ * Записи складываются в ограниченную очередь и сохраняются фоновым потоком пачками:
+ * пачка отправляется, когда набрано {@code audit.writer.batch-size} записей
+ * или прошло {@code audit.writer.flush-interval} с прошлой отправки.
+ * При остановке приложения оставшиеся записи дописываются в базу. Писатель останавливается после
+ * веб-сервера ({@link #PHASE}), а записи, поступившие уже после остановки, сохраняются сразу в вызывающем потоке.
+ * Пачки, которые не удалось сохранить в базу, пишутся в локальный журнал {@link AuditSpool}.
+ * Размер очереди и число потерянных записей публикуются метриками {@code audit.writer.queue.size}
+ * и {@code audit.writer.dropped}.
+ */
+@Slf4j
+@Component
+public class AuditWriter implements SmartLifecycle {
+
+    /**
+     * Фаза жизненного цикла ниже фаз веб-сервера (DEFAULT_PHASE - 1024 и DEFAULT_PHASE - 2048):
+     * писатель запускается до приёма запросов и останавливается после завершения обрабатываемых.
+     */
+    public static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    private static final long MAX_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final JdbcUserAuditRepository userAuditRepository;
+    private final AuditWriterConfig config;
+    private final AuditSpool auditSpool;
+    private final boolean isSpoolEnabled;
+    private final BlockingQueue<CreateUserAuditDto> queue;
+    private final AtomicLong droppedCount = new AtomicLong();
+    private volatile boolean running;
+    private volatile boolean stopped;
+    private Thread worker;
+
+    @Autowired
+    public AuditWriter(JdbcUserAuditRepository userAuditRepository, AuditWriterConfig config,
+                       AuditSpool auditSpool, AuditSpoolConfig spoolConfig,
+                       ObjectProvider<MeterRegistry> meterRegistry) {
+        this(userAuditRepository, config, auditSpool, spoolConfig, meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+
+    public AuditWriter(JdbcUserAuditRepository userAuditRepository, AuditWriterConfig config,
+                       AuditSpool auditSpool, AuditSpoolConfig spoolConfig, MeterRegistry meterRegistry) {
+        this.userAuditRepository = userAuditRepository;
+        this.config = config;
+        this.auditSpool = auditSpool;
+        this.isSpoolEnabled = spoolConfig.isEnabled();
+        this.queue = new ArrayBlockingQueue<>(config.getQueueCapacity());
+        Gauge.builder("audit.writer.queue.size", queue, BlockingQueue::size)
+                .description("Audit records waiting to be saved")
+                .register(meterRegistry);
+        FunctionCounter.builder("audit.writer.dropped", droppedCount, AtomicLong::get)
+                .description("Audit records lost because the queue was full or the spool was unavailable")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Ставит запись аудита в очередь на сохранение.
+     * После остановки писателя запись сохраняется сразу.
+     *
+     * @param dto запись аудита
+     */
+    public void submit(CreateUserAuditDto dto) {
+        if (stopped) {
+            flush(new ArrayList<>(List.of(dto)));
+            return;
+        }
+        switch (config.getOverflowPolicy()) {
+            case BLOCK -> {
+                try {
+                    queue.put(dto);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    droppedCount.incrementAndGet();
+                }
+            }
+            case DROP_OLDEST -> {
+                while (!queue.offer(dto)) {
+                    if (queue.poll() != null) {
+                        droppedCount.incrementAndGet();
+                    }
+                }
+            }
+            case DROP -> {
+                if (!queue.offer(dto)) {
+                    droppedCount.incrementAndGet();
+                }
+            }
+            case SPOOL -> {
+                if (!queue.offer(dto)) {
+                    spool(List.of(dto));
+                }
+            }
+        }
+        if (stopped) {
+            drainRemaining();
+        }
+    }
+
+    /**
+     * @return количество записей аудита, потерянных из-за переполнения очереди или недоступности журнала
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * @return количество записей, ожидающих сохранения
+     */
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    private void drainLoop() {
+        List<CreateUserAuditDto> batch = new ArrayList<>(config.getBatchSize());
+        long flushIntervalNanos = config.getFlushInterval().toNanos();
+        long lastFlush = System.nanoTime();
+        while (running) {
+            try {
+                long waitNanos = batch.isEmpty()
+                        ? flushIntervalNanos
+                        : Math.max(0, lastFlush + flushIntervalNanos - System.nanoTime());
+                CreateUserAuditDto first = queue.poll(Math.min(waitNanos, MAX_POLL_NANOS), TimeUnit.NANOSECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, config.getBatchSize() - batch.size());
+                }
+            } catch (InterruptedException e) {
+                break;
+            }
+            boolean isFlushTime = System.nanoTime() - lastFlush >= flushIntervalNanos;
+            if (batch.size() >= config.getBatchSize() || (!batch.isEmpty() && isFlushTime)) {
+                flush(batch);
+                lastFlush = System.nanoTime();
+            } else if (batch.isEmpty()) {
+                lastFlush = System.nanoTime();
+            }
+        }
+        flush(batch);
+        drainRemaining();
+    }
+
+    private void drainRemaining() {
+        List<CreateUserAuditDto> batch = new ArrayList<>(config.getBatchSize());
+        do {
+            queue.drainTo(batch, config.getBatchSize());
+            flush(batch);
+        } while (!queue.isEmpty());
+    }
+
+    private void flush(List<CreateUserAuditDto> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            userAuditRepository.createAll(batch);
+        } catch (SQLException e) {
+            log.warn("Error occurred while trying save {} user audits, writing them to spool", batch.size(), e);
+            spool(batch);
+        }
+        batch.clear();
+    }
+
+    private void spool(List<CreateUserAuditDto> dtos) {
+        if (!isSpoolEnabled) {
+            droppedCount.addAndGet(dtos.size());
+            return;
+        }
+        try {
+            auditSpool.append(dtos);
+        } catch (UncheckedIOException e) {
+            droppedCount.addAndGet(dtos.size());
+            log.error("Error occurred while trying write {} user audits to spool", dtos.size(), e);
+        }
+    }
+
+    @Override
+    public void start() {
+        stopped = false;
+        running = true;
+        worker = new Thread(this::drainLoop, "audit-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            worker.join(config.getShutdownTimeout().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        stopped = true;
+        if (worker.isAlive()) {
+            log.warn("Audit writer did not finish in {}, {} user audits may be lost",
+                    config.getShutdownTimeout(), queue.size());
+            return;
+        }
+        drainRemaining();
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.cache_aspect_starter.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Кэширует сериализованный результат метода контроллера отдельно для каждого пользователя.
+ * Запросы без аутентифицированного пользователя и запросы пользователей, действующих от имени других
+ * пользователей (см. {@link com.example.cache_aspect_starter.util.PrincipalResolver#isPrivileged}), не кэшируются.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface CachedResponse {
+
+    /**
+     * Имя кэша, по которому записи удаляются через {@link EvictResponse}.
+     */
+    String cache();
+
+    /**
+     * SpEL-выражение ключа по параметрам метода, например {@code "#habitId"}.
+     * Пустое выражение означает одну запись на пользователя.
+     */
+    String key() default "";
+
+    /**
+     * Время жизни записи, например {@code "30s"} или {@code "5m"}.
+     */
+    String ttl() default "1m";
+
+    /**
+     * Ограничивает время жизни записи ближайшей полуночью по часовому поясу приложения.
+     * Нужно для ответов, зависящих от текущей даты, например статуса выполнения или серии.
+     */
+    boolean expireAtMidnight() default false;
+}
@@ -0,0 +1,22 @@
+package com.example.cache_aspect_starter.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Удаляет записи текущего пользователя из указанных кэшей после успешного выполнения метода.
+ * Если пользователь действует от имени других пользователей
+ * (см. {@link com.example.cache_aspect_starter.util.PrincipalResolver#isPrivileged}),
+ * удаляются записи всех пользователей, так как изменённые данные могут принадлежать любому из них.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface EvictResponse {
+
+    /**
+     * Имена кэшей, записи которых удаляются.
+     */
+    String[] cache();
+}
@@ -0,0 +1,175 @@
+package com.example.cache_aspect_starter.aspects;
+
+import com.example.cache_aspect_starter.annotations.CachedResponse;
+import com.example.cache_aspect_starter.annotations.EvictResponse;
+import com.example.cache_aspect_starter.stores.ResponseKey;
+import com.example.cache_aspect_starter.stores.ResponseStore;
+import com.example.cache_aspect_starter.util.PrincipalResolver;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.expression.MethodBasedEvaluationContext;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.annotation.Order;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Aspect
+@Slf4j
+@Order(CachedResponseAspect.ORDER)
+public class CachedResponseAspect {
+
+    /**
+     * Порядок аспекта: после аспектов с меньшим порядком, например аудита,
+     * чтобы ответы из кэша проходили через них так же, как вычисленные.
+     */
+    public static final int ORDER = 100;
+
+    private static final SpelExpressionParser PARSER = new SpelExpressionParser();
+    private static final ParameterNameDiscoverer PARAMETER_NAMES = new DefaultParameterNameDiscoverer();
+
+    private final ResponseStore responseStore;
+    private final PrincipalResolver principalResolver;
+    private final ObjectMapper mapper;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+    private final Map<Method, CachedMethod> cachedMethods = new ConcurrentHashMap<>();
+
+    public CachedResponseAspect(ResponseStore responseStore,
+                                PrincipalResolver principalResolver,
+                                ObjectMapper mapper,
+                                MeterRegistry meterRegistry) {
+        this(responseStore, principalResolver, mapper, meterRegistry, Clock.systemDefaultZone());
+    }
+
+    public CachedResponseAspect(ResponseStore responseStore,
+                                PrincipalResolver principalResolver,
+                                ObjectMapper mapper,
+                                MeterRegistry meterRegistry,
+                                Clock clock) {
+        this.responseStore = responseStore;
+        this.principalResolver = principalResolver;
+        this.mapper = mapper;
+        this.meterRegistry = meterRegistry == null ? Metrics.globalRegistry : meterRegistry;
+        this.clock = clock;
+    }
+
+    @Around("@annotation(cachedResponse)")
+    public Object cache(ProceedingJoinPoint joinPoint, CachedResponse cachedResponse) throws Throwable {
+        Optional<HttpServletRequest> request = currentRequest();
+        Optional<String> principal = request.flatMap(principalResolver::resolvePrincipal);
+        if (principal.isEmpty() || principalResolver.isPrivileged(request.get())) {
+            return joinPoint.proceed();
+        }
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        CachedMethod cachedMethod = cachedMethods.computeIfAbsent(method, key -> new CachedMethod(key, cachedResponse));
+        ResponseKey key = new ResponseKey(
+                cachedResponse.cache(),
+                principal.get(),
+                responseStore.version(cachedResponse.cache(), principal.get()),
+                cachedMethod.key(joinPoint.getTarget(), joinPoint.getArgs())
+        );
+
+        byte[] cached = responseStore.get(key);
+        if (cached != null) {
+            try {
+                Object response = mapper.readValue(cached, cachedMethod.returnType);
+                count(cachedResponse.cache(), "hit");
+                return response;
+            } catch (IOException e) {
+                log.warn("Cached response of {} can not be read, computing it again", method, e);
+            }
+        }
+        count(cachedResponse.cache(), "miss");
+        Duration ttl = cachedResponse.expireAtMidnight() ? min(cachedMethod.ttl, untilMidnight()) : cachedMethod.ttl;
+        Object response = joinPoint.proceed();
+        responseStore.put(key, mapper.writeValueAsBytes(response), ttl);
+        return response;
+    }
+
+    @Around("@annotation(evictResponse)")
+    public Object evict(ProceedingJoinPoint joinPoint, EvictResponse evictResponse) throws Throwable {
+        Object response = joinPoint.proceed();
+        Optional<HttpServletRequest> request = currentRequest();
+        if (request.isPresent() && principalResolver.isPrivileged(request.get())) {
+            for (String cache : evictResponse.cache()) {
+                responseStore.evictAll(cache);
+            }
+            return response;
+        }
+        request.flatMap(principalResolver::resolvePrincipal).ifPresent(principal -> {
+            for (String cache : evictResponse.cache()) {
+                responseStore.evict(cache, principal);
+            }
+        });
+        return response;
+    }
+
+    private Optional<HttpServletRequest> currentRequest() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+            return Optional.empty();
+        }
+        return Optional.of(servletAttributes.getRequest());
+    }
+
+    /**
+     * Время до ближайшей полуночи. Вычисляется до выполнения метода, чтобы ответ, посчитанный
+     * до полуночи и сохранённый после неё, не прожил весь {@code ttl}.
+     */
+    private Duration untilMidnight() {
+        LocalDate tomorrow = LocalDate.now(clock).plusDays(1);
+        return Duration.between(clock.instant(), tomorrow.atStartOfDay(clock.getZone()));
+    }
+
+    private static Duration min(Duration first, Duration second) {
+        return first.compareTo(second) <= 0 ? first : second;
+    }
+
+    private void count(String cache, String result) {
+        meterRegistry.counter("response.cache.requests", "cache", cache, "result", result).increment();
+    }
+
+    private final class CachedMethod {
+        private final Method method;
+        private final Expression key;
+        private final Duration ttl;
+        private final JavaType returnType;
+
+        private CachedMethod(Method method, CachedResponse cachedResponse) {
+            this.method = method;
+            this.key = cachedResponse.key().isEmpty() ? null : PARSER.parseExpression(cachedResponse.key());
+            this.ttl = DurationStyle.detectAndParse(cachedResponse.ttl());
+            this.returnType = mapper.getTypeFactory().constructType(method.getGenericReturnType());
+        }
+
+        private String key(Object target, Object[] args) {
+            if (key == null) {
+                return "";
+            }
+            MethodBasedEvaluationContext context = new MethodBasedEvaluationContext(target, method, args, PARAMETER_NAMES);
+            return String.valueOf(key.getValue(context));
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.cache_aspect_starter.configs;
+
+import com.example.cache_aspect_starter.aspects.CachedResponseAspect;
+import com.example.cache_aspect_starter.stores.InMemoryResponseStore;
+import com.example.cache_aspect_starter.stores.ResponseStore;
+import com.example.cache_aspect_starter.util.PrincipalResolver;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.security.Principal;
+import java.util.Optional;
+
+@Configuration
+@EnableConfigurationProperties(CachedResponseConfig.class)
+@ConditionalOnProperty(prefix = "response-cache", name = "enabled", matchIfMissing = true)
+public class CachedResponseAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean(ResponseStore.class)
+    public ResponseStore inMemoryResponseStore(CachedResponseConfig config, ObjectProvider<MeterRegistry> meterRegistry) {
+        InMemoryResponseStore store = new InMemoryResponseStore(config.getMaxEntries(), config.getMaxScopes());
+        meterRegistry.ifAvailable(store::bindTo);
+        return store;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(PrincipalResolver.class)
+    public PrincipalResolver userPrincipalResolver() {
+        return request -> Optional.ofNullable(request.getUserPrincipal()).map(Principal::getName);
+    }
+
+    @Bean
+    public CachedResponseAspect cachedResponseAspect(ResponseStore responseStore,
+                                                     PrincipalResolver principalResolver,
+                                                     ObjectMapper mapper,
+                                                     ObjectProvider<MeterRegistry> meterRegistry) {
+        return new CachedResponseAspect(responseStore, principalResolver, mapper, meterRegistry.getIfAvailable());
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.cache_aspect_starter.configs;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "response-cache")
+public class CachedResponseConfig {
+    private boolean enabled = true;
+    private long maxEntries = 10_000;
+    private long maxScopes = 100_000;
+}
@@ -0,0 +1,105 @@
+package com.example.cache_aspect_starter.stores;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Хранилище ответов в памяти процесса.
+ * Количество записей ограничено {@code maxEntries}, каждая запись живёт своё время.
+ */
+public class InMemoryResponseStore implements ResponseStore {
+
+    private final Cache<ResponseKey, Entry> entries;
+    private final Cache<Scope, AtomicLong> versions;
+
+    public InMemoryResponseStore(long maxEntries, long maxScopes) {
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfter(new EntryExpiry())
+                .recordStats()
+                .build();
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(maxScopes)
+                .build();
+    }
+
+    /**
+     * Публикует статистику попаданий в хранилище.
+     *
+     * @param registry реестр метрик
+     */
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, entries, "response-cache");
+    }
+
+    @Override
+    public long version(String cache, String principal) {
+        return scopeVersion(new Scope(cache, principal)).get();
+    }
+
+    @Override
+    public byte[] get(ResponseKey key) {
+        Entry entry = entries.getIfPresent(key);
+        return entry == null ? null : entry.value();
+    }
+
+    @Override
+    public void put(ResponseKey key, byte[] value, Duration ttl) {
+        entries.put(key, new Entry(value, ttl.toNanos()));
+    }
+
+    @Override
+    public void evict(String cache, String principal) {
+        scopeVersion(new Scope(cache, principal)).incrementAndGet();
+    }
+
+    /**
+     * Меняет версии всех пользователей кэша, которые есть в кэше версий.
+     * Версия, уже вытесненная из кэша версий, при следующем чтении создаётся заново с новым значением.
+     */
+    @Override
+    public void evictAll(String cache) {
+        versions.asMap().forEach((scope, version) -> {
+            if (scope.cache().equals(cache)) {
+                version.incrementAndGet();
+            }
+        });
+    }
+
+    /**
+     * Начальная версия берётся из {@link System#nanoTime()}, чтобы версия, вытесненная из кэша версий
+     * и созданная заново, не совпала с версией уже сохранённых записей.
+     */
+    private AtomicLong scopeVersion(Scope scope) {
+        return versions.get(scope, key -> new AtomicLong(System.nanoTime()));
+    }
+
+    private record Scope(String cache, String principal) {
+    }
+
+    private record Entry(byte[] value, long ttlNanos) {
+    }
+
+    private static final class EntryExpiry implements Expiry<ResponseKey, Entry> {
+        @Override
+        public long expireAfterCreate(ResponseKey key, Entry entry, long currentTime) {
+            return entry.ttlNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(ResponseKey key, Entry entry, long currentTime, long currentDuration) {
+            return entry.ttlNanos();
+        }
+
+        @Override
+        public long expireAfterRead(ResponseKey key, Entry entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.cache_aspect_starter.stores;
+
+/**
+ * Ключ записи в хранилище ответов.
+ *
+ * @param cache     имя кэша
+ * @param principal пользователь, для которого закэширован ответ
+ * @param version   версия записей пользователя в кэше на момент чтения, см. {@link ResponseStore#version}
+ * @param key       значение ключа из {@link com.example.cache_aspect_starter.annotations.CachedResponse#key()}
+ */
+public record ResponseKey(String cache, String principal, long version, String key) {
+}
@@ -0,0 +1,53 @@
+package com.example.cache_aspect_starter.stores;
+
+import java.time.Duration;
+
+/**
+ * Хранилище сериализованных ответов.
+ * Удаление записей пользователя меняет версию его записей в кэше, поэтому ответ,
+ * вычисленный до удаления, сохраняется под старой версией и больше не читается.
+ * Приложение может объявить свою реализацию, по умолчанию используется {@link InMemoryResponseStore}.
+ */
+public interface ResponseStore {
+
+    /**
+     * Возвращает текущую версию записей пользователя в кэше.
+     *
+     * @param cache     имя кэша
+     * @param principal пользователь
+     * @return версия записей
+     */
+    long version(String cache, String principal);
+
+    /**
+     * Возвращает сохранённый ответ.
+     *
+     * @param key ключ записи
+     * @return сериализованный ответ или null, если записи нет
+     */
+    byte[] get(ResponseKey key);
+
+    /**
+     * Сохраняет ответ.
+     *
+     * @param key   ключ записи
+     * @param value сериализованный ответ
+     * @param ttl   время жизни записи
+     */
+    void put(ResponseKey key, byte[] value, Duration ttl);
+
+    /**
+     * Удаляет все записи пользователя в кэше.
+     *
+     * @param cache     имя кэша
+     * @param principal пользователь
+     */
+    void evict(String cache, String principal);
+
+    /**
+     * Удаляет записи всех пользователей в кэше.
+     *
+     * @param cache имя кэша
+     */
+    void evictAll(String cache);
+}
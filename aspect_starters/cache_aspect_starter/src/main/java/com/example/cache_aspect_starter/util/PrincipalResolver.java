@@ -0,0 +1,33 @@
+package com.example.cache_aspect_starter.util;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.util.Optional;
+
+/**
+ * Определяет пользователя, для которого кэшируется ответ.
+ * Приложение может объявить свою реализацию, например, если пользователь уже аутентифицирован фильтром.
+ * По умолчанию используется {@link HttpServletRequest#getUserPrincipal()}.
+ */
+public interface PrincipalResolver {
+
+    /**
+     * Возвращает идентификатор пользователя текущего запроса.
+     *
+     * @param request текущий запрос
+     * @return идентификатор пользователя или пустой Optional, если пользователь не аутентифицирован
+     */
+    Optional<String> resolvePrincipal(HttpServletRequest request);
+
+    /**
+     * Проверяет, может ли пользователь текущего запроса читать и изменять данные других пользователей,
+     * например, если это администратор. Такие ответы не кэшируются, а изменения удаляют записи
+     * указанных кэшей всех пользователей, так как владелец изменённых данных неизвестен.
+     *
+     * @param request текущий запрос
+     * @return true, если пользователь действует от имени других пользователей
+     */
+    default boolean isPrivileged(HttpServletRequest request) {
+        return false;
+    }
+}
@@ -0,0 +1,66 @@
+package org.example.infrastructure.util;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.example.core.models.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import javax.crypto.SecretKey;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение проверки токена до и после кэширования.
+ * {@code legacyGetClaims} повторяет прежнюю реализацию: два новых парсера и две проверки подписи на вызов.
+ * Запуск: {@code gradle jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JwtProviderBenchmark {
+    private static final String SIGNING_KEY = "c3Nzc3Nzc3NzdWVwci1zaWNyZXQta2V5LWZvci1qd3QtdG9rZW4=";
+
+    private SecretKey secretKey;
+    private JwtProvider jwtProvider;
+    private JwtProvider uncachedJwtProvider;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        secretKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SIGNING_KEY));
+        jwtProvider = new JwtProvider(SIGNING_KEY);
+        uncachedJwtProvider = new JwtProvider(SIGNING_KEY, 0);
+        token = "Bearer " + jwtProvider.generateAccessToken(new User(1, "user@mail.ru", "password", false));
+    }
+
+    @Benchmark
+    public Claims legacyGetClaims() {
+        String jwtToken = token.substring(7);
+        Jwts.parser()
+                .verifyWith(secretKey)
+                .build()
+                .parseSignedClaims(jwtToken);
+        return Jwts.parser()
+                .verifyWith(secretKey)
+                .build()
+                .parseSignedClaims(jwtToken)
+                .getPayload();
+    }
+
+    @Benchmark
+    public Claims singleParseGetClaims() {
+        return uncachedJwtProvider.getClaims(token).orElseThrow();
+    }
+
+    @Benchmark
+    public Claims cachedGetClaims() {
+        return jwtProvider.getClaims(token).orElseThrow();
+    }
+}
@@ -0,0 +1,71 @@
+package org.example.infrastructure.util;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.core.util.PasswordManager;
+import org.example.exceptions.TooManyAttemptsException;
+import org.example.infrastructure.configs.LoginThrottleConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость одной попытки входа при переборе паролей.
+ * {@code unthrottled} - каждая попытка хэширует пароль, как до ограничения частоты.
+ * {@code throttledHotEmail} - перебор паролей одного email с тысячи адресов,
+ * {@code throttledSingleIp} - перебор email с одного адреса; после исчерпания лимита попытка
+ * отклоняется без хэширования, и время на попытку не растёт с интенсивностью атаки.
+ * Запуск: {@code gradle jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Threads(4)
+public class LoginThrottleBenchmark {
+    private static final String PASSWORD = "password";
+    private static final int ADDRESSES = 1000;
+
+    private LoginThrottle loginThrottle;
+    private String[] addresses;
+
+    @Setup
+    public void setUp() {
+        loginThrottle = new LoginThrottle(new LoginThrottleConfig(), new SimpleMeterRegistry(), Ticker.systemTicker());
+        addresses = new String[ADDRESSES];
+        for (int i = 0; i < ADDRESSES; i++) {
+            addresses[i] = "10.0.%d.%d".formatted(i / 256, i % 256);
+        }
+    }
+
+    @Benchmark
+    public String unthrottled() {
+        return PasswordManager.getPasswordHash(PASSWORD);
+    }
+
+    @Benchmark
+    public String throttledHotEmail() {
+        return attempt(addresses[ThreadLocalRandom.current().nextInt(ADDRESSES)], "victim@mail.ru");
+    }
+
+    @Benchmark
+    public String throttledSingleIp() {
+        return attempt("10.1.0.1", "user" + ThreadLocalRandom.current().nextInt(100_000) + "@mail.ru");
+    }
+
+    private String attempt(String clientIp, String email) {
+        try {
+            loginThrottle.acquire(clientIp, email);
+        } catch (TooManyAttemptsException e) {
+            return null;
+        }
+        return PasswordManager.getPasswordHash(PASSWORD);
+    }
+}
@@ -1,6 +1,7 @@
 package org.example;
 
 import com.example.logging_aspect_starter.annotations.EnableLoggingAspect;
+import org.example.infrastructure.commands.CalibratePasswordHashCommand;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
@@ -8,6 +9,10 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 @EnableLoggingAspect
 public class HabitTrackerApplication {
     public static void main(String[] args) {
+        if (CalibratePasswordHashCommand.isRequested(args)) {
+            CalibratePasswordHashCommand.main(args);
+            return;
+        }
         SpringApplication.run(HabitTrackerApplication.class, args);
     }
 }
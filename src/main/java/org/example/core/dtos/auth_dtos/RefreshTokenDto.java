@@ -0,0 +1,19 @@
+package org.example.core.dtos.auth_dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "DTO for refreshing authentication token")
+public class RefreshTokenDto {
+    @NotBlank(message = "Refresh token must not be blank")
+    @Size(max = 255, message = "Refresh token must be at most 255 characters")
+    @Schema(description = "Refresh token issued on login, registration or previous refresh", example = "q0rYx2l9m1kH3c3D8bW0pZ4tV7sN6eA5uJ1gF2hK9oI")
+    private String refreshToken;
+}
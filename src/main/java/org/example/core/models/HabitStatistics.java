@@ -0,0 +1,24 @@
+package org.example.core.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+/**
+ * Класс, представляющий статистику выполнения привычки.
+ * Содержит: идентификатор привычки, частоту и дату создания привычки, количество отметок,
+ * дату последнего выполнения, признак выполнения в текущем периоде, текущую и самую длинную серии выполнений.
+ */
+@Getter
+@AllArgsConstructor
+public class HabitStatistics {
+    private final int habitId;
+    private final HabitFrequency frequency;
+    private final LocalDate dayOfCreation;
+    private final int trackCount;
+    private final LocalDate lastCompleteDate;
+    private final boolean isComplete;
+    private final int currentStreak;
+    private final int longestStreak;
+}
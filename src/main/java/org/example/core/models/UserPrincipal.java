@@ -0,0 +1,18 @@
+package org.example.core.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * Класс, представляющий аутентифицированного пользователя текущего запроса.
+ * Содержит: идентификатор пользователя, признак администратора и момент истечения токена.
+ */
+@Getter
+@AllArgsConstructor
+public class UserPrincipal {
+    private final int userId;
+    private final boolean isAdmin;
+    private final Instant expiresAt;
+}
@@ -7,6 +7,7 @@ import org.example.core.models.Habit;
 import org.example.exceptions.HabitNotFoundException;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Интерфейс для работы с хранилищем привычек.
@@ -18,8 +19,9 @@ public interface IHabitRepository {
      * Создаёт новую привычку на основе переданного DTO.
      *
      * @param dto объект {@link CreateHabitDto}, содержащий информацию для создания привычки
+     * @return созданная привычка или null, если привычку не удалось создать
      */
-    void create(CreateHabitDto dto);
+    Habit create(CreateHabitDto dto);
 
     /**
      * Возвращает список всех привычек пользователя по его идентификатору.
@@ -29,6 +31,23 @@ public interface IHabitRepository {
      */
     List<Habit> getAllHabitsByUserId(int userId);
 
+    /**
+     * Возвращает идентификаторы всех привычек пользователя.
+     *
+     * @param userId уникальный идентификатор пользователя
+     * @return идентификаторы привычек или null, если их не удалось получить
+     */
+    int[] getHabitIdsByUserId(int userId);
+
+    /**
+     * Проверяет, принадлежит ли привычка пользователю.
+     *
+     * @param habitId уникальный идентификатор привычки
+     * @param userId  уникальный идентификатор пользователя
+     * @return true, если привычка существует и принадлежит пользователю
+     */
+    boolean existsByIdAndUserId(int habitId, int userId);
+
     /**
      * Возвращает привычку пользователя по её идентификатору.
      *
@@ -37,17 +56,48 @@ public interface IHabitRepository {
      */
     Habit getHabitById(int habitId) throws HabitNotFoundException;
 
+    /**
+     * Ищет привычку по её идентификатору.
+     *
+     * @param habitId уникальный идентификатор привычки
+     * @return найденная привычка или пустой {@link Optional}, если привычка не найдена
+     */
+    Optional<Habit> findHabitById(int habitId);
+
     /**
      * Обновляет существующую привычку на основе переданного DTO.
      *
      * @param dto объект {@link UpdateHabitDto}, содержащий обновлённые данные привычки
+     * @return количество обновлённых привычек
      */
-    void update(int habitId, UpdateHabitDto dto);
+    int update(int habitId, UpdateHabitDto dto);
+
+    /**
+     * Обновляет привычку, если она принадлежит пользователю.
+     * Проверка владения и обновление выполняются одним запросом.
+     *
+     * @param habitId идентификатор привычки
+     * @param userId  идентификатор владельца привычки
+     * @param dto     объект {@link UpdateHabitDto}, содержащий обновлённые данные привычки
+     * @return количество обновлённых привычек, 0 если привычка не найдена у пользователя
+     */
+    int updateForUser(int habitId, int userId, UpdateHabitDto dto);
 
     /**
      * Удаляет привычку по её идентификатору.
      *
      * @param id идентификатор привычки
+     * @return количество удалённых привычек
+     */
+    int remove(int id);
+
+    /**
+     * Удаляет привычку, если она принадлежит пользователю.
+     * Проверка владения и удаление выполняются одним запросом.
+     *
+     * @param id     идентификатор привычки
+     * @param userId идентификатор владельца привычки
+     * @return количество удалённых привычек, 0 если привычка не найдена у пользователя
      */
-    void remove(int id);
+    int removeForUser(int id, int userId);
 }
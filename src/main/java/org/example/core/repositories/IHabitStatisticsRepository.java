@@ -0,0 +1,39 @@
+package org.example.core.repositories;
+
+import org.example.core.models.HabitStatistics;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Интерфейс для получения статистики выполнения привычек.
+ * Статистика хранится отдельно от отметок и обновляется вместе с ними,
+ * поэтому её чтение не зависит от количества отметок привычки.
+ */
+public interface IHabitStatisticsRepository {
+
+    /**
+     * Возвращает статистику по всем привычкам пользователя.
+     *
+     * @param userId идентификатор пользователя
+     * @param today  текущая дата, относительно которой считается выполнение и серия
+     * @return {@code List<HabitStatistics>} статистика по каждой привычке пользователя
+     */
+    List<HabitStatistics> getStatisticsByUserId(int userId, LocalDate today);
+
+    /**
+     * Возвращает статистику по привычке.
+     *
+     * @param habitId идентификатор привычки
+     * @param today   текущая дата, относительно которой считается выполнение и серия
+     * @return {@link HabitStatistics} статистика привычки или null, если привычка не найдена
+     */
+    HabitStatistics getStatisticsByHabitId(int habitId, LocalDate today);
+
+    /**
+     * Пересчитывает сохранённую статистику всех привычек по их отметкам о выполнении.
+     *
+     * @return количество привычек, статистика которых пересчитана
+     */
+    int rebuildAll();
+}
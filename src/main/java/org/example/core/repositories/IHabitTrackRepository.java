@@ -1,8 +1,12 @@
 package org.example.core.repositories;
 
 import org.example.core.models.HabitTrack;
+import org.example.exceptions.HabitNotFoundException;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 /**
  * Интерфейс для работы с записями отслеживания привычек.
@@ -11,11 +15,28 @@ import java.util.List;
 public interface IHabitTrackRepository {
 
     /**
-     * Создаёт новую отметку о выполнении для привычки.
+     * Создаёт отметку о выполнении привычки за текущий день.
+     * Повторный вызов в тот же день новую отметку не создаёт.
      *
-     * @param dto данные для создания записи отслеживания привычки
+     * @param habitId идентификатор привычки
+     * @return созданная отметка или пустой {@link Optional}, если отметка за текущий день уже есть
+     * @throws HabitNotFoundException если привычки не существует
+     * @throws IllegalStateException  если запрос к базе данных завершился ошибкой
+     */
+    Optional<HabitTrack> create(int habitId) throws HabitNotFoundException;
+
+    /**
+     * Создаёт отметку о выполнении за текущий день, если привычка принадлежит пользователю.
+     * Проверка владения и вставка выполняются одним запросом, повторный вызов в тот же день
+     * новую отметку не создаёт.
+     *
+     * @param habitId идентификатор привычки
+     * @param userId  идентификатор владельца привычки
+     * @return созданная отметка или пустой {@link Optional}, если отметка за текущий день уже есть
+     * @throws HabitNotFoundException если привычка не найдена у пользователя
+     * @throws IllegalStateException  если запрос к базе данных завершился ошибкой
      */
-    void create(int dto);
+    Optional<HabitTrack> createForUser(int habitId, int userId) throws HabitNotFoundException;
 
     /**
      * Возвращает список всех отметок о выполнении для указанной привычки.
@@ -25,6 +46,31 @@ public interface IHabitTrackRepository {
      */
     List<HabitTrack> getHabitTracks(int habitId);
 
+    /**
+     * Возвращает отметки о выполнении сразу для нескольких привычек одним запросом.
+     *
+     * @param habitIds идентификаторы привычек
+     * @return отметки, сгруппированные по идентификатору привычки; для каждой запрошенной
+     * привычки есть запись, у привычек без отметок или несуществующих привычек список пуст
+     */
+    Map<Integer, List<HabitTrack>> getHabitTracks(Collection<Integer> habitIds);
+
+    /**
+     * Возвращает отметки о выполнении всех привычек пользователя одним запросом.
+     *
+     * @param userId идентификатор пользователя
+     * @return отметки, сгруппированные по идентификатору привычки; для каждой привычки пользователя
+     * есть запись, у привычек без отметок список пуст
+     */
+    Map<Integer, List<HabitTrack>> getUserHabitTracks(int userId);
+
+    /**
+     * Ищет отметку о выполнении по её идентификатору.
+     *
+     * @param id идентификатор отметки
+     * @return найденная отметка или пустой {@link Optional}, если отметка не найдена
+     */
+    Optional<HabitTrack> findHabitTrackById(int id);
 
     /**
      * Удаляет все отметки о выполнении для указанной привычки.
@@ -37,6 +83,17 @@ public interface IHabitTrackRepository {
      * Удаляет отметку о выполнении.
      *
      * @param id идентификатор отметки
+     * @return удалённая отметка или пустой {@link Optional}, если отметка не найдена
+     */
+    Optional<HabitTrack> remove(int id);
+
+    /**
+     * Удаляет отметку о выполнении, если она относится к привычке пользователя.
+     * Проверка владения и удаление выполняются одним запросом.
+     *
+     * @param id     идентификатор отметки
+     * @param userId идентификатор владельца привычки
+     * @return удалённая отметка или пустой {@link Optional}, если отметка не найдена у пользователя
      */
-    void remove(int id);
+    Optional<HabitTrack> removeForUser(int id, int userId);
 }
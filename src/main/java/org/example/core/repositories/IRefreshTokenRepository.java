@@ -0,0 +1,41 @@
+package org.example.core.repositories;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Интерфейс хранилища токенов обновления.
+ * Хранятся только хэши токенов, поэтому утечка таблицы не даёт действующих токенов.
+ */
+public interface IRefreshTokenRepository {
+
+    /**
+     * Сохраняет токен обновления пользователя. Заодно удаляет истёкшие токены этого пользователя.
+     *
+     * @param userId    идентификатор пользователя
+     * @param tokenHash хэш токена
+     * @param expiresAt момент истечения токена
+     * @throws IllegalStateException если запрос к базе данных завершился ошибкой
+     */
+    void create(int userId, String tokenHash, Instant expiresAt);
+
+    /**
+     * Погашает действующий токен и сохраняет вместо него новый одним запросом,
+     * поэтому один токен нельзя использовать дважды даже при одновременных запросах.
+     *
+     * @param tokenHash    хэш предъявленного токена
+     * @param newTokenHash хэш нового токена
+     * @param expiresAt    момент истечения нового токена
+     * @return идентификатор владельца токена или пустой {@link Optional}, если токен не найден или истёк
+     * @throws IllegalStateException если запрос к базе данных завершился ошибкой
+     */
+    Optional<Integer> rotate(String tokenHash, String newTokenHash, Instant expiresAt);
+
+    /**
+     * Отзывает все токены обновления пользователя.
+     *
+     * @param userId идентификатор пользователя
+     * @return количество отозванных токенов
+     */
+    int removeAllByUserId(int userId);
+}
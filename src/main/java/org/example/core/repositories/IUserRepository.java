@@ -7,16 +7,19 @@ import org.example.core.models.User;
 import org.example.exceptions.UserNotFoundException;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface IUserRepository {
 
     /**
-     * Создаёт нового пользователя.
+     * Создаёт нового пользователя, если email ещё не занят.
+     * Проверка email и вставка выполняются одним запросом.
      *
      * @param dto {@link AuthUserDto}, данные для создания пользователя
-     * @return созданный пользователь
+     * @return созданный пользователь или пустой {@link Optional}, если email уже занят
+     * или создать пользователя не удалось
      */
-    User create(AuthUserDto dto);
+    Optional<User> create(AuthUserDto dto);
 
     /**
      * Возвращает пользователя по его email.
@@ -27,6 +30,14 @@ public interface IUserRepository {
      */
     User getByEmail(String email) throws UserNotFoundException;
 
+    /**
+     * Ищет пользователя по его email.
+     *
+     * @param email электронная почта пользователя
+     * @return найденный пользователь или пустой {@link Optional}, если пользователь не найден
+     */
+    Optional<User> findByEmail(String email);
+
     /**
      * Возвращает список всех пользователей.
      *
@@ -37,10 +48,12 @@ public interface IUserRepository {
     /**
      * Обновляет данные пользователя.
      *
-     * @param dto {@link AuthUserDto}, данные для обновления пользователя
-     * @throws UserNotFoundException если пользователь не найден
+     * Поля со значением null не изменяются.
+     *
+     * @param dto {@link UpdateUserDto}, данные для обновления пользователя
+     * @return количество обновлённых пользователей, 0 если пользователь не найден
      */
-    void update(int userId, UpdateUserDto dto) throws UserNotFoundException;
+    int update(int userId, UpdateUserDto dto);
 
     /**
      * Удаляет пользователя по его идентификатору.
@@ -54,9 +67,24 @@ public interface IUserRepository {
      *
      * @param userId идентификатор пользователя
      * @param dto    данные для изменения статуса администратора
-     * @throws UserNotFoundException если пользователь не найден
+     * @return количество обновлённых пользователей, 0 если пользователь не найден
      */
-    void changeUserAdminStatus(int userId, ChangeAdminStatusDto dto) throws UserNotFoundException;
+    int changeUserAdminStatus(int userId, ChangeAdminStatusDto dto);
 
+    /**
+     * Возвращает пользователя по его идентификатору.
+     *
+     * @param id идентификатор пользователя
+     * @return {@link User} найденный пользователь
+     * @throws UserNotFoundException если пользователь не найден
+     */
     User getById(int id) throws UserNotFoundException;
+
+    /**
+     * Ищет пользователя по его идентификатору.
+     *
+     * @param id идентификатор пользователя
+     * @return найденный пользователь или пустой {@link Optional}, если пользователь не найден
+     */
+    Optional<User> findById(int id);
 }
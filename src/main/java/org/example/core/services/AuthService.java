@@ -2,19 +2,26 @@ package org.example.core.services;
 
 import lombok.RequiredArgsConstructor;
 import org.example.core.dtos.auth_dtos.AuthDto;
+import org.example.core.dtos.auth_dtos.RefreshTokenDto;
 import org.example.core.dtos.user_dtos.AuthUserDto;
 import org.example.core.models.User;
-import org.example.core.util.PasswordManager;
+import org.example.core.repositories.IRefreshTokenRepository;
 import org.example.core.util.RegexUtil;
 import org.example.exceptions.InvalidEmailException;
+import org.example.exceptions.InvalidTokenException;
+import org.example.exceptions.ServiceOverloadedException;
 import org.example.exceptions.UserAlreadyExistException;
 import org.example.exceptions.UserNotFoundException;
 import org.example.infrastructure.util.JwtProvider;
+import org.example.infrastructure.util.PasswordHasher;
+import org.example.infrastructure.util.RefreshTokenProvider;
 import org.springframework.stereotype.Service;
 
 /**
  * Класс для управления аутентификацией пользователей.
- * Содержит методы для входа и регистрации новых пользователей.
+ * Содержит методы для входа и регистрации новых пользователей, а также для обновления и отзыва токенов.
+ * Вход и регистрация выдают вместе с коротким токеном доступа токен обновления,
+ * по которому новый токен доступа выдаётся без повторной проверки пароля.
  */
 @Service
 @RequiredArgsConstructor
@@ -22,6 +29,9 @@ public class AuthService {
 
     private final UserService userService;
     private final JwtProvider jwtProvider;
+    private final PasswordHasher passwordHasher;
+    private final RefreshTokenProvider refreshTokenProvider;
+    private final IRefreshTokenRepository refreshTokenRepository;
 
 
     /**
@@ -29,45 +39,92 @@ public class AuthService {
      *
      * @param dto {@link AuthUserDto} данные для входа, включающие email и пароль
      * @return объект {@link User}, если аутентификация успешна
-     * @throws UserNotFoundException если пользователь не найден или пароль неверен
+     * @throws UserNotFoundException      если пользователь не найден или пароль неверен
+     * @throws ServiceOverloadedException если очередь хэширования паролей заполнена
+     * @throws IllegalStateException      если не удалось сохранить токен обновления
      */
-    public AuthDto login(AuthUserDto dto) throws UserNotFoundException {
-        User user = userService.getUserByEmail(dto.getEmail());
-        if (!PasswordManager.checkPasswordEquals(dto.getPassword(), user.getPassword())) {
+    public AuthDto login(AuthUserDto dto) throws UserNotFoundException, ServiceOverloadedException {
+        User user = userService.findUserByEmail(dto.getEmail()).orElseThrow(UserNotFoundException::new);
+        if (!passwordHasher.matches(dto.getPassword(), user.getPassword())) {
             throw new UserNotFoundException();
         }
-        String jwtToken = "%s %s".formatted(AuthDto.TOKEN_TYPE, jwtProvider.generateAccessToken(user));
-        return new AuthDto(jwtToken);
+        return issueTokens(user);
     }
 
     /**
      * Регистрирует нового пользователя.
+     * Занятость email проверяется той же вставкой, которая создаёт пользователя, поэтому регистрация -
+     * один запрос к базе, а одновременные регистрации с одним email не приводят к ошибке уникальности.
+     * Число хэширований для занятых email ограничивает {@link org.example.infrastructure.util.LoginThrottle}.
      *
      * @param dto данные для регистрации, включающие email и пароль
      * @return {@link User}, созданный пользователь
-     * @throws SecurityException         если произошла ошибка при генерации хэша пароля
-     * @throws UserAlreadyExistException если пользователь с таким email уже существует
-     * @throws InvalidEmailException     если формат email некорректен
+     * @throws SecurityException          если произошла ошибка при генерации хэша пароля
+     * @throws UserAlreadyExistException  если пользователь с таким email уже существует
+     * @throws InvalidEmailException      если формат email некорректен
+     * @throws ServiceOverloadedException если очередь хэширования паролей заполнена
+     * @throws IllegalStateException      если не удалось сохранить токен обновления
      */
-    public AuthDto register(AuthUserDto dto) throws SecurityException, UserAlreadyExistException, InvalidEmailException {
+    public AuthDto register(AuthUserDto dto)
+            throws SecurityException, UserAlreadyExistException, InvalidEmailException, ServiceOverloadedException {
         if (RegexUtil.isInvalidEmail(dto.getEmail())) {
             throw new InvalidEmailException();
         }
 
-        if (userService.checkEmailExist(dto.getEmail())) {
-            String msg = String.format("User with %s already exist", dto.getEmail());
-            throw new UserAlreadyExistException(msg);
-        }
-
-        String passwordHash = PasswordManager.getPasswordHash(dto.getPassword());
+        String passwordHash = passwordHasher.hash(dto.getPassword());
         if (passwordHash == null) {
             throw new SecurityException("An error occurred while trying to get a password hash");
         }
 
         dto.setPassword(passwordHash);
         User user = userService.create(dto);
-        
-        String jwtToken = "%s %s".formatted(AuthDto.TOKEN_TYPE, jwtProvider.generateAccessToken(user));
-        return new AuthDto(jwtToken);
+
+        return issueTokens(user);
+    }
+
+    /**
+     * Выдаёт новый токен доступа по токену обновления.
+     * Предъявленный токен обновления погашается и заменяется новым, поэтому каждый токен одноразовый.
+     *
+     * @param dto данные с токеном обновления
+     * @return новые токены доступа и обновления
+     * @throws InvalidTokenException если токен обновления не найден, уже использован или истёк
+     * @throws IllegalStateException если не удалось погасить токен обновления или сохранить новый
+     */
+    public AuthDto refresh(RefreshTokenDto dto) throws InvalidTokenException {
+        String refreshToken = refreshTokenProvider.generate();
+        int userId = refreshTokenRepository.rotate(
+                refreshTokenProvider.hash(dto.getRefreshToken()),
+                refreshTokenProvider.hash(refreshToken),
+                refreshTokenProvider.getExpiration()
+        ).orElseThrow(InvalidTokenException::new);
+
+        User user;
+        try {
+            user = userService.getById(userId);
+        } catch (UserNotFoundException e) {
+            throw new InvalidTokenException();
+        }
+        return new AuthDto(generateJwtToken(user), refreshToken);
+    }
+
+    /**
+     * Отзывает все токены обновления пользователя.
+     * Уже выданные токены доступа действуют до истечения своего короткого срока.
+     *
+     * @param userId идентификатор пользователя
+     */
+    public void revoke(int userId) {
+        refreshTokenRepository.removeAllByUserId(userId);
+    }
+
+    private AuthDto issueTokens(User user) {
+        String refreshToken = refreshTokenProvider.generate();
+        refreshTokenRepository.create(user.getId(), refreshTokenProvider.hash(refreshToken), refreshTokenProvider.getExpiration());
+        return new AuthDto(generateJwtToken(user), refreshToken);
+    }
+
+    private String generateJwtToken(User user) {
+        return "%s %s".formatted(AuthDto.TOKEN_TYPE, jwtProvider.generateAccessToken(user));
     }
 }
@@ -0,0 +1,138 @@
+package org.example.core.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.example.core.models.HabitTrack;
+import org.example.core.repositories.IHabitTrackRepository;
+import org.example.core.util.CompletionDays;
+import org.example.infrastructure.configs.CacheConfig;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ограниченный по размеру индекс {@code habitId -> дни выполнения привычки}.
+ * Дни хранятся в {@link CompletionDays}, поэтому статус выполнения, срок и серии привычки
+ * считаются без загрузки и сортировки её отметок.
+ * Индекс привычки загружается при первом обращении, для нескольких привычек — одним запросом,
+ * и поддерживается при создании и удалении отметок.
+ * Запись перечитывается из базы через {@code cache.completions.ttl} после загрузки, поэтому отметки,
+ * изменённые в обход {@link HabitTrackService}, попадают в индекс не позже этого срока.
+ */
+@Service
+public class HabitCompletionIndex {
+
+    private final IHabitTrackRepository habitTrackRepository;
+    private final Cache<Integer, CompletionDays> completionDaysByHabitId;
+
+    @Autowired
+    public HabitCompletionIndex(IHabitTrackRepository habitTrackRepository, CacheConfig cacheConfig) {
+        this(habitTrackRepository, cacheConfig, Ticker.systemTicker());
+    }
+
+    HabitCompletionIndex(IHabitTrackRepository habitTrackRepository, CacheConfig cacheConfig, Ticker ticker) {
+        this.habitTrackRepository = habitTrackRepository;
+        CacheConfig.Completions completions = cacheConfig.getCompletions();
+        this.completionDaysByHabitId = Caffeine.newBuilder()
+                .maximumSize(completions.getMaxHabits())
+                .expireAfter(new AfterLoad(completions.getTtl()))
+                .ticker(ticker)
+                .build();
+    }
+
+    private static CompletionDays toCompletionDays(List<HabitTrack> tracks) {
+        return CompletionDays.of(tracks.stream()
+                .mapToInt(HabitCompletionIndex::epochDay)
+                .toArray());
+    }
+
+    private static int epochDay(HabitTrack track) {
+        return (int) track.getCompleteDate().toEpochDay();
+    }
+
+    /**
+     * Возвращает дни выполнения привычки.
+     *
+     * @param habitId идентификатор привычки
+     * @return дни выполнения, пустые, если отметок нет
+     */
+    public CompletionDays getCompletionDays(int habitId) {
+        return completionDaysByHabitId.get(habitId, id -> toCompletionDays(habitTrackRepository.getHabitTracks(id)));
+    }
+
+    /**
+     * Возвращает дни выполнения нескольких привычек.
+     * Привычки, которых нет в индексе, загружаются одним запросом.
+     *
+     * @param habitIds идентификаторы привычек
+     * @return дни выполнения каждой привычки
+     */
+    public Map<Integer, CompletionDays> getCompletionDays(Collection<Integer> habitIds) {
+        return completionDaysByHabitId.getAll(habitIds, missingIds -> {
+            Map<Integer, CompletionDays> loaded = new HashMap<>();
+            habitTrackRepository.getHabitTracks(List.copyOf(missingIds))
+                    .forEach((habitId, tracks) -> loaded.put(habitId, toCompletionDays(tracks)));
+            return loaded;
+        });
+    }
+
+    /**
+     * Добавляет день созданной отметки в индекс привычки.
+     *
+     * @param track созданная отметка
+     */
+    public void onTrackCreated(HabitTrack track) {
+        completionDaysByHabitId.asMap().computeIfPresent(track.getHabitId(), (habitId, days) -> days.with(epochDay(track)));
+    }
+
+    /**
+     * Удаляет день удалённой отметки из индекса привычки.
+     *
+     * @param track удалённая отметка
+     */
+    public void onTrackRemoved(HabitTrack track) {
+        completionDaysByHabitId.asMap().computeIfPresent(track.getHabitId(), (habitId, days) -> days.without(epochDay(track)));
+    }
+
+    /**
+     * Удаляет привычку из индекса, например после удаления всех её отметок или самой привычки.
+     *
+     * @param habitId идентификатор привычки
+     */
+    public void evictHabit(int habitId) {
+        completionDaysByHabitId.invalidate(habitId);
+    }
+
+    /**
+     * Срок жизни записи {@code ttl} с момента загрузки; изменения записи его не продлевают.
+     */
+    private static final class AfterLoad implements Expiry<Integer, CompletionDays> {
+        private final long ttlNanos;
+
+        private AfterLoad(Duration ttl) {
+            this.ttlNanos = ttl.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(Integer key, CompletionDays value, long currentTime) {
+            return ttlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(Integer key, CompletionDays value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(Integer key, CompletionDays value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
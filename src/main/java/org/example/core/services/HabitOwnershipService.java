@@ -0,0 +1,114 @@
+package org.example.core.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.example.core.repositories.IHabitRepository;
+import org.example.core.util.IntSet;
+import org.example.infrastructure.configs.CacheConfig;
+import org.springframework.stereotype.Service;
+
+/**
+ * Сервис для проверки владения привычками.
+ * Хранит ограниченный по размеру индекс {@code userId -> множество идентификаторов привычек},
+ * поэтому проверка владения не загружает привычки пользователя из базы.
+ * Индекс пользователя загружается при первой проверке и поддерживается при создании и удалении привычек.
+ * Индексу доверяются только положительные ответы: привычка, которой в нём нет, могла быть создана
+ * в обход {@link #onHabitCreated}, поэтому такая проверка повторяется запросом EXISTS и найденная привычка
+ * добавляется в индекс.
+ * Если индекс пользователя не удалось построить или у пользователя слишком много привычек,
+ * проверка выполняется запросом EXISTS.
+ */
+@Slf4j
+@Service
+public class HabitOwnershipService {
+
+    private static final IntSet NOT_INDEXED = IntSet.of();
+
+    private final IHabitRepository habitRepository;
+    private final int maxHabitsPerUser;
+    private final Cache<Integer, IntSet> habitIdsByUserId;
+
+    public HabitOwnershipService(IHabitRepository habitRepository, CacheConfig cacheConfig) {
+        this.habitRepository = habitRepository;
+        this.maxHabitsPerUser = cacheConfig.getOwnership().getMaxHabitsPerUser();
+        this.habitIdsByUserId = Caffeine.newBuilder()
+                .maximumSize(cacheConfig.getOwnership().getMaxUsers())
+                .build();
+    }
+
+    /**
+     * Проверяет, принадлежит ли привычка пользователю.
+     *
+     * @param userId  идентификатор пользователя
+     * @param habitId идентификатор привычки
+     * @return true, если привычка принадлежит пользователю
+     */
+    public boolean isOwner(int userId, int habitId) {
+        IntSet habitIds = habitIdsByUserId.get(userId, this::loadHabitIds);
+        if (habitIds == null || habitIds == NOT_INDEXED) {
+            return habitRepository.existsByIdAndUserId(habitId, userId);
+        }
+        if (habitIds.contains(habitId)) {
+            return true;
+        }
+        boolean owner = habitRepository.existsByIdAndUserId(habitId, userId);
+        if (owner) {
+            onHabitCreated(userId, habitId);
+        }
+        return owner;
+    }
+
+    /**
+     * Добавляет созданную привычку в индекс.
+     *
+     * @param userId  идентификатор владельца
+     * @param habitId идентификатор созданной привычки
+     */
+    public void onHabitCreated(int userId, int habitId) {
+        habitIdsByUserId.asMap().computeIfPresent(userId, (key, habitIds) -> {
+            if (habitIds == NOT_INDEXED || habitIds.size() >= maxHabitsPerUser) {
+                return NOT_INDEXED;
+            }
+            return habitIds.with(habitId);
+        });
+    }
+
+    /**
+     * Удаляет привычку из индекса.
+     *
+     * @param userId  идентификатор владельца
+     * @param habitId идентификатор удалённой привычки
+     */
+    public void onHabitRemoved(int userId, int habitId) {
+        habitIdsByUserId.asMap().computeIfPresent(userId, (key, habitIds) ->
+                habitIds == NOT_INDEXED ? NOT_INDEXED : habitIds.without(habitId));
+    }
+
+    /**
+     * Удаляет из индекса все привычки пользователя, например после удаления пользователя.
+     *
+     * @param userId идентификатор пользователя
+     */
+    public void evictUser(int userId) {
+        habitIdsByUserId.invalidate(userId);
+    }
+
+    /**
+     * Очищает индекс.
+     */
+    public void invalidateAll() {
+        habitIdsByUserId.invalidateAll();
+    }
+
+    private IntSet loadHabitIds(int userId) {
+        int[] habitIds = habitRepository.getHabitIdsByUserId(userId);
+        if (habitIds == null) {
+            return null;
+        }
+        if (habitIds.length >= maxHabitsPerUser) {
+            return NOT_INDEXED;
+        }
+        return IntSet.of(habitIds);
+    }
+}
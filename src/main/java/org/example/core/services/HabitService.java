@@ -1,21 +1,17 @@
 package org.example.core.services;
 
-import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
 import org.example.core.dtos.habit_dtos.CreateHabitDto;
 import org.example.core.dtos.habit_dtos.UpdateHabitDto;
 import org.example.core.models.Habit;
-import org.example.core.models.HabitTrack;
+import org.example.core.models.HabitStatistics;
+import org.example.core.models.UserPrincipal;
 import org.example.core.repositories.IHabitRepository;
-import org.example.core.repositories.IHabitTrackRepository;
+import org.example.core.util.CompletionDays;
 import org.example.exceptions.HabitNotFoundException;
-import org.example.exceptions.InvalidTokenException;
-import org.example.infrastructure.util.JwtProvider;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
-import java.time.Period;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -30,28 +26,28 @@ public class HabitService {
 
     private final IHabitRepository habitRepository;
 
-    private final IHabitTrackRepository habitTrackRepository;
+    private final HabitStatisticsCache habitStatisticsCache;
 
     private final UserService userService;
 
-    private final JwtProvider jwtProvider;
+    private final HabitOwnershipService habitOwnershipService;
+
+    private final HabitCompletionIndex habitCompletionIndex;
 
 
     /**
      * Создаёт новую привычку.
      *
-     * @param token токен пользователя
-     * @param dto   {@link CreateHabitDto}, данные для создания привычки
+     * @param principal аутентифицированный пользователь
+     * @param dto       {@link CreateHabitDto}, данные для создания привычки
      */
-    public void createUserHabit(String token, CreateHabitDto dto) throws InvalidTokenException {
-        int userIdFromToken = jwtProvider.getUserIdFromToken(token);
-        Claims claims = jwtProvider.getClaims(token).orElse(null);
-        if (claims == null) {
-            return;
-        }
-        boolean isAdmin = claims.get("is_admin", Boolean.class);
-        if (userIdFromToken == dto.getUserId() || isAdmin) {
-            habitRepository.create(dto);
+    public void createUserHabit(UserPrincipal principal, CreateHabitDto dto) {
+        if (principal.getUserId() == dto.getUserId() || principal.isAdmin()) {
+            Habit habit = habitRepository.create(dto);
+            if (habit != null) {
+                habitOwnershipService.onHabitCreated(habit.getUserId(), habit.getId());
+                habitStatisticsCache.onHabitChanged(habit.getUserId(), habit.getId());
+            }
         }
     }
 
@@ -59,15 +55,20 @@ public class HabitService {
      * Возвращает список привычек пользователя, отфильтрованный по статусу выполнения.
      *
      * @param userId     идентификатор пользователя
+     * Дни выполнения привычек, которых нет в {@link HabitCompletionIndex}, читаются одним запросом.
+     *
      * @param isComplete если true — возвращает выполненные привычки, иначе — невыполненные
      * @return {@code List<Habit>} список привычек пользователя
      */
     public List<Habit> getUserHabitsByCompleteStatus(int userId, boolean isComplete) {
-        if (isComplete) {
-            return habitRepository.getAllHabitsByUserId(userId).stream().filter(this::isCompleteHabit).toList();
-        } else {
-            return habitRepository.getAllHabitsByUserId(userId).stream().filter(habit -> !isCompleteHabit(habit)).toList();
-        }
+        List<Habit> habits = habitRepository.getAllHabitsByUserId(userId);
+        Map<Integer, CompletionDays> completionDays = habitCompletionIndex.getCompletionDays(
+                habits.stream().map(Habit::getId).toList());
+        int today = (int) LocalDate.now().toEpochDay();
+        return habits.stream()
+                .filter(habit -> completionDays.getOrDefault(habit.getId(), CompletionDays.of())
+                        .isCompleteAt(today, getPeriodDays(habit)) == isComplete)
+                .toList();
     }
 
     /**
@@ -79,27 +80,31 @@ public class HabitService {
      */
     public boolean isCompleteUserHabit(int userId, int habitId) throws HabitNotFoundException {
         Habit habit = getUserHabit(userId, habitId);
-        return isCompleteHabit(habit);
+        return habitCompletionIndex.getCompletionDays(habitId)
+                .isCompleteAt((int) LocalDate.now().toEpochDay(), getPeriodDays(habit));
     }
 
-    private boolean isCompleteHabit(Habit habit) {
-        List<HabitTrack> tracks = habitTrackRepository.getHabitTracks(habit.getId());
-        Period period = habit.getFrequency().getPeriod();
-        return tracks.stream()
-                .anyMatch(habitTrack -> habitTrack.getCompleteDate().isAfter(LocalDate.now().minusDays(period.getDays())));
+    private static int getPeriodDays(Habit habit) {
+        return habit.getFrequency().getPeriod().getDays();
     }
 
     /**
      * Возвращает статистику по всем привычкам пользователя.
+     * Статистика всех привычек считается одним запросом.
+     * Статистика берётся из {@link HabitStatisticsCache}, дни выполнения привычек, которых нет
+     * в {@link HabitCompletionIndex}, читаются ещё одним запросом.
      *
      * @param userId идентификатор пользователя
      * @return список {@code List<Map<String, Object>>} статистик по каждой привычке
      */
     public List<Map<String, Object>> getStatisticsOfAllUserHabits(int userId) {
-        List<Map<String, Object>> habitStatistics = new ArrayList<>();
-        List<Habit> habits = habitRepository.getAllHabitsByUserId(userId);
-        habits.forEach(habit -> habitStatistics.add(getHabitStats(habit)));
-        return habitStatistics;
+        List<HabitStatistics> statistics = habitStatisticsCache.getUserStatistics(userId);
+        Map<Integer, CompletionDays> completionDays = habitCompletionIndex.getCompletionDays(
+                statistics.stream().map(HabitStatistics::getHabitId).toList());
+        return statistics.stream()
+                .map(habitStatistics -> getHabitStats(habitStatistics,
+                        completionDays.getOrDefault(habitStatistics.getHabitId(), CompletionDays.of())))
+                .toList();
     }
 
     /**
@@ -110,79 +115,65 @@ public class HabitService {
      * @throws HabitNotFoundException если пользователь не администратор, но пытается получить статистику не для своей привычки
      */
     public Map<String, Object> getStatisticsOfOneUserHabit(int userId, int habitId) throws HabitNotFoundException {
-        Habit habit = getUserHabit(userId, habitId);
-        return getHabitStats(habit);
+        return getHabitStats(getUserHabitStatistics(userId, habitId), habitCompletionIndex.getCompletionDays(habitId));
+    }
+
+    private HabitStatistics getUserHabitStatistics(int userId, int habitId) throws HabitNotFoundException {
+        if (!isUserHabitOrUserIsAdmin(userId, habitId)) {
+            throw new HabitNotFoundException();
+        }
+        HabitStatistics statistics = habitStatisticsCache.getHabitStatistics(habitId);
+        if (statistics == null) {
+            throw new HabitNotFoundException();
+        }
+        return statistics;
     }
 
     /**
      * Возвращает статистику по привычке.
+     * Количество выполнений берётся из сохранённой статистики, статус и серии считаются по {@link HabitCompletionIndex}.
      * Статистика включает в себя:
      * track_count - общее количество выполнений,
      * completion_percent - процент успешного выполнения привычки с момента её создания,
-     * current_streak - текущая серия выполнений
+     * current_streak - текущая серия выполнений,
+     * longest_streak - самая длинная серия выполнений
      *
-     * @param habit {@link Habit} идентификатор пользователя
+     * @param statistics     {@link HabitStatistics} посчитанная статистика привычки
+     * @param completionDays {@link CompletionDays} дни выполнения привычки
      * @return словарь {@code Map<String, Object>} статистика по привычке
      */
-    private Map<String, Object> getHabitStats(Habit habit) {
-        List<HabitTrack> tracks = habitTrackRepository.getHabitTracks(habit.getId());
+    private Map<String, Object> getHabitStats(HabitStatistics statistics, CompletionDays completionDays) {
         Map<String, Object> statistic = new HashMap<>();
 
-        int trackCount = tracks.size();
-        int daysSinceCreationHabit = habit.getDayOfCreation().until(LocalDate.now()).getDays();
-        int maxTrackCount = (daysSinceCreationHabit / habit.getFrequency().getPeriod().getDays()) + 1;
+        LocalDate today = LocalDate.now();
+        int periodDays = statistics.getFrequency().getPeriod().getDays();
+        int trackCount = statistics.getTrackCount();
+        int daysSinceCreationHabit = statistics.getDayOfCreation().until(today).getDays();
+        int maxTrackCount = (daysSinceCreationHabit / periodDays) + 1;
 
-        statistic.put("habit_id", habit.getId());
-        statistic.put("completion_status", isCompleteHabit(habit));
-        statistic.put("track_count", tracks.size());
+        statistic.put("habit_id", statistics.getHabitId());
+        statistic.put("completion_status", completionDays.isCompleteAt((int) today.toEpochDay(), periodDays));
+        statistic.put("track_count", trackCount);
         statistic.put("completion_percent", (trackCount * 100) / maxTrackCount);
-        statistic.put("current_streak", getHabitStreak(habit));
+        statistic.put("current_streak", completionDays.currentStreak((int) today.toEpochDay(), periodDays));
+        statistic.put("longest_streak", completionDays.longestStreak(periodDays));
         return statistic;
     }
 
-    /**
-     * Возвращает текущую серию выполнений привычки (стрик).
-     * Серией выполнений считается, если привычка была выполнена n раз,
-     * при этом между этими выполнениями, нет периода большего, чем частота выполнения привычки
-     *
-     * @param habit привычка
-     * @return текущую серию выполнений
-     */
-    private int getHabitStreak(Habit habit) {
-        if (!isCompleteHabit(habit)) {
-            return 0;
-        }
-        List<HabitTrack> tracks = habitTrackRepository.getHabitTracks(habit.getId());
-        tracks.sort((o1, o2) -> o2.getCompleteDate().compareTo(o1.getCompleteDate()));
-        int streak = 1;
-        for (int i = 0; i < tracks.size() - 1; i++) {
-            int habitFrequencyInDays = habit.getFrequency().getPeriod().getDays();
-            boolean isCompleteHabitInTime = tracks.get(i)
-                    .getCompleteDate()
-                    .isBefore(tracks.get(i + 1).getCompleteDate().plusDays(habitFrequencyInDays));
-            isCompleteHabitInTime = isCompleteHabitInTime || tracks.get(i)
-                    .getCompleteDate()
-                    .isEqual(tracks.get(i + 1).getCompleteDate().plusDays(habitFrequencyInDays));
-            if (isCompleteHabitInTime) {
-                streak++;
-            } else {
-                break;
-            }
-        }
-        return streak;
-    }
-
     /**
      * Обновляет привычку.
      *
      * @param dto {@link UpdateHabitDto} данные для обновления привычки
      */
     public void updateUserHabit(int userId, int habitId, UpdateHabitDto dto) throws HabitNotFoundException {
-        if (isUserHabitOrUserIsAdmin(userId, habitId)) {
-            habitRepository.update(habitId, dto);
-        } else {
+        if (habitRepository.updateForUser(habitId, userId, dto) > 0) {
+            habitStatisticsCache.onHabitChanged(userId, habitId);
+            return;
+        }
+        if (!userService.isUserAdmin(userId) || habitRepository.update(habitId, dto) == 0) {
             throw new HabitNotFoundException();
         }
+        habitStatisticsCache.onHabitChanged(habitId);
     }
 
     /**
@@ -193,19 +184,8 @@ public class HabitService {
      */
     public LocalDate getHabitDeadlineDay(int userId, int habitId) throws HabitNotFoundException {
         Habit habit = getUserHabit(userId, habitId);
-        List<HabitTrack> tracks = habitTrackRepository.getHabitTracks(habitId);
-        LocalDate lastCompleteDay;
-        if (tracks.isEmpty()) {
-            lastCompleteDay = habit.getDayOfCreation();
-        } else {
-            lastCompleteDay = LocalDate.EPOCH;
-            for (var track : tracks) {
-                if (lastCompleteDay.isBefore(track.getCompleteDate())) {
-                    lastCompleteDay = track.getCompleteDate();
-                }
-            }
-        }
-        return lastCompleteDay.plusDays(habit.getFrequency().getPeriod().getDays());
+        return LocalDate.ofEpochDay(habitCompletionIndex.getCompletionDays(habitId)
+                .deadline((int) habit.getDayOfCreation().toEpochDay(), getPeriodDays(habit)));
     }
 
     /**
@@ -221,7 +201,7 @@ public class HabitService {
 
     public Habit getUserHabit(int userId, int habitId) throws HabitNotFoundException {
         if (isUserHabitOrUserIsAdmin(userId, habitId)) {
-            return habitRepository.getHabitById(habitId);
+            return habitRepository.findHabitById(habitId).orElseThrow(HabitNotFoundException::new);
         }
         throw new HabitNotFoundException();
     }
@@ -232,18 +212,25 @@ public class HabitService {
      * @param habitId идентификатор привычки
      */
     public void removeUserHabit(int userId, int habitId) throws HabitNotFoundException {
-        if (isUserHabitOrUserIsAdmin(userId, habitId)) {
-            habitRepository.remove(habitId);
-        } else {
+        if (habitRepository.removeForUser(habitId, userId) > 0) {
+            habitOwnershipService.onHabitRemoved(userId, habitId);
+            habitCompletionIndex.evictHabit(habitId);
+            habitStatisticsCache.onHabitChanged(userId, habitId);
+            return;
+        }
+        if (!userService.isUserAdmin(userId)) {
+            throw new HabitNotFoundException();
+        }
+        Habit habit = habitRepository.findHabitById(habitId).orElseThrow(HabitNotFoundException::new);
+        if (habitRepository.remove(habitId) == 0) {
             throw new HabitNotFoundException();
         }
+        habitOwnershipService.onHabitRemoved(habit.getUserId(), habitId);
+        habitCompletionIndex.evictHabit(habitId);
+        habitStatisticsCache.onHabitChanged(habit.getUserId(), habitId);
     }
 
     public boolean isUserHabitOrUserIsAdmin(int userId, int habitId) {
-        if (userService.isUserAdmin(userId)) {
-            return true;
-        }
-        List<Habit> userHabits = habitRepository.getAllHabitsByUserId(userId);
-        return userHabits.stream().anyMatch(habit -> habit.getId() == habitId);
+        return habitOwnershipService.isOwner(userId, habitId) || userService.isUserAdmin(userId);
     }
 }
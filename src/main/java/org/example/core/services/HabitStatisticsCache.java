@@ -0,0 +1,238 @@
+package org.example.core.services;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.example.core.models.HabitStatistics;
+import org.example.core.repositories.IHabitRepository;
+import org.example.core.repositories.IHabitStatisticsRepository;
+import org.example.infrastructure.configs.CacheConfig;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntFunction;
+
+/**
+ * Кэш статистики привычек.
+ * Устаревшая запись отдаётся сразу, а её обновление выполняется в фоне.
+ * Записи удаляются при изменении привычек и отметок о выполнении и истекают в ближайшую полночь,
+ * так как статус выполнения и текущая серия зависят от текущей даты.
+ * Одновременные загрузки одной записи объединяет сам кэш: запрос к хранилищу выполняет
+ * только первый вызов, остальные ждут его результат. Число таких ожидавших вызовов публикуется
+ * метрикой {@code habits.statistics.coalesced}.
+ */
+@Service
+public class HabitStatisticsCache {
+
+    private final IHabitStatisticsRepository habitStatisticsRepository;
+    private final IHabitRepository habitRepository;
+    private final Clock clock;
+    private final LoadingCache<Integer, List<HabitStatistics>> statisticsByUserId;
+    private final LoadingCache<Integer, HabitStatistics> statisticsByHabitId;
+    private final CoalescingLoader<List<HabitStatistics>> userStatisticsLoader;
+    private final CoalescingLoader<HabitStatistics> habitStatisticsLoader;
+
+    @Autowired
+    public HabitStatisticsCache(IHabitStatisticsRepository habitStatisticsRepository,
+                                IHabitRepository habitRepository,
+                                CacheConfig cacheConfig,
+                                ObjectProvider<MeterRegistry> meterRegistry) {
+        this(habitStatisticsRepository, habitRepository, cacheConfig, meterRegistry.getIfAvailable(() -> Metrics.globalRegistry),
+                Clock.systemDefaultZone(), Ticker.systemTicker(), ForkJoinPool.commonPool());
+    }
+
+    HabitStatisticsCache(IHabitStatisticsRepository habitStatisticsRepository,
+                         IHabitRepository habitRepository,
+                         CacheConfig cacheConfig,
+                         MeterRegistry meterRegistry,
+                         Clock clock,
+                         Ticker ticker,
+                         Executor refreshExecutor) {
+        this.habitStatisticsRepository = habitStatisticsRepository;
+        this.habitRepository = habitRepository;
+        this.clock = clock;
+        CacheConfig.Statistics statistics = cacheConfig.getStatistics();
+        this.userStatisticsLoader = new CoalescingLoader<>(this::loadUserStatistics, meterRegistry, "user");
+        this.habitStatisticsLoader = new CoalescingLoader<>(this::loadHabitStatistics, meterRegistry, "habit");
+        this.statisticsByUserId = Caffeine.newBuilder()
+                .maximumSize(statistics.getMaxUsers())
+                .refreshAfterWrite(statistics.getStaleAfter())
+                .expireAfter(new UntilMidnight<Integer, List<HabitStatistics>>(clock))
+                .executor(refreshExecutor)
+                .ticker(ticker)
+                .recordStats()
+                .build(userStatisticsLoader);
+        this.statisticsByHabitId = Caffeine.newBuilder()
+                .maximumSize(statistics.getMaxHabits())
+                .refreshAfterWrite(statistics.getStaleAfter())
+                .expireAfter(new UntilMidnight<Integer, HabitStatistics>(clock))
+                .executor(refreshExecutor)
+                .ticker(ticker)
+                .recordStats()
+                .build(habitStatisticsLoader);
+        CaffeineCacheMetrics.monitor(meterRegistry, statisticsByUserId, "habits.statistics.by-user-id");
+        CaffeineCacheMetrics.monitor(meterRegistry, statisticsByHabitId, "habits.statistics.by-habit-id");
+    }
+
+    /**
+     * Возвращает статистику по всем привычкам пользователя.
+     *
+     * @param userId идентификатор пользователя
+     * @return {@code List<HabitStatistics>} статистика по каждой привычке пользователя
+     */
+    public List<HabitStatistics> getUserStatistics(int userId) {
+        return userStatisticsLoader.get(statisticsByUserId, userId);
+    }
+
+    /**
+     * Возвращает статистику привычки.
+     *
+     * @param habitId идентификатор привычки
+     * @return {@link HabitStatistics} статистика привычки или null, если привычка не найдена
+     */
+    public HabitStatistics getHabitStatistics(int habitId) {
+        return habitStatisticsLoader.get(statisticsByHabitId, habitId);
+    }
+
+    /**
+     * Удаляет статистику привычки и статистику всех привычек её владельца.
+     *
+     * @param userId  идентификатор владельца привычки
+     * @param habitId идентификатор изменённой привычки
+     */
+    public void onHabitChanged(int userId, int habitId) {
+        statisticsByUserId.invalidate(userId);
+        statisticsByHabitId.invalidate(habitId);
+    }
+
+    /**
+     * Удаляет статистику привычки, владелец которой неизвестен.
+     * Статистика всех пользователей также удаляется.
+     *
+     * @param habitId идентификатор изменённой привычки
+     */
+    public void onHabitChanged(int habitId) {
+        statisticsByUserId.invalidateAll();
+        statisticsByHabitId.invalidate(habitId);
+    }
+
+    /**
+     * Удаляет статистику пользователя и всех его привычек, когда изменённая привычка неизвестна.
+     *
+     * @param userId идентификатор пользователя
+     */
+    public void onUserHabitsChanged(int userId) {
+        statisticsByUserId.invalidate(userId);
+        int[] habitIds = habitRepository.getHabitIdsByUserId(userId);
+        if (habitIds == null) {
+            statisticsByHabitId.invalidateAll();
+            return;
+        }
+        for (int habitId : habitIds) {
+            statisticsByHabitId.invalidate(habitId);
+        }
+    }
+
+    /**
+     * Удаляет всю статистику.
+     */
+    public void invalidateAll() {
+        statisticsByUserId.invalidateAll();
+        statisticsByHabitId.invalidateAll();
+    }
+
+    private List<HabitStatistics> loadUserStatistics(int userId) {
+        return List.copyOf(habitStatisticsRepository.getStatisticsByUserId(userId, LocalDate.now(clock)));
+    }
+
+    private HabitStatistics loadHabitStatistics(int habitId) {
+        return habitStatisticsRepository.getStatisticsByHabitId(habitId, LocalDate.now(clock));
+    }
+
+    /**
+     * Загрузчик записей кэша, который считает вызовы, пришедшие за записью во время её загрузки.
+     * Такие вызовы не обращаются к хранилищу, а ждут результат уже идущей загрузки.
+     * Фоновое обновление устаревшей записи не учитывается: во время него вызовы получают старое значение.
+     */
+    private static final class CoalescingLoader<V> implements CacheLoader<Integer, V> {
+        private final Set<Integer> loading = ConcurrentHashMap.newKeySet();
+        private final IntFunction<V> loader;
+        private final Counter coalesced;
+
+        private CoalescingLoader(IntFunction<V> loader, MeterRegistry meterRegistry, String scope) {
+            this.loader = loader;
+            this.coalesced = Counter.builder("habits.statistics.coalesced")
+                    .description("Statistics requests that waited for a load already in progress")
+                    .tag("scope", scope)
+                    .register(meterRegistry);
+        }
+
+        private V get(LoadingCache<Integer, V> cache, int key) {
+            if (loading.contains(key)) {
+                coalesced.increment();
+            }
+            return cache.get(key);
+        }
+
+        @Override
+        public V load(Integer key) {
+            loading.add(key);
+            try {
+                return loader.apply(key);
+            } finally {
+                loading.remove(key);
+            }
+        }
+
+        @Override
+        public V reload(Integer key, V oldValue) {
+            return loader.apply(key);
+        }
+    }
+
+    /**
+     * Срок жизни записи до ближайшей полуночи по часам {@code clock}.
+     */
+    private static final class UntilMidnight<K, V> implements Expiry<K, V> {
+        private final Clock clock;
+
+        private UntilMidnight(Clock clock) {
+            this.clock = clock;
+        }
+
+        @Override
+        public long expireAfterCreate(K key, V value, long currentTime) {
+            return untilMidnight();
+        }
+
+        @Override
+        public long expireAfterUpdate(K key, V value, long currentTime, long currentDuration) {
+            return untilMidnight();
+        }
+
+        @Override
+        public long expireAfterRead(K key, V value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        private long untilMidnight() {
+            LocalDate tomorrow = LocalDate.now(clock).plusDays(1);
+            return Duration.between(clock.instant(), tomorrow.atStartOfDay(clock.getZone())).toNanos();
+        }
+    }
+}
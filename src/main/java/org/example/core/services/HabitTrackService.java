@@ -1,18 +1,15 @@
 package org.example.core.services;
 
-import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
-import org.example.core.models.Habit;
 import org.example.core.models.HabitTrack;
-import org.example.core.repositories.IHabitRepository;
+import org.example.core.models.UserPrincipal;
 import org.example.core.repositories.IHabitTrackRepository;
 import org.example.exceptions.HabitNotFoundException;
 import org.example.exceptions.HabitTrackNotFoundException;
-import org.example.exceptions.InvalidTokenException;
-import org.example.infrastructure.util.JwtProvider;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Сервис для работы с отметками привычек.
@@ -23,32 +20,41 @@ import java.util.List;
 public class HabitTrackService {
 
     private final IHabitTrackRepository habitTrackRepository;
-    private final IHabitRepository habitRepository;
-    private final JwtProvider jwtProvider;
+    private final HabitOwnershipService habitOwnershipService;
+    private final HabitStatisticsCache habitStatisticsCache;
+    private final HabitCompletionIndex habitCompletionIndex;
 
     /**
      * Помечает привычку как выполненную, создавая отметку о выполнении.
+     * Повторная отметка в тот же день ничего не меняет, поэтому повтор запроса клиентом безопасен.
      *
-     * @param token
+     * @param principal аутентифицированный пользователь
      * @param habitId идентификатор привычки, которую нужно отметить как выполненную
      */
-    public void completeHabit(String token, int habitId) throws InvalidTokenException, HabitNotFoundException {
-        if (isUserHabitOrUserIsAdmin(token, habitId)) {
-            habitTrackRepository.create(habitId);
+    public void completeHabit(UserPrincipal principal, int habitId) throws HabitNotFoundException {
+        Optional<HabitTrack> created = principal.isAdmin()
+                ? habitTrackRepository.create(habitId)
+                : habitTrackRepository.createForUser(habitId, principal.getUserId());
+        if (created.isEmpty()) {
+            return;
+        }
+        habitCompletionIndex.onTrackCreated(created.get());
+        if (principal.isAdmin()) {
+            habitStatisticsCache.onHabitChanged(habitId);
         } else {
-            throw new HabitNotFoundException();
+            habitStatisticsCache.onHabitChanged(principal.getUserId(), habitId);
         }
     }
 
     /**
      * Возвращает список отметок о выпонении для указанной привычки.
      *
-     * @param token
+     * @param principal аутентифицированный пользователь
      * @param habitId идентификатор привычки
      * @return список записей отслеживания привычки
      */
-    public List<HabitTrack> getHabitTracks(String token, int habitId) throws HabitNotFoundException, InvalidTokenException {
-        if (isUserHabitOrUserIsAdmin(token, habitId)) {
+    public List<HabitTrack> getHabitTracks(UserPrincipal principal, int habitId) throws HabitNotFoundException {
+        if (isUserHabitOrUserIsAdmin(principal, habitId)) {
             return habitTrackRepository.getHabitTracks(habitId);
         } else {
             throw new HabitNotFoundException();
@@ -58,59 +64,40 @@ public class HabitTrackService {
     /**
      * Удаляет все отметки о выпонении для указанной привычки.
      *
-     * @param token   jwt токен пользователя
+     * @param principal аутентифицированный пользователь
      * @param habitId идентификатор привычки
      */
-    public void removeUserHabitTracks(String token, int habitId) throws InvalidTokenException, HabitNotFoundException {
-        if (isUserHabitOrUserIsAdmin(token, habitId)) {
+    public void removeUserHabitTracks(UserPrincipal principal, int habitId) throws HabitNotFoundException {
+        if (isUserHabitOrUserIsAdmin(principal, habitId)) {
             habitTrackRepository.removeAllByHabitId(habitId);
+            habitCompletionIndex.evictHabit(habitId);
+            habitStatisticsCache.onHabitChanged(habitId);
         } else {
             throw new HabitNotFoundException();
         }
     }
 
-    private boolean isUserHabitOrUserIsAdmin(String token, int habitId) throws InvalidTokenException {
-        if (isUserAdmin(token)) {
-            return true;
-        }
-        int userId = jwtProvider.getUserIdFromToken(token);
-        List<Habit> userHabits = habitRepository.getAllHabitsByUserId(userId);
-        return userHabits.stream().anyMatch(habit -> habit.getId() == habitId);
-    }
-
-    private boolean isUserHabitTrackOrUserIsAdmin(String token, int trackId) throws InvalidTokenException {
-        if (isUserAdmin(token)) {
-            return true;
-        }
-        int userId = jwtProvider.getUserIdFromToken(token);
-        List<Habit> userHabits = habitRepository.getAllHabitsByUserId(userId);
-        try {
-            for (Habit habit : userHabits) {
-                for (HabitTrack habitTrack : getHabitTracks(token, habit.getId())) {
-                    if (habitTrack.getId() == trackId) {
-                        return true;
-                    }
-                }
-            }
-        } catch (HabitNotFoundException e) {
-            return false;
-        }
-        return false;
+    private boolean isUserHabitOrUserIsAdmin(UserPrincipal principal, int habitId) {
+        return principal.isAdmin() || habitOwnershipService.isOwner(principal.getUserId(), habitId);
     }
 
-    private boolean isUserAdmin(String token) {
-        Claims claims = jwtProvider.getClaims(token).orElse(null);
-        if (claims == null) {
-            return false;
-        }
-        return claims.get("is_admin", Boolean.class);
-    }
-
-    public void remove(String token, int trackId) throws HabitTrackNotFoundException, InvalidTokenException {
-        if (isUserHabitTrackOrUserIsAdmin(token, trackId)) {
-            habitTrackRepository.remove(trackId);
+    /**
+     * Удаляет отметку о выполнении.
+     * Проверка владения и удаление выполняются одним запросом. Администратор может удалить любую отметку.
+     *
+     * @param principal аутентифицированный пользователь
+     * @param trackId   идентификатор отметки
+     */
+    public void remove(UserPrincipal principal, int trackId) throws HabitTrackNotFoundException {
+        HabitTrack track = (principal.isAdmin()
+                ? habitTrackRepository.remove(trackId)
+                : habitTrackRepository.removeForUser(trackId, principal.getUserId()))
+                .orElseThrow(HabitTrackNotFoundException::new);
+        habitCompletionIndex.onTrackRemoved(track);
+        if (principal.isAdmin()) {
+            habitStatisticsCache.onHabitChanged(track.getHabitId());
         } else {
-            throw new HabitTrackNotFoundException();
+            habitStatisticsCache.onHabitChanged(principal.getUserId(), track.getHabitId());
         }
     }
 
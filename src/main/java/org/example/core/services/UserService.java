@@ -5,14 +5,18 @@ import org.example.core.dtos.user_dtos.AuthUserDto;
 import org.example.core.dtos.user_dtos.ChangeAdminStatusDto;
 import org.example.core.dtos.user_dtos.UpdateUserDto;
 import org.example.core.models.User;
+import org.example.core.repositories.IRefreshTokenRepository;
 import org.example.core.repositories.IUserRepository;
-import org.example.core.util.PasswordManager;
 import org.example.core.util.RegexUtil;
 import org.example.exceptions.InvalidEmailException;
+import org.example.exceptions.ServiceOverloadedException;
+import org.example.exceptions.UserAlreadyExistException;
 import org.example.exceptions.UserNotFoundException;
+import org.example.infrastructure.util.PasswordHasher;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Сервис для работы с пользователями.
@@ -24,15 +28,25 @@ public class UserService {
 
     private final IUserRepository userRepository;
 
+    private final HabitOwnershipService habitOwnershipService;
+
+    private final HabitStatisticsCache habitStatisticsCache;
+
+    private final PasswordHasher passwordHasher;
+
+    private final IRefreshTokenRepository refreshTokenRepository;
+
 
     /**
      * Создаёт нового пользователя.
      *
      * @param dto данные для создания пользователя
      * @return созданный пользователь
+     * @throws UserAlreadyExistException если пользователь с таким email уже существует
      */
-    public User create(AuthUserDto dto) {
-        return userRepository.create(dto);
+    public User create(AuthUserDto dto) throws UserAlreadyExistException {
+        return userRepository.create(dto)
+                .orElseThrow(() -> new UserAlreadyExistException("User with %s already exist".formatted(dto.getEmail())));
     }
 
     /**
@@ -41,7 +55,9 @@ public class UserService {
      * @param id идентификатор пользователя
      */
     public void remove(int id) {
+        habitStatisticsCache.onUserHabitsChanged(id);
         userRepository.remove(id);
+        habitOwnershipService.evictUser(id);
     }
 
     /**
@@ -50,11 +66,7 @@ public class UserService {
      * @param id идентификатор пользователя
      */
     public boolean isUserAdmin(int id) {
-        try {
-            return userRepository.getById(id).isAdmin();
-        } catch (UserNotFoundException e) {
-            return false;
-        }
+        return userRepository.findById(id).map(User::isAdmin).orElse(false);
     }
 
     /**
@@ -65,7 +77,17 @@ public class UserService {
      * @throws UserNotFoundException если пользователь не найден
      */
     public User getUserByEmail(String email) throws UserNotFoundException {
-        return userRepository.getByEmail(email);
+        return userRepository.findByEmail(email).orElseThrow(UserNotFoundException::new);
+    }
+
+    /**
+     * Ищет пользователя по email.
+     *
+     * @param email email пользователя
+     * @return найденный пользователь или пустой {@link Optional}, если пользователь не найден
+     */
+    public Optional<User> findUserByEmail(String email) {
+        return userRepository.findByEmail(email);
     }
 
     /**
@@ -75,12 +97,7 @@ public class UserService {
      * @return true, если пользователь существует, иначе false
      */
     public boolean checkEmailExist(String email) {
-        try {
-            userRepository.getByEmail(email);
-            return true;
-        } catch (UserNotFoundException e) {
-            return false;
-        }
+        return userRepository.findByEmail(email).isPresent();
     }
 
     /**
@@ -100,34 +117,40 @@ public class UserService {
      * @throws UserNotFoundException если пользователь не найден
      */
     public void changeUserAdminStatus(int userId, ChangeAdminStatusDto dto) throws UserNotFoundException {
-        userRepository.changeUserAdminStatus(userId, dto);
+        if (userRepository.changeUserAdminStatus(userId, dto) == 0) {
+            throw new UserNotFoundException();
+        }
     }
 
     /**
      * Обновляет данные пользователя.
+     * При смене пароля отзываются все токены обновления пользователя.
      *
      * @param dto данные для обновления пользователя
-     * @throws UserNotFoundException если пользователь не найден
-     * @throws InvalidEmailException если email некорректный
+     * @throws UserNotFoundException      если пользователь не найден
+     * @throws InvalidEmailException      если email некорректный
+     * @throws ServiceOverloadedException если очередь хэширования паролей заполнена
      */
-    public void update(int userId, UpdateUserDto dto) throws UserNotFoundException, InvalidEmailException {
+    public void update(int userId, UpdateUserDto dto)
+            throws UserNotFoundException, InvalidEmailException, ServiceOverloadedException {
         if (dto.getEmail() == null && dto.getPassword() == null) {
             return;
         }
-        if (dto.getPassword() != null) {
-            dto.setPassword(PasswordManager.getPasswordHash(dto.getPassword()));
-        }
         if (dto.getEmail() != null && RegexUtil.isInvalidEmail(dto.getEmail())) {
             throw new InvalidEmailException();
         }
-        User user = userRepository.getById(userId);
-        if (dto.getPassword() == null) dto.setPassword(user.getPassword());
-        if (dto.getEmail() == null) dto.setEmail(user.getEmail());
-
-        userRepository.update(userId, dto);
+        if (dto.getPassword() != null) {
+            dto.setPassword(passwordHasher.hash(dto.getPassword()));
+        }
+        if (userRepository.update(userId, dto) == 0) {
+            throw new UserNotFoundException();
+        }
+        if (dto.getPassword() != null) {
+            refreshTokenRepository.removeAllByUserId(userId);
+        }
     }
 
     public User getById(int id) throws UserNotFoundException {
-        return userRepository.getById(id);
+        return userRepository.findById(id).orElseThrow(UserNotFoundException::new);
     }
 }
@@ -0,0 +1,247 @@
+package org.example.core.util;
+
+import java.util.Arrays;
+
+/**
+ * Неизменяемое множество дней выполнения привычки в виде битовой карты по номерам дней эпохи.
+ * Бит {@code i} слова {@code w} означает день {@code baseDay + w * 64 + i}, поэтому год отметок
+ * занимает шесть значений {@code long}, а не сотни объектов {@link org.example.core.models.HabitTrack}.
+ * Статус выполнения, срок и серии считаются поиском соседних установленных битов без выделения памяти.
+ * Методы {@link #with(int)} и {@link #without(int)} возвращают новое множество.
+ * Серией считаются отметки, между соседними из которых прошло не больше периода привычки.
+ */
+public final class CompletionDays {
+    /**
+     * Значение, которое возвращают методы поиска, если подходящего дня нет.
+     */
+    public static final int NONE = Integer.MIN_VALUE;
+
+    private static final CompletionDays EMPTY = new CompletionDays(0, new long[0], 0);
+
+    private final int baseDay;
+    private final long[] words;
+    private final int size;
+
+    private CompletionDays(int baseDay, long[] words, int size) {
+        this.baseDay = baseDay;
+        this.words = words;
+        this.size = size;
+    }
+
+    /**
+     * Создаёт множество из номеров дней эпохи.
+     *
+     * @param epochDays номера дней, повторы не учитываются
+     * @return множество дней
+     */
+    public static CompletionDays of(int... epochDays) {
+        if (epochDays.length == 0) {
+            return EMPTY;
+        }
+        int min = epochDays[0];
+        int max = epochDays[0];
+        for (int day : epochDays) {
+            min = Math.min(min, day);
+            max = Math.max(max, day);
+        }
+        int baseDay = align(min);
+        long[] words = new long[wordIndex(baseDay, max) + 1];
+        for (int day : epochDays) {
+            words[wordIndex(baseDay, day)] |= 1L << (day - baseDay);
+        }
+        int size = 0;
+        for (long word : words) {
+            size += Long.bitCount(word);
+        }
+        return new CompletionDays(baseDay, words, size);
+    }
+
+    private static int align(int day) {
+        return Math.floorDiv(day, Long.SIZE) * Long.SIZE;
+    }
+
+    private static int wordIndex(int baseDay, int day) {
+        return (day - baseDay) >>> 6;
+    }
+
+    /**
+     * @param day номер дня эпохи
+     * @return true, если в этот день привычка выполнена
+     */
+    public boolean contains(int day) {
+        if (day < baseDay) {
+            return false;
+        }
+        int index = wordIndex(baseDay, day);
+        return index < words.length && (words[index] & (1L << (day - baseDay))) != 0;
+    }
+
+    /**
+     * @param day номер дня эпохи
+     * @return множество с добавленным днём
+     */
+    public CompletionDays with(int day) {
+        if (contains(day)) {
+            return this;
+        }
+        if (size == 0) {
+            return of(day);
+        }
+        int newBaseDay = Math.min(baseDay, align(day));
+        int shift = (baseDay - newBaseDay) >>> 6;
+        long[] newWords = new long[Math.max(shift + words.length, wordIndex(newBaseDay, day) + 1)];
+        System.arraycopy(words, 0, newWords, shift, words.length);
+        newWords[wordIndex(newBaseDay, day)] |= 1L << (day - newBaseDay);
+        return new CompletionDays(newBaseDay, newWords, size + 1);
+    }
+
+    /**
+     * @param day номер дня эпохи
+     * @return множество без дня
+     */
+    public CompletionDays without(int day) {
+        if (!contains(day)) {
+            return this;
+        }
+        if (size == 1) {
+            return EMPTY;
+        }
+        long[] newWords = Arrays.copyOf(words, words.length);
+        newWords[wordIndex(baseDay, day)] &= ~(1L << (day - baseDay));
+        return new CompletionDays(baseDay, newWords, size - 1);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return последний день выполнения или {@link #NONE}, если отметок нет
+     */
+    public int last() {
+        return previous(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Ищет ближайший день выполнения не позже указанного.
+     *
+     * @param day номер дня эпохи
+     * @return найденный день или {@link #NONE}
+     */
+    public int previous(int day) {
+        long offset = (long) day - baseDay;
+        if (size == 0 || offset < 0) {
+            return NONE;
+        }
+        int index;
+        long word;
+        if (offset >= (long) words.length << 6) {
+            index = words.length - 1;
+            word = words[index];
+        } else {
+            index = (int) (offset >>> 6);
+            word = words[index] & (-1L >>> (63 - (offset & 63)));
+        }
+        while (true) {
+            if (word != 0) {
+                return baseDay + (index << 6) + 63 - Long.numberOfLeadingZeros(word);
+            }
+            if (--index < 0) {
+                return NONE;
+            }
+            word = words[index];
+        }
+    }
+
+    /**
+     * Ищет ближайший день выполнения не раньше указанного.
+     *
+     * @param day номер дня эпохи
+     * @return найденный день или {@link #NONE}
+     */
+    public int next(int day) {
+        long offset = Math.max(0, (long) day - baseDay);
+        if (offset >= (long) words.length << 6) {
+            return NONE;
+        }
+        int index = (int) (offset >>> 6);
+        long word = words[index] & (-1L << offset);
+        while (true) {
+            if (word != 0) {
+                return baseDay + (index << 6) + Long.numberOfTrailingZeros(word);
+            }
+            if (++index == words.length) {
+                return NONE;
+            }
+            word = words[index];
+        }
+    }
+
+    /**
+     * Проверяет, выполнена ли привычка в текущем периоде, то есть за последние {@code periodDays} дней
+     * включая сегодняшний.
+     *
+     * @param today      номер текущего дня эпохи
+     * @param periodDays длина периода привычки в днях
+     * @return true, если привычка выполнена в текущем периоде
+     */
+    public boolean isCompleteAt(int today, int periodDays) {
+        int day = previous(today);
+        return day != NONE && day > today - periodDays;
+    }
+
+    /**
+     * Возвращает день, до которого привычку нужно выполнить: последний день выполнения
+     * или день создания, если отметок нет, плюс период.
+     *
+     * @param dayOfCreation номер дня создания привычки
+     * @param periodDays    длина периода привычки в днях
+     * @return номер дня эпохи
+     */
+    public int deadline(int dayOfCreation, int periodDays) {
+        return (size == 0 ? dayOfCreation : last()) + periodDays;
+    }
+
+    /**
+     * Возвращает текущую серию: количество отметок в серии, которая заканчивается последней отметкой.
+     * Если в текущем периоде привычка не выполнена, серия прервана.
+     *
+     * @param today      номер текущего дня эпохи
+     * @param periodDays длина периода привычки в днях
+     * @return длина текущей серии или 0
+     */
+    public int currentStreak(int today, int periodDays) {
+        if (!isCompleteAt(today, periodDays)) {
+            return 0;
+        }
+        int day = previous(today);
+        int streak = 1;
+        for (int earlier = previous(day - 1); earlier != NONE && day - earlier <= periodDays; earlier = previous(day - 1)) {
+            day = earlier;
+            streak++;
+        }
+        return streak;
+    }
+
+    /**
+     * Возвращает самую длинную серию отметок.
+     *
+     * @param periodDays длина периода привычки в днях
+     * @return длина самой длинной серии или 0, если отметок нет
+     */
+    public int longestStreak(int periodDays) {
+        int longest = 0;
+        int streak = 0;
+        int previousDay = NONE;
+        for (int day = next(baseDay); day != NONE; day = next(day + 1)) {
+            streak = previousDay != NONE && day - previousDay <= periodDays ? streak + 1 : 1;
+            longest = Math.max(longest, streak);
+            previousDay = day;
+        }
+        return longest;
+    }
+}
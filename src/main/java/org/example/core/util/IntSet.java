@@ -0,0 +1,104 @@
+package org.example.core.util;
+
+import java.util.Arrays;
+
+/**
+ * Неизменяемое множество целых чисел без упаковки в {@link Integer}.
+ * Хранит значения в массиве с открытой адресацией, поэтому проверка наличия выполняется за O(1).
+ * Методы {@link #with(int)} и {@link #without(int)} возвращают новое множество.
+ */
+public final class IntSet {
+    private static final int FREE = Integer.MIN_VALUE;
+
+    private final int[] table;
+    private final int size;
+
+    private IntSet(int[] values) {
+        int capacity = Integer.highestOneBit(Math.max(4, values.length * 2) - 1) << 1;
+        this.table = new int[capacity];
+        Arrays.fill(table, FREE);
+        int count = 0;
+        for (int value : values) {
+            if (insert(value)) {
+                count++;
+            }
+        }
+        this.size = count;
+    }
+
+    /**
+     * Создаёт множество из массива значений.
+     *
+     * @param values значения, {@link Integer#MIN_VALUE} не поддерживается
+     * @return множество значений
+     */
+    public static IntSet of(int... values) {
+        return new IntSet(values);
+    }
+
+    private static int mix(int value) {
+        int hash = value * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    private boolean insert(int value) {
+        int mask = table.length - 1;
+        int index = mix(value) & mask;
+        while (table[index] != FREE) {
+            if (table[index] == value) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+        table[index] = value;
+        return true;
+    }
+
+    /**
+     * @param value значение
+     * @return true, если значение есть в множестве
+     */
+    public boolean contains(int value) {
+        int mask = table.length - 1;
+        int index = mix(value) & mask;
+        while (table[index] != FREE) {
+            if (table[index] == value) {
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * @param value значение
+     * @return множество с добавленным значением
+     */
+    public IntSet with(int value) {
+        if (contains(value)) {
+            return this;
+        }
+        int[] values = Arrays.copyOf(toArray(), size + 1);
+        values[size] = value;
+        return new IntSet(values);
+    }
+
+    /**
+     * @param value значение
+     * @return множество без значения
+     */
+    public IntSet without(int value) {
+        if (!contains(value)) {
+            return this;
+        }
+        return of(Arrays.stream(toArray()).filter(element -> element != value).toArray());
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int[] toArray() {
+        return Arrays.stream(table).filter(element -> element != FREE).toArray();
+    }
+}
@@ -10,10 +10,19 @@ import java.security.spec.InvalidKeySpecException;
 import java.security.spec.KeySpec;
 import java.util.Base64;
 
+/**
+ * Хэширование паролей алгоритмом PBKDF2.
+ * Хэширование намеренно дорогое, поэтому в обработке запросов оно выполняется
+ * через {@link org.example.infrastructure.util.PasswordHasher}, а не на потоке запроса.
+ */
 @NoArgsConstructor
 @Slf4j
 public class PasswordManager {
+    public static final int ITERATIONS = 65536;
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA1";
     private static final String SALT = "mpDhaJZfpFZBEOovhD6z2g==";
+    private static final byte[] SALT_BYTES = Base64.getDecoder().decode(SALT);
+    private static final ThreadLocal<SecretKeyFactory> FACTORIES = ThreadLocal.withInitial(PasswordManager::newFactory);
 
 
     public static boolean checkPasswordEquals(String password, String userPassword) {
@@ -22,15 +31,39 @@ public class PasswordManager {
     }
 
     public static String getPasswordHash(String password) {
-        KeySpec spec = new PBEKeySpec(password.toCharArray(), Base64.getDecoder().decode(SALT), 65536, 128);
+        return getPasswordHash(password, ITERATIONS);
+    }
+
+    /**
+     * Хэширует пароль с заданным числом итераций.
+     * Хэши с разным числом итераций несовместимы, поэтому для паролей пользователей
+     * используется {@link #ITERATIONS}; другое число итераций нужно только для калибровки.
+     *
+     * @param password   пароль
+     * @param iterations число итераций PBKDF2
+     * @return хэш пароля в Base64 или null, если алгоритм недоступен
+     */
+    public static String getPasswordHash(String password, int iterations) {
+        KeySpec spec = new PBEKeySpec(password.toCharArray(), SALT_BYTES, iterations, 128);
         String passwordHash = null;
         try {
-            SecretKeyFactory factory = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA1");
-            byte[] hash = factory.generateSecret(spec).getEncoded();
-            passwordHash = Base64.getEncoder().encodeToString(hash);
-        } catch (NoSuchAlgorithmException | InvalidKeySpecException e) {
+            SecretKeyFactory factory = FACTORIES.get();
+            if (factory != null) {
+                byte[] hash = factory.generateSecret(spec).getEncoded();
+                passwordHash = Base64.getEncoder().encodeToString(hash);
+            }
+        } catch (InvalidKeySpecException e) {
             log.error("Error occurred while trying hash password", e);
         }
         return passwordHash;
     }
+
+    private static SecretKeyFactory newFactory() {
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            log.error("Error occurred while trying hash password", e);
+            return null;
+        }
+    }
 }
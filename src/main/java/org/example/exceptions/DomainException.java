@@ -0,0 +1,17 @@
+package org.example.exceptions;
+
+/**
+ * Базовое исключение предметной области.
+ * Такие исключения обозначают ожидаемые исходы (не найдено, уже существует, неверные данные)
+ * и превращаются в ответ клиенту, поэтому стек вызовов не заполняется: создание исключения
+ * стоит как создание обычного объекта.
+ */
+public abstract class DomainException extends Exception {
+    protected DomainException() {
+        this(null);
+    }
+
+    protected DomainException(String message) {
+        super(message, null, false, false);
+    }
+}
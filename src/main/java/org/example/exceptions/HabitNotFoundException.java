@@ -1,4 +1,7 @@
 package org.example.exceptions;
 
-public class HabitNotFoundException extends Exception {
+/**
+ * Исключение обозначающие, что привычка не найдена
+ */
+public class HabitNotFoundException extends DomainException {
 }
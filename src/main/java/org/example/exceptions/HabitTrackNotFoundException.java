@@ -1,4 +1,7 @@
 package org.example.exceptions;
 
-public class HabitTrackNotFoundException extends Exception {
+/**
+ * Исключение обозначающие, что отметка о выполнении не найдена
+ */
+public class HabitTrackNotFoundException extends DomainException {
 }
@@ -3,5 +3,5 @@ package org.example.exceptions;
 /**
  * Исключение обозначающие, что email некорректный
  */
-public class InvalidEmailException extends Exception {
+public class InvalidEmailException extends DomainException {
 }
@@ -1,4 +1,4 @@
 package org.example.exceptions;
 
-public class InvalidTokenException extends Exception {
+public class InvalidTokenException extends DomainException {
 }
@@ -0,0 +1,7 @@
+package org.example.exceptions;
+
+/**
+ * Исключение обозначающие, что сервис перегружен и запрос нужно повторить позже
+ */
+public class ServiceOverloadedException extends DomainException {
+}
@@ -0,0 +1,15 @@
+package org.example.exceptions;
+
+import lombok.Getter;
+
+/**
+ * Исключение обозначающие, что превышено число попыток входа или регистрации за окно ограничения
+ */
+@Getter
+public class TooManyAttemptsException extends DomainException {
+    private final long retryAfterSeconds;
+
+    public TooManyAttemptsException(long retryAfterSeconds) {
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -3,7 +3,7 @@ package org.example.exceptions;
 /**
  * Исключение обозначающие, что пользователь уже существует
  */
-public class UserAlreadyExistException extends Exception {
+public class UserAlreadyExistException extends DomainException {
     public UserAlreadyExistException(String message) {
         super(message);
     }
@@ -3,5 +3,5 @@ package org.example.exceptions;
 /**
  * Исключение обозначающие, что пользователь не найден
  */
-public class UserNotFoundException extends Exception {
+public class UserNotFoundException extends DomainException {
 }
@@ -0,0 +1,90 @@
+package org.example.infrastructure.commands;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.core.util.PasswordManager;
+import org.example.infrastructure.configs.PasswordHashConfig;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+
+import java.util.Arrays;
+
+/**
+ * Команда калибровки стоимости хэширования паролей.
+ * Измеряет время PBKDF2 на текущей машине с возрастающим числом итераций и выводит наибольшее число итераций,
+ * укладывающееся в {@code password-hash.latency-budget}.
+ * Выполняется при запуске приложения с аргументом {@code --calibrate-password-hash} в отдельном контексте,
+ * который читает только настройки хэширования: веб-сервер, пул соединений и миграции не запускаются.
+ */
+@EnableConfigurationProperties(PasswordHashConfig.class)
+@RequiredArgsConstructor
+@Slf4j
+public class CalibratePasswordHashCommand implements ApplicationRunner {
+
+    public static final String OPTION_NAME = "calibrate-password-hash";
+
+    private static final String SAMPLE_PASSWORD = "calibration-password";
+    private static final int MIN_ITERATIONS = 1024;
+    private static final int MAX_ITERATIONS = 1 << 24;
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int SAMPLES = 5;
+
+    private final PasswordHashConfig passwordHashConfig;
+
+    /**
+     * Проверяет, запрошена ли калибровка аргументами командной строки.
+     *
+     * @param args аргументы командной строки
+     * @return true, если передан аргумент {@code --calibrate-password-hash}
+     */
+    public static boolean isRequested(String[] args) {
+        return Arrays.asList(args).contains("--" + OPTION_NAME);
+    }
+
+    /**
+     * Выполняет калибровку в контексте без веб-сервера и без доступа к базе данных.
+     *
+     * @param args аргументы командной строки
+     */
+    public static void main(String[] args) {
+        new SpringApplicationBuilder(CalibratePasswordHashCommand.class)
+                .web(WebApplicationType.NONE)
+                .run(args)
+                .close();
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long budgetNanos = passwordHashConfig.getLatencyBudget().toNanos();
+        log.info("Calibrating password hash cost for a budget of {} ms", passwordHashConfig.getLatencyBudget().toMillis());
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            PasswordManager.getPasswordHash(SAMPLE_PASSWORD, MIN_ITERATIONS);
+        }
+
+        int calibrated = MIN_ITERATIONS;
+        for (int iterations = MIN_ITERATIONS; iterations <= MAX_ITERATIONS; iterations *= 2) {
+            long nanos = measure(iterations);
+            log.info("{} iterations: {} ms", iterations, nanos / 1_000_000.0);
+            if (nanos > budgetNanos) {
+                break;
+            }
+            calibrated = iterations;
+        }
+
+        log.info("Recommended PBKDF2 iterations: {} (current: {})", calibrated, PasswordManager.ITERATIONS);
+    }
+
+    private static long measure(int iterations) {
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            PasswordManager.getPasswordHash(SAMPLE_PASSWORD, iterations);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+}
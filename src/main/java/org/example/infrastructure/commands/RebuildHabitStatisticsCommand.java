@@ -0,0 +1,32 @@
+package org.example.infrastructure.commands;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.core.repositories.IHabitStatisticsRepository;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Команда пересчёта сохранённой статистики привычек по всем отметкам о выполнении.
+ * Выполняется при запуске приложения с аргументом {@code --rebuild-habit-stats}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RebuildHabitStatisticsCommand implements ApplicationRunner {
+
+    public static final String OPTION_NAME = "rebuild-habit-stats";
+
+    private final IHabitStatisticsRepository habitStatisticsRepository;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!args.containsOption(OPTION_NAME)) {
+            return;
+        }
+        log.info("Rebuilding habit statistics");
+        int rebuilt = habitStatisticsRepository.rebuildAll();
+        log.info("Habit statistics rebuilt for {} habits", rebuilt);
+    }
+}
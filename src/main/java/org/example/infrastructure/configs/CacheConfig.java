@@ -0,0 +1,71 @@
+package org.example.infrastructure.configs;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "cache")
+public class CacheConfig {
+    private Ownership ownership = new Ownership();
+    private Users users = new Users();
+    private Habits habits = new Habits();
+    private Statistics statistics = new Statistics();
+    private Completions completions = new Completions();
+
+    /**
+     * Настройки индекса владельцев привычек.
+     * Пользователи, у которых привычек больше {@code maxHabitsPerUser}, не индексируются
+     * и проверяются запросом в базу.
+     */
+    @Data
+    public static class Ownership {
+        private long maxUsers = 10_000;
+        private int maxHabitsPerUser = 1_024;
+    }
+
+    /**
+     * Настройки кэша пользователей.
+     * Запись удаляется через {@code ttl} после загрузки, даже если пользователь не менялся.
+     */
+    @Data
+    public static class Users {
+        private long maxSize = 10_000;
+        private Duration ttl = Duration.ofMinutes(10);
+    }
+
+    /**
+     * Настройки кэша списков привычек пользователей.
+     * {@code maxUsers} ограничивает количество пользователей, чьи списки хранятся в кэше.
+     */
+    @Data
+    public static class Habits {
+        private long maxUsers = 10_000;
+    }
+
+    /**
+     * Настройки кэша статистики привычек.
+     * Запись старше {@code staleAfter} отдаётся сразу и обновляется в фоне.
+     * Все записи истекают в ближайшую полночь, так как статистика зависит от текущей даты.
+     */
+    @Data
+    public static class Statistics {
+        private long maxUsers = 10_000;
+        private long maxHabits = 100_000;
+        private Duration staleAfter = Duration.ofSeconds(30);
+    }
+
+    /**
+     * Настройки индекса дней выполнения привычек.
+     * Индекс привычки перечитывается из базы через {@code ttl} после загрузки,
+     * даже если он поддерживался при изменении отметок.
+     */
+    @Data
+    public static class Completions {
+        private long maxHabits = 100_000;
+        private Duration ttl = Duration.ofMinutes(10);
+    }
+}
@@ -0,0 +1,33 @@
+package org.example.infrastructure.configs;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class DataSourceConfig {
+
+    @Bean(destroyMethod = "close")
+    public HikariDataSource dataSource(DbConfig dbConfig, ObjectProvider<MeterRegistry> meterRegistry) {
+        DbConfig.Pool pool = dbConfig.getPool();
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(dbConfig.getUrl());
+        dataSource.setUsername(dbConfig.getUsername());
+        dataSource.setPassword(dbConfig.getPassword());
+        if (dbConfig.getDriverClassName() != null) {
+            dataSource.setDriverClassName(dbConfig.getDriverClassName());
+        }
+        dataSource.setPoolName(pool.getName());
+        dataSource.setMinimumIdle(pool.getMinIdle());
+        dataSource.setMaximumPoolSize(pool.getMaxSize());
+        dataSource.setConnectionTimeout(pool.getAcquireTimeout().toMillis());
+        dataSource.setIdleTimeout(pool.getIdleTimeout().toMillis());
+        dataSource.setMaxLifetime(pool.getMaxLifetime().toMillis());
+        dataSource.setLeakDetectionThreshold(pool.getLeakDetectionThreshold().toMillis());
+        dataSource.setRegisterMbeans(true);
+        meterRegistry.ifAvailable(dataSource::setMetricRegistry);
+        return dataSource;
+    }
+}
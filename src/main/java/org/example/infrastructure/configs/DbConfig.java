@@ -4,6 +4,8 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+
 @Data
 @Component
 @ConfigurationProperties(prefix = "spring.datasource")
@@ -11,4 +13,20 @@ public class DbConfig {
     private String url;
     private String username;
     private String password;
+    private String driverClassName;
+    private Pool pool = new Pool();
+
+    /**
+     * Настройки пула соединений с базой данных.
+     */
+    @Data
+    public static class Pool {
+        private String name = "habit-tracker-pool";
+        private int minIdle = 2;
+        private int maxSize = 10;
+        private Duration acquireTimeout = Duration.ofSeconds(5);
+        private Duration idleTimeout = Duration.ofMinutes(10);
+        private Duration maxLifetime = Duration.ofMinutes(30);
+        private Duration leakDetectionThreshold = Duration.ofSeconds(30);
+    }
 }
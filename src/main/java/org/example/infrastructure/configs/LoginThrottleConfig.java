@@ -0,0 +1,24 @@
+package org.example.infrastructure.configs;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Настройки ограничения частоты входа и регистрации.
+ * За скользящее окно {@code window} с одного IP-адреса допускается не более {@code maxAttemptsPerIp} попыток,
+ * а для одного email - не более {@code maxAttemptsPerEmail}. Для каждого вида ключей хранится
+ * не более {@code maxKeys} окон, поэтому перебор случайных email не раздувает память.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "login-throttle")
+public class LoginThrottleConfig {
+    private boolean enabled = true;
+    private Duration window = Duration.ofMinutes(1);
+    private int maxAttemptsPerIp = 30;
+    private int maxAttemptsPerEmail = 5;
+    private long maxKeys = 100_000;
+}
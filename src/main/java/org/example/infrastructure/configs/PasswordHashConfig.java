@@ -0,0 +1,26 @@
+package org.example.infrastructure.configs;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Настройки хэширования паролей.
+ * Хэширование выполняется в отдельном пуле из {@code threads} потоков (0 - по числу процессоров)
+ * с очередью на {@code queueCapacity} задач; если очередь заполнена, запрос сразу отклоняется.
+ * {@code latencyBudget} - целевое время одного хэширования для команды калибровки.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "password-hash")
+public class PasswordHashConfig {
+    private int threads = 0;
+    private int queueCapacity = 64;
+    private Duration latencyBudget = Duration.ofMillis(100);
+
+    public int getThreadCount() {
+        return threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
+}
@@ -12,4 +12,6 @@ public class ErrorMessageConstants {
     public final static String ACCESS_DENIED = "Access denied";
     public static final String INTERVAL_SERVER_ERROR = "Internal server error. Try later";
     public static final String JSON_ERROR = "Request json is not readable";
+    public static final String SERVICE_OVERLOADED = "Service is overloaded. Try later";
+    public static final String TOO_MANY_ATTEMPTS = "Too many attempts. Try later";
 }
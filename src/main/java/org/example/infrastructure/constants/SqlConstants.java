@@ -1,20 +1,151 @@
 package org.example.infrastructure.constants;
 
+import org.example.core.models.HabitFrequency;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
 public class SqlConstants {
-    public static final String CREATE_HABIT_SQL = "INSERT INTO habit_tracker_schema.habits (user_id, name, description, frequency) VALUES (?, ?, ?, ?)";
+    public static final String CREATE_HABIT_SQL = "INSERT INTO habit_tracker_schema.habits (user_id, name, description, frequency) VALUES (?, ?, ?, ?) RETURNING *";
     public static final String GET_USER_HABITS_SQL = "SELECT * FROM habit_tracker_schema.habits where user_id = ?";
+    public static final String GET_USER_HABIT_IDS_SQL = "SELECT id FROM habit_tracker_schema.habits where user_id = ?";
+    public static final String EXISTS_USER_HABIT_SQL = "SELECT EXISTS (SELECT 1 FROM habit_tracker_schema.habits WHERE id = ? AND user_id = ?)";
     public static final String GET_USER_HABIT_BY_ID_SQL = "SELECT * FROM habit_tracker_schema.habits where id = ?";
     public static final String UPDATE_HABIT_SQL = "UPDATE habit_tracker_schema.habits SET name = ?, description = ?, frequency = ? WHERE id = ?";
+    public static final String UPDATE_USER_HABIT_SQL = "UPDATE habit_tracker_schema.habits SET name = ?, description = ?, frequency = ? WHERE id = ? AND user_id = ?";
     public static final String REMOVE_HABIT_SQL = "DELETE FROM habit_tracker_schema.habits WHERE id = ?";
-    public static final String CREATE_HABIT_TRACK_SQL = "INSERT INTO habit_tracker_schema.habit_tracks (habit_id) VALUES (?)";
+    public static final String REMOVE_USER_HABIT_SQL = "DELETE FROM habit_tracker_schema.habits WHERE id = ? AND user_id = ?";
     public static final String GET_HABIT_TRACKS_SQL = "SELECT * FROM habit_tracker_schema.habit_tracks where habit_id = ?";
+    public static final String GET_HABIT_TRACK_BY_ID_SQL = "SELECT * FROM habit_tracker_schema.habit_tracks WHERE id = ?";
+    public static final String GET_HABITS_TRACKS_SQL = "SELECT * FROM habit_tracker_schema.habit_tracks WHERE habit_id = ANY(?) ORDER BY habit_id, complete_date";
+    public static final String GET_USER_HABITS_TRACKS_SQL = "SELECT h.id AS habit_id, t.id, t.complete_date FROM habit_tracker_schema.habits h LEFT JOIN habit_tracker_schema.habit_tracks t ON t.habit_id = h.id WHERE h.user_id = ? ORDER BY h.id, t.complete_date";
     public static final String REMOVE_ALL_HABIT_TRACK_SQL = "DELETE FROM habit_tracker_schema.habit_tracks WHERE habit_id = ?";
-    public static final String REMOVE_HABIT_TRACK_SQL = "DELETE FROM habit_tracker_schema.habit_tracks WHERE id = ?";
-    public static final String CREATE_USER_SQL = "INSERT INTO habit_tracker_schema.users (email, password) VALUES (?, ?)";
+    public static final String REMOVE_HABIT_TRACK_SQL = "DELETE FROM habit_tracker_schema.habit_tracks WHERE id = ? RETURNING id, habit_id, complete_date";
+    public static final String REMOVE_USER_HABIT_TRACK_SQL = "DELETE FROM habit_tracker_schema.habit_tracks t USING habit_tracker_schema.habits h WHERE t.id = ? AND t.habit_id = h.id AND h.user_id = ? RETURNING t.id, t.habit_id, t.complete_date";
+    public static final String CREATE_USER_SQL = "INSERT INTO habit_tracker_schema.users (email, password) VALUES (?, ?) ON CONFLICT (email) DO NOTHING RETURNING id, is_admin";
     public static final String GET_USER_BY_EMAIL_SQL = "SELECT * FROM habit_tracker_schema.users WHERE email = ?";
     public static final String GET_ALL_USERS_SQL = "SELECT * FROM habit_tracker_schema.users";
-    public static final String UPDATE_USER_SQL = "UPDATE habit_tracker_schema.users SET email = ?, password = ? WHERE id = ?";
+    public static final String UPDATE_USER_SQL = "UPDATE habit_tracker_schema.users SET email = COALESCE(?, email), password = COALESCE(?, password) WHERE id = ?";
     public static final String REMOVE_USER_SQL = "DELETE FROM habit_tracker_schema.users WHERE id = ?";
     public static final String CHANGE_USER_STATUS_SQL = "UPDATE habit_tracker_schema.users SET is_admin = ? WHERE id = ?";
     public static final String GET_USER_BY_ID_SQL = "SELECT * FROM habit_tracker_schema.users WHERE id = ?";
+    public static final String CREATE_REFRESH_TOKEN_SQL = "WITH expired AS (DELETE FROM habit_tracker_schema.refresh_tokens WHERE user_id = ? AND expires_at <= now()) INSERT INTO habit_tracker_schema.refresh_tokens (user_id, token_hash, expires_at) VALUES (?, ?, ?)";
+    public static final String ROTATE_REFRESH_TOKEN_SQL = "WITH consumed AS (DELETE FROM habit_tracker_schema.refresh_tokens WHERE token_hash = ? AND expires_at > now() RETURNING user_id) INSERT INTO habit_tracker_schema.refresh_tokens (user_id, token_hash, expires_at) SELECT user_id, ?, ? FROM consumed RETURNING user_id";
+    public static final String REMOVE_USER_REFRESH_TOKENS_SQL = "DELETE FROM habit_tracker_schema.refresh_tokens WHERE user_id = ?";
+
+
+    /**
+     * Длительность периода привычки в днях, построенная по {@link HabitFrequency}.
+     */
+    private static final String HABIT_PERIOD_DAYS_SQL = Arrays.stream(HabitFrequency.values())
+            .map(frequency -> "WHEN '%s' THEN %d".formatted(frequency.name(), frequency.getPeriod().getDays()))
+            .collect(Collectors.joining(" ", "CASE h.frequency ", " END"));
+    /**
+     * Пересчёт статистики привычек по всем их отметкам.
+     * Серия выполнений считается как «острова»: новая серия начинается, если между соседними
+     * отметками прошло больше периода привычки. Текущая серия - остров последней отметки,
+     * самая длинная серия - наибольший остров.
+     */
+    private static final String REBUILD_HABIT_STATS_SQL_TEMPLATE = """
+            WITH periods AS (
+                SELECT h.id, %s AS period_days
+                FROM habit_tracker_schema.habits h
+                WHERE %%s
+            ),
+            marked AS (
+                SELECT t.habit_id, t.complete_date,
+                       CASE WHEN t.complete_date - LAG(t.complete_date) OVER w <= p.period_days THEN 0 ELSE 1 END AS island_start
+                FROM habit_tracker_schema.habit_tracks t
+                JOIN periods p ON p.id = t.habit_id
+                WINDOW w AS (PARTITION BY t.habit_id ORDER BY t.complete_date)
+            ),
+            islands AS (
+                SELECT habit_id, complete_date,
+                       SUM(island_start) OVER (PARTITION BY habit_id ORDER BY complete_date ROWS UNBOUNDED PRECEDING) AS island
+                FROM marked
+            ),
+            sized AS (
+                SELECT habit_id, complete_date,
+                       COUNT(*) OVER (PARTITION BY habit_id, island) AS island_size,
+                       ROW_NUMBER() OVER (PARTITION BY habit_id ORDER BY complete_date DESC) AS recency
+                FROM islands
+            ),
+            stats AS (
+                SELECT habit_id, COUNT(*) AS track_count, MAX(complete_date) AS last_complete_date,
+                       MAX(island_size) FILTER (WHERE recency = 1) AS current_streak,
+                       MAX(island_size) AS longest_streak
+                FROM sized
+                GROUP BY habit_id
+            )
+            INSERT INTO habit_tracker_schema.habit_stats (habit_id, track_count, last_complete_date, current_streak, longest_streak)
+            SELECT p.id, COALESCE(s.track_count, 0), s.last_complete_date,
+                   COALESCE(s.current_streak, 0), COALESCE(s.longest_streak, 0)
+            FROM periods p
+            LEFT JOIN stats s ON s.habit_id = p.id
+            ON CONFLICT (habit_id) DO UPDATE SET
+                track_count = EXCLUDED.track_count,
+                last_complete_date = EXCLUDED.last_complete_date,
+                current_streak = EXCLUDED.current_streak,
+                longest_streak = EXCLUDED.longest_streak
+            """.formatted(HABIT_PERIOD_DAYS_SQL);
+    public static final String REBUILD_HABIT_STATS_SQL = REBUILD_HABIT_STATS_SQL_TEMPLATE.formatted("h.id = ?");
+    public static final String REBUILD_ALL_HABIT_STATS_SQL = REBUILD_HABIT_STATS_SQL_TEMPLATE.formatted("TRUE");
+    /**
+     * Учёт новой отметки в статистике привычки без чтения истории отметок.
+     * Серия продолжается, если с последнего выполнения прошло не больше периода привычки.
+     * Параметры: идентификатор привычки, дата отметки.
+     */
+    public static final String ADD_TRACK_TO_HABIT_STATS_SQL = """
+            INSERT INTO habit_tracker_schema.habit_stats AS s (habit_id, track_count, last_complete_date, current_streak, longest_streak)
+            VALUES (?, 1, ?, 1, 1)
+            ON CONFLICT (habit_id) DO UPDATE SET
+                track_count = s.track_count + 1,
+                last_complete_date = GREATEST(s.last_complete_date, EXCLUDED.last_complete_date),
+                current_streak = %1$s,
+                longest_streak = GREATEST(s.longest_streak, %1$s)
+            """.formatted("""
+            CASE WHEN EXCLUDED.last_complete_date - s.last_complete_date <= \
+            (SELECT %s FROM habit_tracker_schema.habits h WHERE h.id = s.habit_id) \
+            THEN s.current_streak + 1 ELSE 1 END""".formatted(HABIT_PERIOD_DAYS_SQL));
+    /**
+     * Идемпотентное создание отметки: вторая отметка привычки за тот же день не добавляет строку,
+     * а упирается в уникальный индекс (habit_id, complete_date).
+     * Строка результата есть, только если привычка найдена; id и complete_date пусты, если отметка за этот день уже была.
+     */
+    private static final String CREATE_HABIT_TRACK_SQL_TEMPLATE = """
+            WITH habit AS (
+                SELECT id FROM habit_tracker_schema.habits WHERE %s
+            ),
+            inserted AS (
+                INSERT INTO habit_tracker_schema.habit_tracks (habit_id)
+                SELECT id FROM habit
+                ON CONFLICT DO NOTHING
+                RETURNING id, habit_id, complete_date
+            )
+            SELECT i.id, h.id AS habit_id, i.complete_date
+            FROM habit h
+            LEFT JOIN inserted i ON i.habit_id = h.id
+            """;
+    public static final String CREATE_HABIT_TRACK_SQL = CREATE_HABIT_TRACK_SQL_TEMPLATE.formatted("id = ?");
+    public static final String CREATE_USER_HABIT_TRACK_SQL = CREATE_HABIT_TRACK_SQL_TEMPLATE.formatted("id = ? AND user_id = ?");
+    public static final String RESET_HABIT_STATS_SQL = "UPDATE habit_tracker_schema.habit_stats SET track_count = 0, last_complete_date = NULL, current_streak = 0, longest_streak = 0 WHERE habit_id = ?";
+    /**
+     * Статистика привычек из таблицы habit_stats.
+     * Текущая серия обнуляется, если привычка не выполнена в текущем периоде.
+     * Параметры: текущая дата, текущая дата, значение условия отбора привычек.
+     */
+    private static final String HABIT_STATISTICS_SQL_TEMPLATE = """
+            SELECT h.id AS habit_id, h.frequency, h.day_of_creation,
+                   COALESCE(s.track_count, 0) AS track_count,
+                   s.last_complete_date,
+                   COALESCE(s.last_complete_date > CAST(? AS DATE) - %1$s, FALSE) AS completion_status,
+                   CASE WHEN s.last_complete_date > CAST(? AS DATE) - %1$s THEN s.current_streak ELSE 0 END AS current_streak,
+                   COALESCE(s.longest_streak, 0) AS longest_streak
+            FROM habit_tracker_schema.habits h
+            LEFT JOIN habit_tracker_schema.habit_stats s ON s.habit_id = h.id
+            WHERE %%s
+            ORDER BY h.id
+            """.formatted(HABIT_PERIOD_DAYS_SQL);
+    public static final String GET_USER_HABITS_STATISTICS_SQL = HABIT_STATISTICS_SQL_TEMPLATE.formatted("h.user_id = ?");
+    public static final String GET_HABIT_STATISTICS_SQL = HABIT_STATISTICS_SQL_TEMPLATE.formatted("h.id = ?");
 }
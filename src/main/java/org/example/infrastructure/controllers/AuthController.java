@@ -2,17 +2,25 @@ package org.example.infrastructure.controllers;
 
 import com.example.logging_aspect_starter.annotations.Loggable;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.example.core.dtos.auth_dtos.AuthDto;
+import org.example.core.dtos.auth_dtos.RefreshTokenDto;
 import org.example.core.dtos.user_dtos.AuthUserDto;
+import org.example.core.models.UserPrincipal;
 import org.example.core.services.AuthService;
 import org.example.exceptions.InvalidEmailException;
+import org.example.exceptions.InvalidTokenException;
+import org.example.exceptions.ServiceOverloadedException;
+import org.example.exceptions.TooManyAttemptsException;
 import org.example.exceptions.UserAlreadyExistException;
 import org.example.exceptions.UserNotFoundException;
+import org.example.infrastructure.util.LoginThrottle;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -30,14 +38,19 @@ import org.springframework.web.bind.annotation.RestController;
 public class AuthController {
 
     private final AuthService authService;
+    private final LoginThrottle loginThrottle;
 
     @Operation(summary = "User login", description = "Authenticates a user with email and password")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "User authenticated successfully"),
             @ApiResponse(responseCode = "400", description = "User not found or validation error or missing fields in JSON request"),
+            @ApiResponse(responseCode = "429", description = "Too many attempts from the client or for the email"),
+            @ApiResponse(responseCode = "503", description = "Password hashing is overloaded"),
     })
     @PostMapping(value = "/login")
-    public AuthDto login(@RequestBody @Valid AuthUserDto authUserDto) throws UserNotFoundException {
+    public AuthDto login(@RequestBody @Valid AuthUserDto authUserDto, HttpServletRequest request)
+            throws UserNotFoundException, ServiceOverloadedException, TooManyAttemptsException {
+        loginThrottle.acquire(request.getRemoteAddr(), authUserDto.getEmail());
         return authService.login(authUserDto);
     }
 
@@ -45,11 +58,37 @@ public class AuthController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "User registered successfully"),
             @ApiResponse(responseCode = "400", description = "Invalid email or errors in json request"),
-            @ApiResponse(responseCode = "409", description = "User already exists")
+            @ApiResponse(responseCode = "409", description = "User already exists"),
+            @ApiResponse(responseCode = "429", description = "Too many attempts from the client or for the email"),
+            @ApiResponse(responseCode = "503", description = "Password hashing is overloaded")
     })
     @PostMapping("/register")
     @ResponseStatus(HttpStatus.CREATED)
-    public AuthDto register(@RequestBody @Valid AuthUserDto authUserDto) throws UserAlreadyExistException, InvalidEmailException {
+    public AuthDto register(@RequestBody @Valid AuthUserDto authUserDto, HttpServletRequest request)
+            throws UserAlreadyExistException, InvalidEmailException, ServiceOverloadedException, TooManyAttemptsException {
+        loginThrottle.acquire(request.getRemoteAddr(), authUserDto.getEmail());
         return authService.register(authUserDto);
     }
+
+    @Operation(summary = "Refresh token", description = "Issues a new authentication token by a refresh token. The refresh token is single-use and is replaced by a new one")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Tokens refreshed successfully"),
+            @ApiResponse(responseCode = "400", description = "Validation error or missing fields in JSON request"),
+            @ApiResponse(responseCode = "401", description = "Refresh token is invalid, already used or expired")
+    })
+    @PostMapping("/refresh")
+    public AuthDto refresh(@RequestBody @Valid RefreshTokenDto refreshTokenDto) throws InvalidTokenException {
+        return authService.refresh(refreshTokenDto);
+    }
+
+    @Operation(summary = "Revoke refresh tokens", description = "Revokes all refresh tokens of the current user")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Refresh tokens revoked successfully"),
+            @ApiResponse(responseCode = "401", description = "Invalid token or user unauthorized")
+    })
+    @PostMapping("/revoke")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void revoke(@Parameter(hidden = true) UserPrincipal principal) {
+        authService.revoke(principal.getUserId());
+    }
 }
@@ -1,8 +1,11 @@
 package org.example.infrastructure.controllers;
 
 import com.example.audit_aspect_starter.annotations.Auditable;
+import com.example.cache_aspect_starter.annotations.CachedResponse;
+import com.example.cache_aspect_starter.annotations.EvictResponse;
 import com.example.logging_aspect_starter.annotations.Loggable;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -11,10 +14,9 @@ import lombok.RequiredArgsConstructor;
 import org.example.core.dtos.habit_dtos.CreateHabitDto;
 import org.example.core.dtos.habit_dtos.UpdateHabitDto;
 import org.example.core.models.Habit;
+import org.example.core.models.UserPrincipal;
 import org.example.core.services.HabitService;
 import org.example.exceptions.HabitNotFoundException;
-import org.example.exceptions.InvalidTokenException;
-import org.example.infrastructure.util.JwtProvider;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -23,7 +25,6 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
-import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
@@ -39,7 +40,6 @@ import java.util.Map;
 @Tag(name = "Habits", description = "Operations for managing user habits")
 public class HabitController {
     private final HabitService habitService;
-    private final JwtProvider jwtProvider;
 
     @Operation(summary = "Retrieve user's habits", description = "Fetches all habits for the authenticated user")
     @ApiResponses({
@@ -47,10 +47,10 @@ public class HabitController {
             @ApiResponse(responseCode = "401", description = "Invalid token or user unauthorized")
     })
     @Auditable
+    @CachedResponse(cache = "habits")
     @GetMapping
-    public List<Habit> getUserHabits(@RequestHeader("Authorization") String token) throws InvalidTokenException {
-        int userId = jwtProvider.getUserIdFromToken(token);
-        return habitService.getUserHabits(userId);
+    public List<Habit> getUserHabits(@Parameter(hidden = true) UserPrincipal principal) {
+        return habitService.getUserHabits(principal.getUserId());
     }
 
     @Operation(summary = "Create a new habit", description = "Creates a new habit for the authenticated user")
@@ -60,13 +60,14 @@ public class HabitController {
             @ApiResponse(responseCode = "401", description = "Invalid token or user unauthorized")
     })
     @Auditable
+    @EvictResponse(cache = {"habits", "habit-statistics", "habit-tracks"})
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public void createUserHabit(
-            @RequestHeader("Authorization") String token,
+            @Parameter(hidden = true) UserPrincipal principal,
             @RequestBody @Valid CreateHabitDto createHabitDto
-    ) throws InvalidTokenException {
-        habitService.createUserHabit(token, createHabitDto);
+    ) {
+        habitService.createUserHabit(principal, createHabitDto);
     }
 
     @Operation(summary = "Retrieve a habit", description = "Fetches habit by ID")
@@ -76,13 +77,13 @@ public class HabitController {
             @ApiResponse(responseCode = "401", description = "Invalid token or user unauthorized")
     })
     @Auditable
+    @CachedResponse(cache = "habits", key = "#habitId")
     @GetMapping("/{habitId}")
     public Habit getUserHabit(
-            @RequestHeader("Authorization") String token,
+            @Parameter(hidden = true) UserPrincipal principal,
             @PathVariable("habitId") int habitId
-    ) throws HabitNotFoundException, InvalidTokenException {
-        int userId = jwtProvider.getUserIdFromToken(token);
-        return habitService.getUserHabit(userId, habitId);
+    ) throws HabitNotFoundException {
+        return habitService.getUserHabit(principal.getUserId(), habitId);
     }
 
     @Operation(summary = "Update a habit", description = "Updates details of a habit by ID")
@@ -92,14 +93,14 @@ public class HabitController {
             @ApiResponse(responseCode = "401", description = "Invalid token or user unauthorized")
     })
     @Auditable
+    @EvictResponse(cache = {"habits", "habit-statistics", "habit-tracks"})
     @PutMapping("/{habitId}")
     public void updateUserHabit(
-            @RequestHeader("Authorization") String token,
+            @Parameter(hidden = true) UserPrincipal principal,
             @PathVariable("habitId") int habitId,
             @RequestBody @Valid UpdateHabitDto updateHabitDto
-    ) throws HabitNotFoundException, InvalidTokenException {
-        int userId = jwtProvider.getUserIdFromToken(token);
-        habitService.updateUserHabit(userId, habitId, updateHabitDto);
+    ) throws HabitNotFoundException {
+        habitService.updateUserHabit(principal.getUserId(), habitId, updateHabitDto);
     }
 
     @Operation(summary = "Delete a habit", description = "Deletes a habit by ID")
@@ -109,14 +110,14 @@ public class HabitController {
             @ApiResponse(responseCode = "401", description = "Invalid token or user unauthorized")
     })
     @Auditable
+    @EvictResponse(cache = {"habits", "habit-statistics", "habit-tracks"})
     @DeleteMapping("/{habitId}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void removeUserHabit(
-            @RequestHeader("Authorization") String token,
+            @Parameter(hidden = true) UserPrincipal principal,
             @PathVariable("habitId") int habitId
-    ) throws HabitNotFoundException, InvalidTokenException {
-        int userId = jwtProvider.getUserIdFromToken(token);
-        habitService.removeUserHabit(userId, habitId);
+    ) throws HabitNotFoundException {
+        habitService.removeUserHabit(principal.getUserId(), habitId);
     }
 
     @Operation(summary = "Get habit deadline", description = "Fetches the deadline date for a habit")
@@ -126,13 +127,13 @@ public class HabitController {
             @ApiResponse(responseCode = "401", description = "Invalid token or user unauthorized")
     })
     @Auditable
+    @CachedResponse(cache = "habit-statistics", key = "'deadline:' + #habitId", ttl = "30s", expireAtMidnight = true)
     @GetMapping("/{habitId}/deadline")
     public Map<String, LocalDate> getHabitDeadlineDay(
-            @RequestHeader("Authorization") String token,
+            @Parameter(hidden = true) UserPrincipal principal,
             @PathVariable("habitId") int habitId
-    ) throws HabitNotFoundException, InvalidTokenException {
-        int userId = jwtProvider.getUserIdFromToken(token);
-        return Map.of("deadline", habitService.getHabitDeadlineDay(userId, habitId));
+    ) throws HabitNotFoundException {
+        return Map.of("deadline", habitService.getHabitDeadlineDay(principal.getUserId(), habitId));
     }
 
     @Operation(summary = "Check habit completion status", description = "Retrieves the completion status of a habit")
@@ -142,13 +143,13 @@ public class HabitController {
             @ApiResponse(responseCode = "401", description = "Invalid token or user unauthorized")
     })
     @Auditable
+    @CachedResponse(cache = "habit-statistics", key = "'completion-status:' + #habitId", ttl = "30s", expireAtMidnight = true)
     @GetMapping("/{habitId}/completion-status")
     public Map<String, Boolean> getHabitCompletionStatus(
-            @RequestHeader("Authorization") String token,
+            @Parameter(hidden = true) UserPrincipal principal,
             @PathVariable("habitId") int habitId
-    ) throws HabitNotFoundException, InvalidTokenException {
-        int userId = jwtProvider.getUserIdFromToken(token);
-        return Map.of("completion_status", habitService.isCompleteUserHabit(userId, habitId));
+    ) throws HabitNotFoundException {
+        return Map.of("completion_status", habitService.isCompleteUserHabit(principal.getUserId(), habitId));
     }
 
     @Operation(summary = "Get statistics for all habits", description = "Retrieves statistics for all habits of the user")
@@ -157,12 +158,12 @@ public class HabitController {
             @ApiResponse(responseCode = "401", description = "Invalid token or user unauthorized")
     })
     @Auditable
+    @CachedResponse(cache = "habit-statistics", key = "'statistics'", ttl = "30s", expireAtMidnight = true)
     @GetMapping("/statistics")
     public List<Map<String, Object>> getStatisticsOfAllUserHabits(
-            @RequestHeader("Authorization") String token
-    ) throws InvalidTokenException {
-        int userId = jwtProvider.getUserIdFromToken(token);
-        return habitService.getStatisticsOfAllUserHabits(userId);
+            @Parameter(hidden = true) UserPrincipal principal
+    ) {
+        return habitService.getStatisticsOfAllUserHabits(principal.getUserId());
     }
 
     @Operation(summary = "Get statistics for a specific habit", description = "Retrieves statistics for a specific habit by ID")
@@ -172,12 +173,12 @@ public class HabitController {
             @ApiResponse(responseCode = "401", description = "Invalid token or user unauthorized")
     })
     @Auditable
+    @CachedResponse(cache = "habit-statistics", key = "'statistics:' + #habitId", ttl = "30s", expireAtMidnight = true)
     @GetMapping("{habitId}/statistics")
     public Map<String, Object> getStatisticsOfOneUserHabit(
-            @RequestHeader("Authorization") String token,
+            @Parameter(hidden = true) UserPrincipal principal,
             @PathVariable("habitId") int habitId
-    ) throws HabitNotFoundException, InvalidTokenException {
-        int userId = jwtProvider.getUserIdFromToken(token);
-        return habitService.getStatisticsOfOneUserHabit(userId, habitId);
+    ) throws HabitNotFoundException {
+        return habitService.getStatisticsOfOneUserHabit(principal.getUserId(), habitId);
     }
 }
@@ -1,23 +1,25 @@
 package org.example.infrastructure.controllers;
 
 import com.example.audit_aspect_starter.annotations.Auditable;
+import com.example.cache_aspect_starter.annotations.CachedResponse;
+import com.example.cache_aspect_starter.annotations.EvictResponse;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.example.core.models.HabitTrack;
+import org.example.core.models.UserPrincipal;
 import org.example.core.services.HabitTrackService;
 import org.example.exceptions.HabitNotFoundException;
 import org.example.exceptions.HabitTrackNotFoundException;
-import org.example.exceptions.InvalidTokenException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
@@ -39,12 +41,13 @@ public class HabitTrackController {
             @ApiResponse(responseCode = "401", description = "Invalid token or user unauthorized")
     })
     @Auditable
+    @CachedResponse(cache = "habit-tracks", key = "#habitId")
     @GetMapping("/by-habit-id/{habitId}")
     public List<HabitTrack> getHabitTracks(
-            @RequestHeader("Authorization") String token,
+            @Parameter(hidden = true) UserPrincipal principal,
             @PathVariable("habitId") int habitId
-    ) throws InvalidTokenException, HabitNotFoundException {
-        return habitTrackService.getHabitTracks(token, habitId);
+    ) throws HabitNotFoundException {
+        return habitTrackService.getHabitTracks(principal, habitId);
     }
 
     @Operation(summary = "Remove all tracks for a habit", description = "Deletes all tracking records for a habit by ID")
@@ -54,13 +57,14 @@ public class HabitTrackController {
             @ApiResponse(responseCode = "401", description = "Invalid token or user unauthorized")
     })
     @Auditable
+    @EvictResponse(cache = {"habit-tracks", "habit-statistics"})
     @DeleteMapping("/by-habit-id/{habitId}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void removeHabitTracks(
-            @RequestHeader("Authorization") String token,
+            @Parameter(hidden = true) UserPrincipal principal,
             @PathVariable("habitId") int habitId
-    ) throws InvalidTokenException, HabitNotFoundException {
-        habitTrackService.removeUserHabitTracks(token, habitId);
+    ) throws HabitNotFoundException {
+        habitTrackService.removeUserHabitTracks(principal, habitId);
     }
 
     @Operation(summary = "Remove a specific track", description = "Deletes a tracking record by ID")
@@ -70,13 +74,14 @@ public class HabitTrackController {
             @ApiResponse(responseCode = "401", description = "Invalid token or user unauthorized")
     })
     @Auditable
+    @EvictResponse(cache = {"habit-tracks", "habit-statistics"})
     @DeleteMapping("/{trackId}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void removeTrack(
-            @RequestHeader("Authorization") String token,
+            @Parameter(hidden = true) UserPrincipal principal,
             @PathVariable("trackId") int trackId
-    ) throws InvalidTokenException, HabitTrackNotFoundException {
-        habitTrackService.remove(token, trackId);
+    ) throws HabitTrackNotFoundException {
+        habitTrackService.remove(principal, trackId);
     }
 
     @Operation(summary = "Mark habit as complete", description = "Marks a habit as completed")
@@ -86,11 +91,12 @@ public class HabitTrackController {
             @ApiResponse(responseCode = "401", description = "Invalid token or user unauthorized")
     })
     @Auditable
+    @EvictResponse(cache = {"habit-tracks", "habit-statistics"})
     @PostMapping("/complete-habit/{habitId}")
     public void completeHabit(
-            @RequestHeader("Authorization") String token,
+            @Parameter(hidden = true) UserPrincipal principal,
             @PathVariable("habitId") int habitId
-    ) throws InvalidTokenException, HabitNotFoundException {
-        habitTrackService.completeHabit(token, habitId);
+    ) throws HabitNotFoundException {
+        habitTrackService.completeHabit(principal, habitId);
     }
 }
@@ -2,6 +2,7 @@ package org.example.infrastructure.controllers;
 
 import com.example.audit_aspect_starter.annotations.Auditable;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -10,13 +11,13 @@ import lombok.RequiredArgsConstructor;
 import org.example.core.dtos.user_dtos.ChangeAdminStatusDto;
 import org.example.core.dtos.user_dtos.UpdateUserDto;
 import org.example.core.dtos.user_dtos.UserDto;
+import org.example.core.models.UserPrincipal;
 import org.example.core.services.UserService;
 import org.example.exceptions.InvalidEmailException;
-import org.example.exceptions.InvalidTokenException;
+import org.example.exceptions.ServiceOverloadedException;
 import org.example.exceptions.UserNotFoundException;
 import org.example.infrastructure.constants.ErrorMessageConstants;
 import org.example.infrastructure.data.mappers.UserMapper;
-import org.example.infrastructure.util.JwtProvider;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -25,7 +26,6 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
-import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
@@ -40,7 +40,6 @@ import java.util.List;
 public class UserController {
     private final UserMapper userMapper;
     private final UserService userService;
-    private final JwtProvider jwtProvider;
 
     @Operation(summary = "Retrieve all users", description = "Fetches a list of all users (admin access required)")
     @ApiResponses({
@@ -51,9 +50,9 @@ public class UserController {
     @Auditable
     @GetMapping
     public List<UserDto> getUsers(
-            @RequestHeader("Authorization") String token
-    ) throws InvalidTokenException, AccessDeniedException {
-        int userIdFromToken = jwtProvider.getUserIdFromToken(token);
+            @Parameter(hidden = true) UserPrincipal principal
+    ) throws AccessDeniedException {
+        int userIdFromToken = principal.getUserId();
         throwAccessDeniedIfUserNotAdmin(userIdFromToken);
         return userMapper.toUserDtoList(userService.getAll());
     }
@@ -68,10 +67,10 @@ public class UserController {
     @DeleteMapping("/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void deleteUser(
-            @RequestHeader("Authorization") String token,
+            @Parameter(hidden = true) UserPrincipal principal,
             @PathVariable("id") int userId
-    ) throws InvalidTokenException, AccessDeniedException {
-        int userIdFromToken = jwtProvider.getUserIdFromToken(token);
+    ) throws AccessDeniedException {
+        int userIdFromToken = principal.getUserId();
         throwAccessDeniedIfUserNotAdminOrSelfAccess(userId, userIdFromToken);
         userService.remove(userId);
     }
@@ -86,10 +85,10 @@ public class UserController {
     @Auditable
     @GetMapping("/{id}")
     public UserDto getUser(
-            @RequestHeader("Authorization") String token,
+            @Parameter(hidden = true) UserPrincipal principal,
             @PathVariable("id") int userId
-    ) throws UserNotFoundException, InvalidTokenException, AccessDeniedException {
-        int userIdFromToken = jwtProvider.getUserIdFromToken(token);
+    ) throws UserNotFoundException, AccessDeniedException {
+        int userIdFromToken = principal.getUserId();
         throwAccessDeniedIfUserNotAdminOrSelfAccess(userId, userIdFromToken);
         return userMapper.toUserDto(userService.getById(userId));
     }
@@ -101,15 +100,16 @@ public class UserController {
             @ApiResponse(responseCode = "404", description = "User not found"),
             @ApiResponse(responseCode = "403", description = "Access denied"),
             @ApiResponse(responseCode = "401", description = "Invalid token or user unauthorized"),
+            @ApiResponse(responseCode = "503", description = "Password hashing is overloaded"),
     })
     @Auditable
     @PutMapping("/{id}")
     public void updateUser(
-            @RequestHeader("Authorization") String token,
+            @Parameter(hidden = true) UserPrincipal principal,
             @PathVariable("id") int userId,
             @RequestBody @Valid UpdateUserDto updateUserDto
-    ) throws UserNotFoundException, InvalidEmailException, InvalidTokenException, AccessDeniedException {
-        int userIdFromToken = jwtProvider.getUserIdFromToken(token);
+    ) throws UserNotFoundException, InvalidEmailException, AccessDeniedException, ServiceOverloadedException {
+        int userIdFromToken = principal.getUserId();
         throwAccessDeniedIfUserNotAdminOrSelfAccess(userId, userIdFromToken);
         userService.update(userId, updateUserDto);
     }
@@ -124,11 +124,11 @@ public class UserController {
     @Auditable
     @PostMapping("/{id}/change-admin-status")
     public void updateUserStatus(
-            @RequestHeader("Authorization") String token,
+            @Parameter(hidden = true) UserPrincipal principal,
             @PathVariable("id") int userId,
             @RequestBody @Valid ChangeAdminStatusDto changeAdminStatusDto
-    ) throws UserNotFoundException, InvalidTokenException, AccessDeniedException {
-        int userIdFromToken = jwtProvider.getUserIdFromToken(token);
+    ) throws UserNotFoundException, AccessDeniedException {
+        int userIdFromToken = principal.getUserId();
         throwAccessDeniedIfUserNotAdmin(userIdFromToken);
         userService.changeUserAdminStatus(userId, changeAdminStatusDto);
     }
@@ -0,0 +1,177 @@
+package org.example.infrastructure.data.repositories;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.example.core.dtos.habit_dtos.CreateHabitDto;
+import org.example.core.dtos.habit_dtos.UpdateHabitDto;
+import org.example.core.models.Habit;
+import org.example.core.models.HabitFrequency;
+import org.example.core.repositories.IHabitRepository;
+import org.example.exceptions.HabitNotFoundException;
+import org.example.infrastructure.configs.CacheConfig;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+@Primary
+@Repository
+public class CachingHabitRepository implements IHabitRepository {
+
+    private final IHabitRepository delegate;
+    private final Cache<Integer, List<Habit>> habitsByUserId;
+
+    public CachingHabitRepository(@Qualifier("jdbcHabitRepository") IHabitRepository delegate,
+                                  CacheConfig cacheConfig,
+                                  ObjectProvider<MeterRegistry> meterRegistry) {
+        this.delegate = delegate;
+        this.habitsByUserId = Caffeine.newBuilder()
+                .maximumSize(cacheConfig.getHabits().getMaxUsers())
+                .recordStats()
+                .build();
+        meterRegistry.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, habitsByUserId, "habits.by-user-id"));
+    }
+
+    @Override
+    public Habit create(CreateHabitDto dto) {
+        Habit habit = delegate.create(dto);
+        if (habit != null) {
+            habitsByUserId.asMap().computeIfPresent(habit.getUserId(), (userId, habits) -> replace(habits, habit));
+        }
+        return habit;
+    }
+
+    @Override
+    public List<Habit> getAllHabitsByUserId(int userId) {
+        List<Habit> habits = habitsByUserId.get(userId, this::loadHabits);
+        return habits == null ? delegate.getAllHabitsByUserId(userId) : habits;
+    }
+
+    @Override
+    public int[] getHabitIdsByUserId(int userId) {
+        List<Habit> habits = habitsByUserId.getIfPresent(userId);
+        if (habits == null) {
+            return delegate.getHabitIdsByUserId(userId);
+        }
+        return habits.stream().mapToInt(Habit::getId).toArray();
+    }
+
+    @Override
+    public boolean existsByIdAndUserId(int habitId, int userId) {
+        List<Habit> habits = habitsByUserId.getIfPresent(userId);
+        if (habits == null) {
+            return delegate.existsByIdAndUserId(habitId, userId);
+        }
+        return habits.stream().anyMatch(habit -> habit.getId() == habitId);
+    }
+
+    @Override
+    public Habit getHabitById(int habitId) throws HabitNotFoundException {
+        return delegate.getHabitById(habitId);
+    }
+
+    @Override
+    public Optional<Habit> findHabitById(int habitId) {
+        return delegate.findHabitById(habitId);
+    }
+
+    @Override
+    public int update(int habitId, UpdateHabitDto dto) {
+        int updated = delegate.update(habitId, dto);
+        if (updated > 0) {
+            delegate.findHabitById(habitId).ifPresentOrElse(
+                    habit -> habitsByUserId.asMap().computeIfPresent(habit.getUserId(), (userId, habits) -> replace(habits, habit)),
+                    habitsByUserId::invalidateAll);
+        }
+        return updated;
+    }
+
+    @Override
+    public int updateForUser(int habitId, int userId, UpdateHabitDto dto) {
+        int updated = delegate.updateForUser(habitId, userId, dto);
+        if (updated > 0) {
+            habitsByUserId.asMap().computeIfPresent(userId, (key, habits) -> habits.stream()
+                    .filter(habit -> habit.getId() == habitId)
+                    .findFirst()
+                    .map(habit -> replace(habits, new Habit(
+                            habit.getId(),
+                            habit.getUserId(),
+                            dto.getName(),
+                            dto.getDescription(),
+                            HabitFrequency.valueOf(dto.getFrequency()),
+                            habit.getDayOfCreation()
+                    )))
+                    .orElse(null));
+        }
+        return updated;
+    }
+
+    @Override
+    public int remove(int id) {
+        Habit habit = delegate.findHabitById(id).orElse(null);
+        if (habit == null) {
+            return delegate.remove(id);
+        }
+        int removed = delegate.remove(id);
+        if (removed > 0) {
+            habitsByUserId.asMap().computeIfPresent(habit.getUserId(), (userId, habits) -> without(habits, id));
+        }
+        return removed;
+    }
+
+    @Override
+    public int removeForUser(int id, int userId) {
+        int removed = delegate.removeForUser(id, userId);
+        if (removed > 0) {
+            habitsByUserId.asMap().computeIfPresent(userId, (key, habits) -> without(habits, id));
+        }
+        return removed;
+    }
+
+    public void evictUser(int userId) {
+        habitsByUserId.invalidate(userId);
+    }
+
+    public void invalidateAll() {
+        habitsByUserId.invalidateAll();
+    }
+
+    private List<Habit> loadHabits(int userId) {
+        List<Habit> habits = delegate.getAllHabitsByUserId(userId);
+        if (habits.isEmpty()) {
+            int[] habitIds = delegate.getHabitIdsByUserId(userId);
+            if (habitIds == null || habitIds.length > 0) {
+                return null;
+            }
+        }
+        return List.copyOf(habits);
+    }
+
+    private static List<Habit> replace(List<Habit> habits, Habit habit) {
+        List<Habit> result = new ArrayList<>(habits.size() + 1);
+        boolean replaced = false;
+        for (Habit cached : habits) {
+            if (cached.getId() == habit.getId()) {
+                result.add(habit);
+                replaced = true;
+            } else {
+                result.add(cached);
+            }
+        }
+        if (!replaced) {
+            result.add(habit);
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    private static List<Habit> without(List<Habit> habits, int habitId) {
+        return habits.stream().filter(habit -> habit.getId() != habitId).toList();
+    }
+}
@@ -0,0 +1,175 @@
+package org.example.infrastructure.data.repositories;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.example.core.dtos.user_dtos.AuthUserDto;
+import org.example.core.dtos.user_dtos.ChangeAdminStatusDto;
+import org.example.core.dtos.user_dtos.UpdateUserDto;
+import org.example.core.models.User;
+import org.example.core.repositories.IUserRepository;
+import org.example.exceptions.UserNotFoundException;
+import org.example.infrastructure.configs.CacheConfig;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Primary
+@Repository
+public class CachingUserRepository implements IUserRepository {
+
+    private final IUserRepository delegate;
+    private final CachingHabitRepository habitRepository;
+    private final Cache<Integer, User> usersById;
+    private final Cache<String, Integer> userIdsByEmail;
+    private final AtomicLong evictions = new AtomicLong();
+
+    public CachingUserRepository(@Qualifier("jdbcUserRepository") IUserRepository delegate,
+                                 CachingHabitRepository habitRepository,
+                                 CacheConfig cacheConfig,
+                                 ObjectProvider<MeterRegistry> meterRegistry) {
+        this.delegate = delegate;
+        this.habitRepository = habitRepository;
+        CacheConfig.Users users = cacheConfig.getUsers();
+        this.usersById = Caffeine.newBuilder()
+                .maximumSize(users.getMaxSize())
+                .expireAfterWrite(users.getTtl())
+                .recordStats()
+                .build();
+        this.userIdsByEmail = Caffeine.newBuilder()
+                .maximumSize(users.getMaxSize())
+                .expireAfterWrite(users.getTtl())
+                .recordStats()
+                .build();
+        meterRegistry.ifAvailable(registry -> {
+            CaffeineCacheMetrics.monitor(registry, usersById, "users.by-id");
+            CaffeineCacheMetrics.monitor(registry, userIdsByEmail, "users.by-email");
+        });
+    }
+
+    @Override
+    public Optional<User> create(AuthUserDto dto) {
+        long seenEvictions = evictions.get();
+        Optional<User> user = delegate.create(dto);
+        user.ifPresent(created -> put(created, seenEvictions));
+        return user;
+    }
+
+    @Override
+    public User getByEmail(String email) throws UserNotFoundException {
+        User user = getCachedByEmail(email);
+        if (user != null) {
+            return user;
+        }
+        long seenEvictions = evictions.get();
+        user = delegate.getByEmail(email);
+        put(user, seenEvictions);
+        return user;
+    }
+
+    @Override
+    public Optional<User> findByEmail(String email) {
+        User user = getCachedByEmail(email);
+        if (user != null) {
+            return Optional.of(user);
+        }
+        long seenEvictions = evictions.get();
+        Optional<User> found = delegate.findByEmail(email);
+        found.ifPresent(loaded -> put(loaded, seenEvictions));
+        return found;
+    }
+
+    @Override
+    public User getById(int id) throws UserNotFoundException {
+        User user = usersById.getIfPresent(id);
+        if (user != null) {
+            return user;
+        }
+        long seenEvictions = evictions.get();
+        user = delegate.getById(id);
+        put(user, seenEvictions);
+        return user;
+    }
+
+    @Override
+    public Optional<User> findById(int id) {
+        User user = usersById.getIfPresent(id);
+        if (user != null) {
+            return Optional.of(user);
+        }
+        long seenEvictions = evictions.get();
+        Optional<User> found = delegate.findById(id);
+        found.ifPresent(loaded -> put(loaded, seenEvictions));
+        return found;
+    }
+
+    @Override
+    public List<User> getAll() {
+        return delegate.getAll();
+    }
+
+    @Override
+    public int update(int userId, UpdateUserDto dto) {
+        try {
+            return delegate.update(userId, dto);
+        } finally {
+            evict(userId);
+        }
+    }
+
+    @Override
+    public void remove(int id) {
+        try {
+            delegate.remove(id);
+        } finally {
+            evict(id);
+            habitRepository.evictUser(id);
+        }
+    }
+
+    @Override
+    public int changeUserAdminStatus(int userId, ChangeAdminStatusDto dto) {
+        try {
+            return delegate.changeUserAdminStatus(userId, dto);
+        } finally {
+            evict(userId);
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        evictions.incrementAndGet();
+        usersById.invalidateAll();
+        userIdsByEmail.invalidateAll();
+    }
+
+    private User getCachedByEmail(String email) {
+        if (email == null) {
+            return null;
+        }
+        Integer userId = userIdsByEmail.getIfPresent(email);
+        User user = userId == null ? null : usersById.getIfPresent(userId);
+        return user != null && user.getEmail().equals(email) ? user : null;
+    }
+
+    private synchronized void put(User user, long seenEvictions) {
+        if (evictions.get() != seenEvictions) {
+            return;
+        }
+        usersById.put(user.getId(), user);
+        userIdsByEmail.put(user.getEmail(), user.getId());
+    }
+
+    private synchronized void evict(int userId) {
+        evictions.incrementAndGet();
+        User user = usersById.asMap().remove(userId);
+        if (user != null) {
+            userIdsByEmail.invalidate(user.getEmail());
+        }
+    }
+}
@@ -18,6 +18,8 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
 
 @Repository
 @RequiredArgsConstructor
@@ -38,7 +40,8 @@ public class JdbcHabitRepository implements IHabitRepository {
     }
 
     @Override
-    public void create(CreateHabitDto dto) {
+    public Habit create(CreateHabitDto dto) {
+        Habit habit = null;
         try (Connection connection = connectionManager.open();
              PreparedStatement preparedStatement = connection.prepareStatement(SqlConstants.CREATE_HABIT_SQL)) {
 
@@ -46,11 +49,15 @@ public class JdbcHabitRepository implements IHabitRepository {
             preparedStatement.setString(2, dto.getName());
             preparedStatement.setString(3, dto.getDescription());
             preparedStatement.setString(4, dto.getFrequency());
-            preparedStatement.executeUpdate();
+            ResultSet resultSet = preparedStatement.executeQuery();
 
+            if (resultSet.next()) {
+                habit = getHabitFromResultSet(resultSet);
+            }
         } catch (SQLException e) {
             log.error("Error occurred while trying create habit", e);
         }
+        return habit;
     }
 
     @Override
@@ -72,9 +79,52 @@ public class JdbcHabitRepository implements IHabitRepository {
         return habits;
     }
 
+    @Override
+    public int[] getHabitIdsByUserId(int userId) {
+        try (Connection connection = connectionManager.open();
+             PreparedStatement preparedStatement = connection.prepareStatement(SqlConstants.GET_USER_HABIT_IDS_SQL)) {
+
+            preparedStatement.setInt(1, userId);
+            ResultSet resultSet = preparedStatement.executeQuery();
+
+            IntStream.Builder habitIds = IntStream.builder();
+            while (resultSet.next()) {
+                habitIds.add(resultSet.getInt(1));
+            }
+            return habitIds.build().toArray();
+        } catch (SQLException e) {
+            log.error("Error occurred while trying get habit ids", e);
+        }
+        return null;
+    }
+
+    @Override
+    public boolean existsByIdAndUserId(int habitId, int userId) {
+        try (Connection connection = connectionManager.open();
+             PreparedStatement preparedStatement = connection.prepareStatement(SqlConstants.EXISTS_USER_HABIT_SQL)) {
+
+            preparedStatement.setInt(1, habitId);
+            preparedStatement.setInt(2, userId);
+            ResultSet resultSet = preparedStatement.executeQuery();
+
+            return resultSet.next() && resultSet.getBoolean(1);
+        } catch (SQLException e) {
+            log.error("Error occurred while trying check habit owner", e);
+        }
+        return false;
+    }
+
     @Override
     public Habit getHabitById(int habitId) throws HabitNotFoundException {
-        Habit habit = null;
+        return findHabitById(habitId).orElseThrow(HabitNotFoundException::new);
+    }
+
+    @Override
+    public Optional<Habit> findHabitById(int habitId) {
+        Habit habit = connectionManager.getLoaded(Habit.class, habitId);
+        if (habit != null) {
+            return Optional.of(habit);
+        }
         try (Connection connection = connectionManager.open();
              PreparedStatement preparedStatement = connection.prepareStatement(SqlConstants.GET_USER_HABIT_BY_ID_SQL)) {
 
@@ -87,40 +137,87 @@ public class JdbcHabitRepository implements IHabitRepository {
         } catch (SQLException e) {
             log.error("Error occurred while trying get habit by id", e);
         }
-        if (habit == null) {
-            throw new HabitNotFoundException();
+        connectionManager.registerLoaded(Habit.class, habitId, habit);
+        return Optional.ofNullable(habit);
+    }
+
+    private static int rebuildStatsIfUpdated(Connection connection, int habitId, int updated) throws SQLException {
+        if (updated > 0) {
+            try (PreparedStatement statsStatement = connection.prepareStatement(SqlConstants.REBUILD_HABIT_STATS_SQL)) {
+                statsStatement.setInt(1, habitId);
+                statsStatement.executeUpdate();
+            }
         }
-        return habit;
+        return updated;
+    }
+
+    @Override
+    public int update(int habitId, UpdateHabitDto dto) {
+
+        try {
+            return connectionManager.inTransaction(connection -> {
+                try (PreparedStatement preparedStatement = connection.prepareStatement(SqlConstants.UPDATE_HABIT_SQL)) {
+                    preparedStatement.setString(1, dto.getName());
+                    preparedStatement.setString(2, dto.getDescription());
+                    preparedStatement.setString(3, dto.getFrequency());
+                    preparedStatement.setInt(4, habitId);
+                    return rebuildStatsIfUpdated(connection, habitId, preparedStatement.executeUpdate());
+                }
+            });
+        } catch (SQLException e) {
+            log.error("Error occurred while trying update habit", e);
+        }
+        return 0;
     }
 
     @Override
-    public void update(int habitId, UpdateHabitDto dto) {
+    public int updateForUser(int habitId, int userId, UpdateHabitDto dto) {
+
+        try {
+            return connectionManager.inTransaction(connection -> {
+                try (PreparedStatement preparedStatement = connection.prepareStatement(SqlConstants.UPDATE_USER_HABIT_SQL)) {
+                    preparedStatement.setString(1, dto.getName());
+                    preparedStatement.setString(2, dto.getDescription());
+                    preparedStatement.setString(3, dto.getFrequency());
+                    preparedStatement.setInt(4, habitId);
+                    preparedStatement.setInt(5, userId);
+                    return rebuildStatsIfUpdated(connection, habitId, preparedStatement.executeUpdate());
+                }
+            });
+        } catch (SQLException e) {
+            log.error("Error occurred while trying update habit", e);
+        }
+        return 0;
+    }
+
+    @Override
+    public int remove(int id) {
 
         try (Connection connection = connectionManager.open();
-             PreparedStatement preparedStatement = connection.prepareStatement(SqlConstants.UPDATE_HABIT_SQL)) {
+             PreparedStatement preparedStatement = connection.prepareStatement(SqlConstants.REMOVE_HABIT_SQL)) {
 
-            preparedStatement.setString(1, dto.getName());
-            preparedStatement.setString(2, dto.getDescription());
-            preparedStatement.setString(3, dto.getFrequency());
-            preparedStatement.setInt(4, habitId);
-            preparedStatement.executeUpdate();
+            preparedStatement.setInt(1, id);
+            return preparedStatement.executeUpdate();
 
         } catch (SQLException e) {
-            log.error("Error occurred while trying update habit", e);
+            log.error("Error occurred while trying remove habit", e);
         }
+        return 0;
     }
 
     @Override
-    public void remove(int id) {
+    public int removeForUser(int id, int userId) {
 
         try (Connection connection = connectionManager.open();
-             PreparedStatement preparedStatement = connection.prepareStatement(SqlConstants.REMOVE_HABIT_SQL)) {
+             PreparedStatement preparedStatement = connection.prepareStatement(SqlConstants.REMOVE_USER_HABIT_SQL)) {
 
             preparedStatement.setInt(1, id);
-            preparedStatement.executeUpdate();
+            preparedStatement.setInt(2, userId);
+            return preparedStatement.executeUpdate();
 
         } catch (SQLException e) {
             log.error("Error occurred while trying remove habit", e);
         }
+        return 0;
     }
 }
@@ -0,0 +1,94 @@
+package org.example.infrastructure.data.repositories;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.core.models.HabitFrequency;
+import org.example.core.models.HabitStatistics;
+import org.example.core.repositories.IHabitStatisticsRepository;
+import org.example.infrastructure.constants.SqlConstants;
+import org.example.infrastructure.util.ConnectionManager;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class JdbcHabitStatisticsRepository implements IHabitStatisticsRepository {
+
+    private final ConnectionManager connectionManager;
+
+    private static HabitStatistics getHabitStatisticsFromResultSet(ResultSet resultSet) throws SQLException {
+        Date lastCompleteDate = resultSet.getDate("last_complete_date");
+        return new HabitStatistics(
+                resultSet.getInt("habit_id"),
+                HabitFrequency.valueOf(resultSet.getString("frequency")),
+                resultSet.getDate("day_of_creation").toLocalDate(),
+                resultSet.getInt("track_count"),
+                lastCompleteDate == null ? null : lastCompleteDate.toLocalDate(),
+                resultSet.getBoolean("completion_status"),
+                resultSet.getInt("current_streak"),
+                resultSet.getInt("longest_streak")
+        );
+    }
+
+    @Override
+    public List<HabitStatistics> getStatisticsByUserId(int userId, LocalDate today) {
+        List<HabitStatistics> statistics = new ArrayList<>();
+        try (Connection connection = connectionManager.open();
+             PreparedStatement preparedStatement = connection.prepareStatement(SqlConstants.GET_USER_HABITS_STATISTICS_SQL)) {
+
+            preparedStatement.setDate(1, Date.valueOf(today));
+            preparedStatement.setDate(2, Date.valueOf(today));
+            preparedStatement.setInt(3, userId);
+            ResultSet resultSet = preparedStatement.executeQuery();
+
+            while (resultSet.next()) {
+                statistics.add(getHabitStatisticsFromResultSet(resultSet));
+            }
+        } catch (SQLException e) {
+            log.error("Error occurred while trying get habits statistics", e);
+        }
+        return statistics;
+    }
+
+    @Override
+    public HabitStatistics getStatisticsByHabitId(int habitId, LocalDate today) {
+        HabitStatistics statistics = null;
+        try (Connection connection = connectionManager.open();
+             PreparedStatement preparedStatement = connection.prepareStatement(SqlConstants.GET_HABIT_STATISTICS_SQL)) {
+
+            preparedStatement.setDate(1, Date.valueOf(today));
+            preparedStatement.setDate(2, Date.valueOf(today));
+            preparedStatement.setInt(3, habitId);
+            ResultSet resultSet = preparedStatement.executeQuery();
+
+            if (resultSet.next()) {
+                statistics = getHabitStatisticsFromResultSet(resultSet);
+            }
+        } catch (SQLException e) {
+            log.error("Error occurred while trying get habit statistics", e);
+        }
+        return statistics;
+    }
+
+    @Override
+    public int rebuildAll() {
+        try (Connection connection = connectionManager.open();
+             PreparedStatement preparedStatement = connection.prepareStatement(SqlConstants.REBUILD_ALL_HABIT_STATS_SQL)) {
+
+            return preparedStatement.executeUpdate();
+
+        } catch (SQLException e) {
+            log.error("Error occurred while trying rebuild habits statistics", e);
+        }
+        return 0;
+    }
+}
@@ -4,16 +4,22 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.core.models.HabitTrack;
 import org.example.core.repositories.IHabitTrackRepository;
+import org.example.exceptions.HabitNotFoundException;
 import org.example.infrastructure.constants.SqlConstants;
 import org.example.infrastructure.util.ConnectionManager;
 import org.springframework.stereotype.Repository;
 
+import java.sql.Array;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 @Repository
 @RequiredArgsConstructor
@@ -22,21 +28,91 @@ public class JdbcHabitTrackRepository implements IHabitTrackRepository {
 
     private final ConnectionManager connectionManager;
 
-    @Override
-    public void create(int habitId) {
-        try (Connection connection = connectionManager.open();
-             PreparedStatement preparedStatement = connection.prepareStatement(SqlConstants.CREATE_HABIT_TRACK_SQL)) {
+    private static HabitTrack getHabitTrackFromResultSet(ResultSet resultSet) throws SQLException {
+        return new HabitTrack(
+                resultSet.getInt("id"),
+                resultSet.getInt("habit_id"),
+                resultSet.getDate("complete_date").toLocalDate()
+        );
+    }
 
-            preparedStatement.setInt(1, habitId);
-            preparedStatement.executeUpdate();
+    private static Optional<HabitTrack> addTrackToStats(Connection connection, PreparedStatement createStatement) throws SQLException {
+        try (ResultSet resultSet = createStatement.executeQuery()) {
+            if (!resultSet.next()) {
+                return null;
+            }
+            if (resultSet.getDate("complete_date") == null) {
+                return Optional.empty();
+            }
+            HabitTrack track = getHabitTrackFromResultSet(resultSet);
+            try (PreparedStatement statsStatement = connection.prepareStatement(SqlConstants.ADD_TRACK_TO_HABIT_STATS_SQL)) {
+                statsStatement.setInt(1, track.getHabitId());
+                statsStatement.setDate(2, resultSet.getDate("complete_date"));
+                statsStatement.executeUpdate();
+            }
+            return Optional.of(track);
+        }
+    }
+
+    private static Optional<HabitTrack> rebuildStatsOfRemovedTrack(Connection connection, PreparedStatement removeStatement) throws SQLException {
+        try (ResultSet resultSet = removeStatement.executeQuery()) {
+            if (!resultSet.next()) {
+                return Optional.empty();
+            }
+            HabitTrack track = getHabitTrackFromResultSet(resultSet);
+            try (PreparedStatement statsStatement = connection.prepareStatement(SqlConstants.REBUILD_HABIT_STATS_SQL)) {
+                statsStatement.setInt(1, track.getHabitId());
+                statsStatement.executeUpdate();
+            }
+            return Optional.of(track);
+        }
+    }
+
+    @Override
+    public Optional<HabitTrack> create(int habitId) throws HabitNotFoundException {
+        Optional<HabitTrack> created;
+        try {
+            created = connectionManager.inTransaction(connection -> {
+                try (PreparedStatement preparedStatement = connection.prepareStatement(SqlConstants.CREATE_HABIT_TRACK_SQL)) {
+                    preparedStatement.setInt(1, habitId);
+                    return addTrackToStats(connection, preparedStatement);
+                }
+            });
+        } catch (SQLException e) {
+            throw new IllegalStateException("Error occurred while trying create habit track", e);
+        }
+        if (created == null) {
+            throw new HabitNotFoundException();
+        }
+        return created;
+    }
 
+    @Override
+    public Optional<HabitTrack> createForUser(int habitId, int userId) throws HabitNotFoundException {
+        Optional<HabitTrack> created;
+        try {
+            created = connectionManager.inTransaction(connection -> {
+                try (PreparedStatement preparedStatement = connection.prepareStatement(SqlConstants.CREATE_USER_HABIT_TRACK_SQL)) {
+                    preparedStatement.setInt(1, habitId);
+                    preparedStatement.setInt(2, userId);
+                    return addTrackToStats(connection, preparedStatement);
+                }
+            });
         } catch (SQLException e) {
-            log.error("Error occurred while trying create habit track", e);
+            throw new IllegalStateException("Error occurred while trying create habit track", e);
+        }
+        if (created == null) {
+            throw new HabitNotFoundException();
         }
+        return created;
     }
 
     @Override
     public List<HabitTrack> getHabitTracks(int habitId) {
+        List<HabitTrack> loaded = connectionManager.getLoaded(HabitTrack.class, habitId);
+        if (loaded != null) {
+            return new ArrayList<>(loaded);
+        }
         List<HabitTrack> tracks = new ArrayList<>();
         try (Connection connection = connectionManager.open();
              PreparedStatement preparedStatement = connection.prepareStatement(SqlConstants.GET_HABIT_TRACKS_SQL)) {
@@ -45,13 +121,9 @@ public class JdbcHabitTrackRepository implements IHabitTrackRepository {
             ResultSet resultSet = preparedStatement.executeQuery();
 
             while (resultSet.next()) {
-                tracks.add(new HabitTrack(
-                                resultSet.getInt("id"),
-                                resultSet.getInt("habit_id"),
-                                resultSet.getDate("complete_date").toLocalDate()
-                        )
-                );
+                tracks.add(getHabitTrackFromResultSet(resultSet));
             }
+            connectionManager.registerLoaded(HabitTrack.class, habitId, List.copyOf(tracks));
         } catch (SQLException e) {
             log.error("Error occurred while trying get habit tracks", e);
         }
@@ -59,28 +131,126 @@ public class JdbcHabitTrackRepository implements IHabitTrackRepository {
     }
 
     @Override
-    public void removeAllByHabitId(int habitId) {
+    public Map<Integer, List<HabitTrack>> getHabitTracks(Collection<Integer> habitIds) {
+        Map<Integer, List<HabitTrack>> tracksByHabitId = new LinkedHashMap<>();
+        List<Integer> notLoaded = new ArrayList<>();
+        for (Integer habitId : habitIds) {
+            List<HabitTrack> loaded = connectionManager.getLoaded(HabitTrack.class, habitId);
+            if (loaded != null) {
+                tracksByHabitId.put(habitId, new ArrayList<>(loaded));
+            } else if (tracksByHabitId.putIfAbsent(habitId, new ArrayList<>()) == null) {
+                notLoaded.add(habitId);
+            }
+        }
+        if (notLoaded.isEmpty()) {
+            return tracksByHabitId;
+        }
         try (Connection connection = connectionManager.open();
-             PreparedStatement preparedStatement = connection.prepareStatement(SqlConstants.REMOVE_ALL_HABIT_TRACK_SQL)) {
+             PreparedStatement preparedStatement = connection.prepareStatement(SqlConstants.GET_HABITS_TRACKS_SQL)) {
 
-            preparedStatement.setInt(1, habitId);
-            preparedStatement.executeUpdate();
+            Array habitIdsArray = connection.createArrayOf("integer", notLoaded.toArray());
+            preparedStatement.setArray(1, habitIdsArray);
+            ResultSet resultSet = preparedStatement.executeQuery();
+
+            while (resultSet.next()) {
+                HabitTrack track = getHabitTrackFromResultSet(resultSet);
+                tracksByHabitId.get(track.getHabitId()).add(track);
+            }
+            habitIdsArray.free();
+            for (Integer habitId : notLoaded) {
+                connectionManager.registerLoaded(HabitTrack.class, habitId, List.copyOf(tracksByHabitId.get(habitId)));
+            }
+        } catch (SQLException e) {
+            log.error("Error occurred while trying get tracks of habits", e);
+        }
+        return tracksByHabitId;
+    }
+
+    @Override
+    public Map<Integer, List<HabitTrack>> getUserHabitTracks(int userId) {
+        Map<Integer, List<HabitTrack>> tracksByHabitId = new LinkedHashMap<>();
+        try (Connection connection = connectionManager.open();
+             PreparedStatement preparedStatement = connection.prepareStatement(SqlConstants.GET_USER_HABITS_TRACKS_SQL)) {
+
+            preparedStatement.setInt(1, userId);
+            ResultSet resultSet = preparedStatement.executeQuery();
 
+            while (resultSet.next()) {
+                List<HabitTrack> tracks = tracksByHabitId.computeIfAbsent(resultSet.getInt("habit_id"), id -> new ArrayList<>());
+                if (resultSet.getDate("complete_date") != null) {
+                    tracks.add(getHabitTrackFromResultSet(resultSet));
+                }
+            }
+            tracksByHabitId.forEach((habitId, tracks) ->
+                    connectionManager.registerLoaded(HabitTrack.class, habitId, List.copyOf(tracks)));
         } catch (SQLException e) {
-            log.error("Error occurred while trying remove habit tracks", e);
+            log.error("Error occurred while trying get tracks of user habits", e);
         }
+        return tracksByHabitId;
     }
 
     @Override
-    public void remove(int id) {
+    public Optional<HabitTrack> findHabitTrackById(int id) {
         try (Connection connection = connectionManager.open();
-             PreparedStatement preparedStatement = connection.prepareStatement(SqlConstants.REMOVE_HABIT_TRACK_SQL)) {
+             PreparedStatement preparedStatement = connection.prepareStatement(SqlConstants.GET_HABIT_TRACK_BY_ID_SQL)) {
 
             preparedStatement.setInt(1, id);
-            preparedStatement.executeUpdate();
+            ResultSet resultSet = preparedStatement.executeQuery();
+
+            if (resultSet.next()) {
+                return Optional.of(getHabitTrackFromResultSet(resultSet));
+            }
+        } catch (SQLException e) {
+            log.error("Error occurred while trying get habit track by id", e);
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public void removeAllByHabitId(int habitId) {
+        try {
+            connectionManager.inTransaction(connection -> {
+                try (PreparedStatement preparedStatement = connection.prepareStatement(SqlConstants.REMOVE_ALL_HABIT_TRACK_SQL);
+                     PreparedStatement statsStatement = connection.prepareStatement(SqlConstants.RESET_HABIT_STATS_SQL)) {
+                    preparedStatement.setInt(1, habitId);
+                    preparedStatement.executeUpdate();
+                    statsStatement.setInt(1, habitId);
+                    return statsStatement.executeUpdate();
+                }
+            });
+        } catch (SQLException e) {
+            log.error("Error occurred while trying remove habit tracks", e);
+        }
+    }
+
+    @Override
+    public Optional<HabitTrack> remove(int id) {
+        try {
+            return connectionManager.inTransaction(connection -> {
+                try (PreparedStatement preparedStatement = connection.prepareStatement(SqlConstants.REMOVE_HABIT_TRACK_SQL)) {
+                    preparedStatement.setInt(1, id);
+                    return rebuildStatsOfRemovedTrack(connection, preparedStatement);
+                }
+            });
+        } catch (SQLException e) {
+            log.error("Error occurred while trying remove habit track", e);
+        }
+        return Optional.empty();
+    }
 
+    @Override
+    public Optional<HabitTrack> removeForUser(int id, int userId) {
+        try {
+            return connectionManager.inTransaction(connection -> {
+                try (PreparedStatement preparedStatement = connection.prepareStatement(SqlConstants.REMOVE_USER_HABIT_TRACK_SQL)) {
+                    preparedStatement.setInt(1, id);
+                    preparedStatement.setInt(2, userId);
+                    return rebuildStatsOfRemovedTrack(connection, preparedStatement);
+                }
+            });
         } catch (SQLException e) {
             log.error("Error occurred while trying remove habit track", e);
         }
+        return Optional.empty();
     }
 }
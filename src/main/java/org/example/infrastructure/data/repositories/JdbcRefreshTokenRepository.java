@@ -0,0 +1,71 @@
+package org.example.infrastructure.data.repositories;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.core.repositories.IRefreshTokenRepository;
+import org.example.infrastructure.constants.SqlConstants;
+import org.example.infrastructure.util.ConnectionManager;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Optional;
+
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class JdbcRefreshTokenRepository implements IRefreshTokenRepository {
+
+    private final ConnectionManager connectionManager;
+
+    @Override
+    public void create(int userId, String tokenHash, Instant expiresAt) {
+        try (Connection connection = connectionManager.open();
+             PreparedStatement preparedStatement = connection.prepareStatement(SqlConstants.CREATE_REFRESH_TOKEN_SQL)) {
+
+            preparedStatement.setInt(1, userId);
+            preparedStatement.setInt(2, userId);
+            preparedStatement.setString(3, tokenHash);
+            preparedStatement.setTimestamp(4, Timestamp.from(expiresAt));
+            preparedStatement.executeUpdate();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Error occurred while trying create refresh token", e);
+        }
+    }
+
+    @Override
+    public Optional<Integer> rotate(String tokenHash, String newTokenHash, Instant expiresAt) {
+        try (Connection connection = connectionManager.open();
+             PreparedStatement preparedStatement = connection.prepareStatement(SqlConstants.ROTATE_REFRESH_TOKEN_SQL)) {
+
+            preparedStatement.setString(1, tokenHash);
+            preparedStatement.setString(2, newTokenHash);
+            preparedStatement.setTimestamp(3, Timestamp.from(expiresAt));
+            ResultSet resultSet = preparedStatement.executeQuery();
+
+            if (resultSet.next()) {
+                return Optional.of(resultSet.getInt("user_id"));
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Error occurred while trying rotate refresh token", e);
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public int removeAllByUserId(int userId) {
+        try (Connection connection = connectionManager.open();
+             PreparedStatement preparedStatement = connection.prepareStatement(SqlConstants.REMOVE_USER_REFRESH_TOKENS_SQL)) {
+
+            preparedStatement.setInt(1, userId);
+            return preparedStatement.executeUpdate();
+        } catch (SQLException e) {
+            log.error("Error occurred while trying remove refresh tokens", e);
+        }
+        return 0;
+    }
+}
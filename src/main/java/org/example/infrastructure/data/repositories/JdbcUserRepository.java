@@ -19,6 +19,7 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 @RequiredArgsConstructor
@@ -37,29 +38,42 @@ public class JdbcUserRepository implements IUserRepository {
     }
 
     @Override
-    public User create(AuthUserDto dto) {
-        User user = null;
+    public Optional<User> create(AuthUserDto dto) {
         try (Connection connection = connectionManager.open();
              PreparedStatement preparedStatement = connection.prepareStatement(SqlConstants.CREATE_USER_SQL)) {
 
             preparedStatement.setString(1, dto.getEmail());
             preparedStatement.setString(2, dto.getPassword());
+            ResultSet resultSet = preparedStatement.executeQuery();
 
-            preparedStatement.executeUpdate();
-
-            user = getByEmail(dto.getEmail());
-        } catch (SQLException | UserNotFoundException e) {
+            if (resultSet.next()) {
+                return Optional.of(new User(
+                        resultSet.getInt("id"),
+                        dto.getEmail(),
+                        dto.getPassword(),
+                        resultSet.getBoolean("is_admin")
+                ));
+            }
+        } catch (SQLException e) {
             log.error("Error occurred while trying create user", e);
         }
-        return user;
+        return Optional.empty();
     }
 
     @Override
     public User getByEmail(String email) throws UserNotFoundException {
+        return findByEmail(email).orElseThrow(UserNotFoundException::new);
+    }
+
+    @Override
+    public Optional<User> findByEmail(String email) {
         if (email == null) {
-            throw new UserNotFoundException();
+            return Optional.empty();
+        }
+        User user = connectionManager.getLoaded(User.class, email);
+        if (user != null) {
+            return Optional.of(user);
         }
-        User user = null;
         try (Connection connection = connectionManager.open();
              PreparedStatement preparedStatement = connection.prepareStatement(SqlConstants.GET_USER_BY_EMAIL_SQL)) {
 
@@ -73,10 +87,10 @@ public class JdbcUserRepository implements IUserRepository {
         } catch (SQLException e) {
             log.error("Error occurred while trying get user by email", e);
         }
-        if (user == null) {
-            throw new UserNotFoundException();
+        if (user != null) {
+            registerLoaded(user);
         }
-        return user;
+        return Optional.ofNullable(user);
     }
 
     @Override
@@ -98,18 +112,19 @@ public class JdbcUserRepository implements IUserRepository {
     }
 
     @Override
-    public void update(int userId, UpdateUserDto dto) throws UserNotFoundException {
+    public int update(int userId, UpdateUserDto dto) {
         try (Connection connection = connectionManager.open();
              PreparedStatement preparedStatement = connection.prepareStatement(SqlConstants.UPDATE_USER_SQL)) {
 
             preparedStatement.setString(1, dto.getEmail());
             preparedStatement.setString(2, dto.getPassword());
             preparedStatement.setInt(3, userId);
-            preparedStatement.executeUpdate();
+            return preparedStatement.executeUpdate();
 
         } catch (SQLException e) {
             log.error("Error occurred while trying update users", e);
         }
+        return 0;
     }
 
     @Override
@@ -126,22 +141,31 @@ public class JdbcUserRepository implements IUserRepository {
     }
 
     @Override
-    public void changeUserAdminStatus(int userId, ChangeAdminStatusDto dto) {
+    public int changeUserAdminStatus(int userId, ChangeAdminStatusDto dto) {
         try (Connection connection = connectionManager.open();
              PreparedStatement preparedStatement = connection.prepareStatement(SqlConstants.CHANGE_USER_STATUS_SQL)) {
 
             preparedStatement.setBoolean(1, dto.isAdmin());
             preparedStatement.setInt(2, userId);
-            preparedStatement.executeUpdate();
+            return preparedStatement.executeUpdate();
 
         } catch (SQLException e) {
             log.error("Error occurred while trying change user status", e);
         }
+        return 0;
     }
 
     @Override
     public User getById(int id) throws UserNotFoundException {
-        User user = null;
+        return findById(id).orElseThrow(UserNotFoundException::new);
+    }
+
+    @Override
+    public Optional<User> findById(int id) {
+        User user = connectionManager.getLoaded(User.class, id);
+        if (user != null) {
+            return Optional.of(user);
+        }
         try (Connection connection = connectionManager.open();
              PreparedStatement preparedStatement = connection.prepareStatement(SqlConstants.GET_USER_BY_ID_SQL)) {
 
@@ -154,9 +178,14 @@ public class JdbcUserRepository implements IUserRepository {
         } catch (SQLException e) {
             log.error("Error occurred while trying get user by id", e);
         }
-        if (user == null) {
-            throw new UserNotFoundException();
+        if (user != null) {
+            registerLoaded(user);
         }
-        return user;
+        return Optional.ofNullable(user);
+    }
+
+    private void registerLoaded(User user) {
+        connectionManager.registerLoaded(User.class, user.getId(), user);
+        connectionManager.registerLoaded(User.class, user.getEmail(), user);
     }
 }
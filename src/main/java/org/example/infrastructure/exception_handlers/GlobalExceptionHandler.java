@@ -1,10 +1,14 @@
 package org.example.infrastructure.exception_handlers;
 
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.example.exceptions.InvalidTokenException;
+import org.example.exceptions.ServiceOverloadedException;
+import org.example.exceptions.TooManyAttemptsException;
 import org.example.infrastructure.constants.ErrorMessageConstants;
 import org.example.infrastructure.util.ErrorResponse;
 import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.validation.FieldError;
@@ -75,6 +79,20 @@ public class GlobalExceptionHandler {
         return new ErrorResponse(ErrorMessageConstants.JSON_ERROR);
     }
 
+    @ExceptionHandler(ServiceOverloadedException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ErrorResponse handleServiceOverloadedException(HttpServletResponse response) {
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        return new ErrorResponse(ErrorMessageConstants.SERVICE_OVERLOADED);
+    }
+
+    @ExceptionHandler(TooManyAttemptsException.class)
+    @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+    public ErrorResponse handleTooManyAttemptsException(TooManyAttemptsException ex, HttpServletResponse response) {
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()));
+        return new ErrorResponse(ErrorMessageConstants.TOO_MANY_ATTEMPTS);
+    }
+
     @ExceptionHandler(AccessDeniedException.class)
     @ResponseStatus(HttpStatus.FORBIDDEN)
     public ErrorResponse handleAccessDeniedException(AccessDeniedException ex) {
@@ -0,0 +1,38 @@
+package org.example.infrastructure.filters;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.example.infrastructure.util.JwtProvider;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Фильтр аутентификации.
+ * Проверяет токен из заголовка Authorization один раз за запрос и кладёт
+ * {@link org.example.core.models.UserPrincipal} в атрибут запроса {@link #PRINCIPAL_ATTRIBUTE}.
+ * Если токена нет или он невалиден, атрибут не выставляется.
+ */
+@Component
+@RequiredArgsConstructor
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+    public static final String PRINCIPAL_ATTRIBUTE = JwtAuthenticationFilter.class.getName() + ".PRINCIPAL";
+
+    private final JwtProvider jwtProvider;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String token = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (token != null) {
+            jwtProvider.getPrincipal(token)
+                    .ifPresent(principal -> request.setAttribute(PRINCIPAL_ATTRIBUTE, principal));
+        }
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,53 @@
+package org.example.infrastructure.filters;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.infrastructure.util.ConnectionManager;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.sql.SQLException;
+
+/**
+ * Фильтр единицы работы.
+ * Привязывает к читающему запросу (GET и HEAD) одно соединение с базой данных: все репозитории в рамках запроса
+ * работают через него в транзакции только на чтение с картой идентичности, а в пул соединение возвращается
+ * после обработки запроса.
+ * Пишущие запросы единицу работы не открывают и берут соединение из пула на каждую операцию:
+ * вход, регистрация и смена пароля ждут хэширования пароля, и удержание соединения на это время
+ * исчерпало бы пул при всплеске входов.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UnitOfWorkFilter extends OncePerRequestFilter {
+
+    private final ConnectionManager connectionManager;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        connectionManager.begin(true);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            try {
+                connectionManager.end();
+            } catch (SQLException e) {
+                log.error("Error occurred while trying close unit of work", e);
+            }
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String method = request.getMethod();
+        return !(HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method));
+    }
+}
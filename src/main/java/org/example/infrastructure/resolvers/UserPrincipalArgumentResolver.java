@@ -0,0 +1,34 @@
+package org.example.infrastructure.resolvers;
+
+import org.example.core.models.UserPrincipal;
+import org.example.exceptions.InvalidTokenException;
+import org.example.infrastructure.filters.JwtAuthenticationFilter;
+import org.springframework.core.MethodParameter;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/**
+ * Подставляет в параметры контроллеров {@link UserPrincipal}, выставленный {@link JwtAuthenticationFilter}.
+ * Если пользователь не аутентифицирован, выбрасывает {@link InvalidTokenException}.
+ */
+public class UserPrincipalArgumentResolver implements HandlerMethodArgumentResolver {
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return UserPrincipal.class.equals(parameter.getParameterType());
+    }
+
+    @Override
+    public UserPrincipal resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                         NativeWebRequest webRequest, WebDataBinderFactory binderFactory)
+            throws InvalidTokenException {
+        Object principal = webRequest.getAttribute(JwtAuthenticationFilter.PRINCIPAL_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (principal instanceof UserPrincipal userPrincipal) {
+            return userPrincipal;
+        }
+        throw new InvalidTokenException();
+    }
+}
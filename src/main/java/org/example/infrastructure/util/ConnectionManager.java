@@ -1,46 +1,145 @@
 package org.example.infrastructure.util;
 
 import lombok.RequiredArgsConstructor;
-import org.example.infrastructure.configs.DbConfig;
 import org.springframework.stereotype.Component;
 
+import javax.sql.DataSource;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.sql.Savepoint;
 
 /**
  * Менеджер соединений для работы с базой данных.
- * Обеспечивает загрузку драйвера, инициализацию параметров
- * соединения и управление соединением с базой данных.
+ * Выдаёт соединения из пула, настроенного в {@link org.example.infrastructure.configs.DataSourceConfig}.
+ * Закрытие полученного соединения возвращает его в пул.
+ * Если в текущем потоке открыта единица работы ({@link #begin(boolean)}), все вызовы {@link #open()}
+ * получают одно и то же соединение, которое возвращается в пул только в {@link #end()}.
  */
 @Component
 @RequiredArgsConstructor
-public class ConnectionManager implements AutoCloseable {
+public class ConnectionManager {
 
-    private final DbConfig dbConfig;
-    private Connection connection;
+    private final DataSource dataSource;
+    private final ThreadLocal<UnitOfWork> currentUnit = new ThreadLocal<>();
 
 
     /**
-     * Открывает новое соединение с базой данных.
+     * Берёт соединение с базой данных из пула или соединение текущей единицы работы.
      *
      * @return объект Connection, представляющий соединение с базой данных
-     * @throws SQLException если возникает ошибка при открытии соединения
+     * @throws SQLException если не удалось получить соединение за время ожидания пула
      */
     public Connection open() throws SQLException {
-        connection = DriverManager.getConnection(dbConfig.getUrl(), dbConfig.getUsername(), dbConfig.getPassword());
-        return connection;
+        UnitOfWork unit = currentUnit.get();
+        return unit == null ? dataSource.getConnection() : unit.connection();
     }
 
     /**
-     * Закрывает текущее соединение с базой данных.
+     * Открывает единицу работы в текущем потоке. Соединение берётся из пула лениво,
+     * при первом обращении к базе.
      *
-     * @throws SQLException если возникает ошибка при закрытии соединения
+     * @param readOnly {@code true}, если в единице работы выполняется только чтение:
+     *                 соединение открывает транзакцию только на чтение и ведётся карта идентичности
+     * @throws IllegalStateException если единица работы в этом потоке уже открыта
      */
-    @Override
-    public void close() throws SQLException {
-        if (connection != null) {
-            connection.close();
+    public void begin(boolean readOnly) {
+        if (currentUnit.get() != null) {
+            throw new IllegalStateException("Unit of work is already bound to the current thread");
         }
+        currentUnit.set(new UnitOfWork(dataSource, readOnly));
+    }
+
+    /**
+     * Закрывает единицу работы текущего потока и возвращает её соединение в пул.
+     * Ничего не делает, если единица работы не открыта.
+     *
+     * @throws SQLException если не удалось завершить транзакцию на чтение или вернуть соединение
+     */
+    public void end() throws SQLException {
+        UnitOfWork unit = currentUnit.get();
+        if (unit != null) {
+            currentUnit.remove();
+            unit.close();
+        }
+    }
+
+    /**
+     * Возвращает сущность, уже загруженную в текущей единице работы.
+     *
+     * @param type тип сущности
+     * @param id   ключ, по которому сущность была загружена
+     * @param <T>  тип результата
+     * @return загруженная сущность или {@code null}, если её нет или единица работы не ведёт карту идентичности
+     */
+    public <T> T getLoaded(Class<?> type, Object id) {
+        UnitOfWork unit = currentUnit.get();
+        return unit == null ? null : unit.getLoaded(type, id);
+    }
+
+    /**
+     * Запоминает загруженную сущность в карте идентичности текущей единицы работы.
+     * Сущность должна быть неизменяемой: её экземпляр получат все последующие чтения в запросе.
+     *
+     * @param type   тип сущности
+     * @param id     ключ, по которому сущность загружена
+     * @param entity загруженная сущность
+     */
+    public void registerLoaded(Class<?> type, Object id, Object entity) {
+        UnitOfWork unit = currentUnit.get();
+        if (unit != null) {
+            unit.registerLoaded(type, id, entity);
+        }
+    }
+
+    /**
+     * Выполняет действие в одной транзакции.
+     * Транзакция фиксируется, если действие завершилось без исключения, иначе откатывается.
+     * Если соединение уже находится в транзакции единицы работы, действие выполняется в ней
+     * и при ошибке откатывается до точки сохранения.
+     *
+     * @param callback действие, выполняемое на соединении с выключенным автокоммитом
+     * @param <T>      тип результата действия
+     * @return результат действия
+     * @throws SQLException если действие или фиксация транзакции завершились ошибкой
+     */
+    public <T> T inTransaction(TransactionCallback<T> callback) throws SQLException {
+        try (Connection connection = open()) {
+            if (!connection.getAutoCommit()) {
+                return inSavepoint(connection, callback);
+            }
+            connection.setAutoCommit(false);
+            try {
+                T result = callback.doInTransaction(connection);
+                connection.commit();
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+
+    private static <T> T inSavepoint(Connection connection, TransactionCallback<T> callback) throws SQLException {
+        Savepoint savepoint = connection.setSavepoint();
+        try {
+            T result = callback.doInTransaction(connection);
+            connection.releaseSavepoint(savepoint);
+            return result;
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback(savepoint);
+            throw e;
+        }
+    }
+
+    /**
+     * Действие над соединением, выполняемое в транзакции.
+     *
+     * @param <T> тип результата действия
+     */
+    @FunctionalInterface
+    public interface TransactionCallback<T> {
+        T doInTransaction(Connection connection) throws SQLException;
     }
 }
@@ -1,60 +1,106 @@
 package org.example.infrastructure.util;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import lombok.extern.slf4j.Slf4j;
 import org.example.core.models.User;
-import org.example.exceptions.InvalidTokenException;
+import org.example.core.models.UserPrincipal;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
-import java.time.Instant;
-import java.time.LocalDateTime;
-import java.time.ZoneId;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
 import java.util.Date;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Утилита для работы с токенами аутентификации.
- * Содержит методы для проверки валидности токена и извлечения идентификатора пользователя из токена.
+ * Содержит методы для проверки валидности токена и извлечения данных пользователя из токена.
+ * Данные проверенных токенов кэшируются до истечения срока действия токена,
+ * поэтому подпись одного и того же токена проверяется один раз.
  */
 @Component
 @Slf4j
 public class JwtProvider {
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final long DEFAULT_CACHE_MAX_SIZE = 10_000;
+
+    private static final Duration ACCESS_TOKEN_TTL = Duration.ofMinutes(5);
+
     private final SecretKey jwtSecret;
+    private final Clock clock;
+    private final JwtParser jwtParser;
+    private final Cache<String, Claims> verifiedTokens;
+
+    public JwtProvider(String jwtSecret) {
+        this(jwtSecret, DEFAULT_CACHE_MAX_SIZE);
+    }
+
+    @Autowired
+    public JwtProvider(@Value("${jwt.token.signing-key}") String jwtSecret,
+                       @Value("${jwt.cache.max-size:10000}") long cacheMaxSize) {
+        this(jwtSecret, cacheMaxSize, Clock.systemDefaultZone(), Ticker.systemTicker());
+    }
 
-    public JwtProvider(@Value("${jwt.token.signing-key}") String jwtSecret) {
+    JwtProvider(String jwtSecret, long cacheMaxSize, Clock clock, Ticker ticker) {
         this.jwtSecret = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        this.clock = clock;
+        this.jwtParser = Jwts.parser()
+                .verifyWith(this.jwtSecret)
+                .clock(() -> Date.from(clock.instant()))
+                .build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new TokenExpiry(clock))
+                .ticker(ticker)
+                .build();
     }
 
     /**
-     * Проверяет, является ли токен валидным.
+     * Вычисляет хэш токена, чтобы кэш проверенных токенов не хранил сами токены в памяти.
      *
-     * @param token токен для проверки
-     * @return true, если токен валиден; иначе false
+     * @param jwtToken токен без префикса
+     * @return SHA-256 хэш токена
      */
-    private boolean isValidToken(String token) {
+    static String digest(String jwtToken) {
         try {
-            if (token.startsWith("Bearer ")) {
-                String jwtToken = token.substring(7);
-                Jwts.parser()
-                        .verifyWith(jwtSecret)
-                        .build()
-                        .parseSignedClaims(jwtToken);
-                return true;
-            }
-            return false;
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(jwtToken.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Проверяет подпись токена и извлекает из него данные за один разбор.
+     *
+     * @param jwtToken токен без префикса
+     * @return данные токена или null, если токен невалиден
+     */
+    private Claims parse(String jwtToken) {
+        try {
+            return jwtParser.parseSignedClaims(jwtToken).getPayload();
         } catch (JwtException e) {
             log.warn(e.getMessage());
         } catch (IllegalArgumentException e) {
             log.error("Token error", e);
         }
-
-        return false;
+        return null;
     }
 
     /**
@@ -64,9 +110,7 @@ public class JwtProvider {
      * @return идентификатор пользователя
      */
     public String generateAccessToken(User user) {
-        final LocalDateTime now = LocalDateTime.now();
-        final Instant accessExpirationInstant = now.plusMinutes(5).atZone(ZoneId.systemDefault()).toInstant();
-        final Date accessExpiration = Date.from(accessExpirationInstant);
+        final Date accessExpiration = Date.from(clock.instant().plus(ACCESS_TOKEN_TTL));
         return Jwts.builder()
                 .subject(user.getEmail())
                 .expiration(accessExpiration)
@@ -78,35 +122,72 @@ public class JwtProvider {
     }
 
     /**
-     * Извлекает идентификатор пользователя из токена.
+     * Проверяет токен и возвращает аутентифицированного пользователя.
      *
-     * @param token токен, содержащий идентификатор пользователя
-     * @return идентификатор пользователя
+     * @param token токен пользователя
+     * @return {@link UserPrincipal}, если токен валиден; иначе пустой Optional
      */
-    public int getUserIdFromToken(String token) throws InvalidTokenException {
-        Claims claims = getClaims(token).orElse(null);
-        if (claims != null) {
-            return claims.get("user_id", Integer.class);
-        }
-        throw new InvalidTokenException();
+    public Optional<UserPrincipal> getPrincipal(String token) {
+        return getClaims(token).map(claims -> new UserPrincipal(
+                claims.get("user_id", Integer.class),
+                Boolean.TRUE.equals(claims.get("is_admin", Boolean.class)),
+                claims.getExpiration() == null ? null : claims.getExpiration().toInstant()
+        ));
     }
 
-
     /**
      * Получает данные пользователя из токена.
      *
      * @param token токен пользователя
-     * @return идентификатор пользователя
+     * @return данные пользователя, если токен валиден; иначе пустой Optional
      */
     public Optional<Claims> getClaims(String token) {
-        if (isValidToken(token)) {
-            String jwtToken = token.substring(7);
-            return Optional.ofNullable(Jwts.parser()
-                    .verifyWith(jwtSecret)
-                    .build()
-                    .parseSignedClaims(jwtToken)
-                    .getPayload());
+        if (token == null || !token.startsWith(BEARER_PREFIX)) {
+            return Optional.empty();
+        }
+        String jwtToken = token.substring(BEARER_PREFIX.length());
+        Claims claims = verifiedTokens.get(digest(jwtToken), key -> parse(jwtToken));
+        if (claims != null && claims.getExpiration() != null && !claims.getExpiration().after(Date.from(clock.instant()))) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(claims);
+    }
+
+    /**
+     * @param jwtToken токен без префикса
+     * @return true, если данные токена есть в кэше проверенных токенов и ещё не истекли
+     */
+    boolean isCached(String jwtToken) {
+        return verifiedTokens.getIfPresent(digest(jwtToken)) != null;
+    }
+
+    /**
+     * Срок хранения проверенного токена в кэше - до момента истечения его срока действия.
+     */
+    private static class TokenExpiry implements Expiry<String, Claims> {
+        private final Clock clock;
+
+        private TokenExpiry(Clock clock) {
+            this.clock = clock;
+        }
+
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            Date expiration = claims.getExpiration();
+            if (expiration == null) {
+                return 0;
+            }
+            return Math.max(0, TimeUnit.MILLISECONDS.toNanos(expiration.getTime() - clock.millis()));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
         }
-        return Optional.empty();
     }
 }
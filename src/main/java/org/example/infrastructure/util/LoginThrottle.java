@@ -0,0 +1,141 @@
+package org.example.infrastructure.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.example.exceptions.TooManyAttemptsException;
+import org.example.infrastructure.configs.LoginThrottleConfig;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ограничение частоты попыток входа и регистрации по IP-адресу клиента и по email.
+ * Проверяется до хэширования пароля, поэтому перебор паролей не нагружает процессор:
+ * отклонённая попытка стоит одного поиска в кэше и одной CAS-операции.
+ * Окна хранятся в ограниченных кэшах и вытесняются через два окна без попыток.
+ */
+@Component
+public class LoginThrottle {
+
+    private final boolean enabled;
+    private final long windowNanos;
+    private final long retryAfterSeconds;
+    private final int maxAttemptsPerIp;
+    private final int maxAttemptsPerEmail;
+    private final Ticker ticker;
+    private final Cache<String, SlidingWindow> ipWindows;
+    private final Cache<String, SlidingWindow> emailWindows;
+    private final Counter ipRejected;
+    private final Counter emailRejected;
+
+    @Autowired
+    public LoginThrottle(LoginThrottleConfig config, ObjectProvider<MeterRegistry> meterRegistry) {
+        this(config, meterRegistry.getIfAvailable(() -> Metrics.globalRegistry), Ticker.systemTicker());
+    }
+
+    LoginThrottle(LoginThrottleConfig config, MeterRegistry meterRegistry, Ticker ticker) {
+        if (config.getMaxAttemptsPerIp() > SlidingWindow.MAX_COUNT || config.getMaxAttemptsPerEmail() > SlidingWindow.MAX_COUNT) {
+            throw new IllegalArgumentException("Login throttle limits must not exceed " + SlidingWindow.MAX_COUNT);
+        }
+        this.enabled = config.isEnabled();
+        this.windowNanos = config.getWindow().toNanos();
+        this.retryAfterSeconds = Math.max(1, config.getWindow().toSeconds());
+        this.maxAttemptsPerIp = config.getMaxAttemptsPerIp();
+        this.maxAttemptsPerEmail = config.getMaxAttemptsPerEmail();
+        this.ticker = ticker;
+        this.ipWindows = newWindows(config, ticker);
+        this.emailWindows = newWindows(config, ticker);
+        this.ipRejected = Counter.builder("login.throttle.rejected")
+                .description("Login and registration attempts rejected by the throttle")
+                .tag("key", "ip")
+                .register(meterRegistry);
+        this.emailRejected = Counter.builder("login.throttle.rejected")
+                .description("Login and registration attempts rejected by the throttle")
+                .tag("key", "email")
+                .register(meterRegistry);
+        Gauge.builder("login.throttle.keys", ipWindows, Cache::estimatedSize)
+                .description("Throttle windows kept in memory")
+                .tag("key", "ip")
+                .register(meterRegistry);
+        Gauge.builder("login.throttle.keys", emailWindows, Cache::estimatedSize)
+                .description("Throttle windows kept in memory")
+                .tag("key", "email")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Учитывает попытку входа или регистрации.
+     *
+     * @param clientIp IP-адрес клиента
+     * @param email    email, с которым выполняется попытка
+     * @throws TooManyAttemptsException если для IP-адреса или email превышено число попыток за окно
+     */
+    public void acquire(String clientIp, String email) throws TooManyAttemptsException {
+        if (!enabled) {
+            return;
+        }
+        long now = ticker.read();
+        if (clientIp != null && !tryAcquire(ipWindows, clientIp, now, maxAttemptsPerIp)) {
+            ipRejected.increment();
+            throw new TooManyAttemptsException(retryAfterSeconds);
+        }
+        if (email != null && !tryAcquire(emailWindows, email.toLowerCase(Locale.ROOT), now, maxAttemptsPerEmail)) {
+            emailRejected.increment();
+            throw new TooManyAttemptsException(retryAfterSeconds);
+        }
+    }
+
+    private boolean tryAcquire(Cache<String, SlidingWindow> windows, String key, long now, int limit) {
+        return windows.get(key, k -> new SlidingWindow()).tryAcquire(now, windowNanos, limit);
+    }
+
+    private static Cache<String, SlidingWindow> newWindows(LoginThrottleConfig config, Ticker ticker) {
+        return Caffeine.newBuilder()
+                .maximumSize(config.getMaxKeys())
+                .expireAfterAccess(config.getWindow().multipliedBy(2))
+                .ticker(ticker)
+                .build();
+    }
+
+    /**
+     * Счётчик скользящего окна: число попыток в текущем фиксированном окне плюс доля попыток
+     * предыдущего окна, пропорциональная ещё не истёкшей его части.
+     * Номер окна и оба счётчика упакованы в один long, поэтому обновление - одна CAS-операция без блокировок.
+     */
+    static final class SlidingWindow {
+        static final int MAX_COUNT = 0xFFFF;
+
+        private final AtomicLong state = new AtomicLong();
+
+        boolean tryAcquire(long now, long windowNanos, int limit) {
+            long window = Math.floorDiv(now, windowNanos);
+            double elapsed = (double) Math.floorMod(now, windowNanos) / windowNanos;
+            int windowIndex = (int) window;
+            while (true) {
+                long current = state.get();
+                int stateWindow = (int) (current >>> 32);
+                int previousCount = (int) ((current >>> 16) & MAX_COUNT);
+                int currentCount = (int) (current & MAX_COUNT);
+                if (stateWindow != windowIndex) {
+                    previousCount = stateWindow == windowIndex - 1 ? currentCount : 0;
+                    currentCount = 0;
+                }
+                if (previousCount * (1 - elapsed) + currentCount >= limit) {
+                    return false;
+                }
+                long next = ((long) windowIndex << 32) | ((long) previousCount << 16) | (currentCount + 1);
+                if (state.compareAndSet(current, next)) {
+                    return true;
+                }
+            }
+        }
+    }
+}
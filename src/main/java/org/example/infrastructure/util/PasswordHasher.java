@@ -0,0 +1,125 @@
+package org.example.infrastructure.util;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.example.core.util.PasswordManager;
+import org.example.exceptions.ServiceOverloadedException;
+import org.example.infrastructure.configs.PasswordHashConfig;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Хэширование паролей в отдельном ограниченном пуле потоков.
+ * PBKDF2 занимает процессор на десятки миллисекунд, поэтому всплеск входов не должен занимать
+ * все потоки сервера: число одновременно хэширующих потоков ограничено пулом, а ожидающие
+ * запросы - очередью. Если очередь заполнена, запрос сразу отклоняется {@link ServiceOverloadedException}.
+ */
+@Component
+public class PasswordHasher implements DisposableBean {
+
+    private final ThreadPoolExecutor executor;
+    private final Timer hashTimer;
+    private final Counter rejected;
+
+    @Autowired
+    public PasswordHasher(PasswordHashConfig config, ObjectProvider<MeterRegistry> meterRegistry) {
+        this(config, meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+
+    PasswordHasher(PasswordHashConfig config, MeterRegistry meterRegistry) {
+        int threads = config.getThreadCount();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(config.getQueueCapacity()), new HashThreadFactory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.hashTimer = Timer.builder("password.hash.duration")
+                .description("Time spent hashing a password")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("password.hash.rejected")
+                .description("Hash requests rejected because the queue was full")
+                .register(meterRegistry);
+        Gauge.builder("password.hash.queue.size", executor, pool -> pool.getQueue().size())
+                .description("Hash requests waiting for a thread")
+                .register(meterRegistry);
+        Gauge.builder("password.hash.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Hash requests being computed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Хэширует пароль.
+     *
+     * @param password пароль
+     * @return хэш пароля или null, если алгоритм хэширования недоступен
+     * @throws ServiceOverloadedException если очередь хэширования заполнена
+     */
+    public String hash(String password) throws ServiceOverloadedException {
+        return submit(() -> PasswordManager.getPasswordHash(password));
+    }
+
+    /**
+     * Проверяет, что пароль соответствует сохранённому хэшу.
+     * Хэши сравниваются за время, не зависящее от позиции первого различия.
+     *
+     * @param password     пароль
+     * @param passwordHash сохранённый хэш пароля
+     * @return true, если пароль верный
+     * @throws ServiceOverloadedException если очередь хэширования заполнена
+     */
+    public boolean matches(String password, String passwordHash) throws ServiceOverloadedException {
+        String hash = hash(password);
+        return hash != null && MessageDigest.isEqual(
+                passwordHash.getBytes(StandardCharsets.UTF_8), hash.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    String submit(Callable<String> task) throws ServiceOverloadedException {
+        Future<String> future;
+        try {
+            future = executor.submit(() -> hashTimer.recordCallable(task));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ServiceOverloadedException();
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServiceOverloadedException();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private static final class HashThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "password-hash-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
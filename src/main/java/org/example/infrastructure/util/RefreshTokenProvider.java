@@ -0,0 +1,56 @@
+package org.example.infrastructure.util;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Утилита для работы с токенами обновления.
+ * Токен обновления - случайная строка без данных пользователя; в базе хранится только его SHA-256 хэш,
+ * поэтому для проверки токена достаточно одного поиска по индексу без дорогого хэширования пароля.
+ */
+@Component
+public class RefreshTokenProvider {
+    private static final int TOKEN_BYTES = 32;
+
+    private final SecureRandom random = new SecureRandom();
+    private final Duration ttl;
+
+    public RefreshTokenProvider(@Value("${jwt.refresh.ttl:30d}") Duration ttl) {
+        this.ttl = ttl;
+    }
+
+    /**
+     * Генерирует новый токен обновления.
+     *
+     * @return токен обновления в Base64 без заполнения
+     */
+    public String generate() {
+        byte[] token = new byte[TOKEN_BYTES];
+        random.nextBytes(token);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token);
+    }
+
+    /**
+     * Вычисляет хэш токена обновления для хранения и поиска в базе.
+     *
+     * @param refreshToken токен обновления
+     * @return SHA-256 хэш токена
+     */
+    public String hash(String refreshToken) {
+        return JwtProvider.digest(refreshToken);
+    }
+
+    /**
+     * Возвращает момент истечения токена, выданного сейчас.
+     *
+     * @return момент истечения токена
+     */
+    public Instant getExpiration() {
+        return Instant.now().plus(ttl);
+    }
+}
@@ -0,0 +1,33 @@
+package org.example.infrastructure.util;
+
+import com.example.cache_aspect_starter.util.PrincipalResolver;
+import jakarta.servlet.http.HttpServletRequest;
+import org.example.core.models.UserPrincipal;
+import org.example.infrastructure.filters.JwtAuthenticationFilter;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Передаёт кэшу ответов пользователя, уже проверенного {@link JwtAuthenticationFilter},
+ * чтобы ответы кэшировались отдельно для каждого пользователя.
+ * Администратор может изменять привычки и отметки других пользователей, поэтому его ответы не кэшируются,
+ * а его изменения удаляют закэшированные ответы всех пользователей.
+ */
+@Component
+public class RequestPrincipalResolver implements PrincipalResolver {
+
+    @Override
+    public Optional<String> resolvePrincipal(HttpServletRequest request) {
+        if (request.getAttribute(JwtAuthenticationFilter.PRINCIPAL_ATTRIBUTE) instanceof UserPrincipal principal) {
+            return Optional.of(String.valueOf(principal.getUserId()));
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public boolean isPrivileged(HttpServletRequest request) {
+        return request.getAttribute(JwtAuthenticationFilter.PRINCIPAL_ATTRIBUTE) instanceof UserPrincipal principal
+                && principal.isAdmin();
+    }
+}
@@ -0,0 +1,25 @@
+package org.example.infrastructure.util;
+
+import com.example.audit_aspect_starter.util.UserIdResolver;
+import jakarta.servlet.http.HttpServletRequest;
+import org.example.core.models.UserPrincipal;
+import org.example.infrastructure.filters.JwtAuthenticationFilter;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Передаёт аудиту идентификатор пользователя, уже проверенного {@link JwtAuthenticationFilter},
+ * чтобы токен не разбирался повторно.
+ */
+@Component
+public class RequestUserIdResolver implements UserIdResolver {
+
+    @Override
+    public Optional<Integer> resolveUserId(HttpServletRequest request) {
+        if (request.getAttribute(JwtAuthenticationFilter.PRINCIPAL_ATTRIBUTE) instanceof UserPrincipal principal) {
+            return Optional.of(principal.getUserId());
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,152 @@
+package org.example.infrastructure.util;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Единица работы одного HTTP-запроса.
+ * Лениво берёт из пула одно соединение при первом обращении к базе и отдаёт его всем репозиториям
+ * до конца запроса. Для читающих запросов соединение работает в транзакции только на чтение,
+ * а загруженные строки складываются в карту идентичности, чтобы повторное чтение той же сущности
+ * в рамках запроса не ходило в базу.
+ * Каждое получение соединения в транзакции на чтение ограничено точкой сохранения: репозитории
+ * не пробрасывают SQLException, и без отката до точки сохранения первая ошибка оставила бы
+ * транзакцию прерванной, а все следующие чтения запроса молча вернули бы пустой результат.
+ * Живёт в одном потоке, поэтому не синхронизирована.
+ */
+class UnitOfWork {
+
+    private final DataSource dataSource;
+    private final boolean readOnly;
+    private final Map<IdentityKey, Object> identityMap = new HashMap<>();
+
+    private Connection connection;
+    private Connection sharedConnection;
+
+    UnitOfWork(DataSource dataSource, boolean readOnly) {
+        this.dataSource = dataSource;
+        this.readOnly = readOnly;
+    }
+
+    /**
+     * Возвращает соединение единицы работы, при первом вызове беря его из пула.
+     * Закрытие возвращённого соединения не возвращает его в пул: это произойдёт в {@link #close()}.
+     * В транзакции на чтение закрытие освобождает точку сохранения, поставленную при получении соединения,
+     * а если транзакция прервана ошибкой - откатывается до неё.
+     */
+    Connection connection() throws SQLException {
+        if (sharedConnection == null) {
+            Connection pooled = dataSource.getConnection();
+            try {
+                if (readOnly) {
+                    pooled.setReadOnly(true);
+                    pooled.setAutoCommit(false);
+                }
+            } catch (SQLException e) {
+                pooled.close();
+                throw e;
+            }
+            connection = pooled;
+            sharedConnection = withOnClose(pooled, () -> {
+            });
+        }
+        if (!readOnly) {
+            return sharedConnection;
+        }
+        Savepoint savepoint = connection.setSavepoint();
+        Connection target = connection;
+        return withOnClose(target, () -> {
+            try {
+                target.releaseSavepoint(savepoint);
+            } catch (SQLException e) {
+                target.rollback(savepoint);
+            }
+        });
+    }
+
+    boolean isReadOnly() {
+        return readOnly;
+    }
+
+    /**
+     * Ищет сущность, уже загруженную в этом запросе. Карта ведётся только для запросов на чтение,
+     * в пишущих запросах всегда возвращается {@code null}.
+     */
+    @SuppressWarnings("unchecked")
+    <T> T getLoaded(Class<?> type, Object id) {
+        return readOnly ? (T) identityMap.get(new IdentityKey(type, id)) : null;
+    }
+
+    void registerLoaded(Class<?> type, Object id, Object entity) {
+        if (readOnly && entity != null) {
+            identityMap.put(new IdentityKey(type, id), entity);
+        }
+    }
+
+    /**
+     * Завершает единицу работы: фиксирует транзакцию на чтение, восстанавливает режим соединения
+     * и возвращает его в пул.
+     */
+    void close() throws SQLException {
+        identityMap.clear();
+        if (connection == null) {
+            return;
+        }
+        try (Connection pooled = connection) {
+            if (readOnly) {
+                try {
+                    pooled.commit();
+                } finally {
+                    pooled.setAutoCommit(true);
+                    pooled.setReadOnly(false);
+                }
+            }
+        } finally {
+            connection = null;
+            sharedConnection = null;
+        }
+    }
+
+    private static Connection withOnClose(Connection target, CloseAction onClose) {
+        boolean[] closed = new boolean[1];
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "close":
+                            if (!closed[0]) {
+                                closed[0] = true;
+                                onClose.run();
+                            }
+                            return null;
+                        case "isClosed":
+                            return target.isClosed();
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        default:
+                            try {
+                                return method.invoke(target, args);
+                            } catch (InvocationTargetException e) {
+                                throw e.getCause();
+                            }
+                    }
+                });
+    }
+
+    @FunctionalInterface
+    private interface CloseAction {
+        void run() throws SQLException;
+    }
+
+    private record IdentityKey(Class<?> type, Object id) {
+    }
+}
@@ -0,0 +1,27 @@
+package org.example;
+
+import org.example.core.services.HabitOwnershipService;
+import org.example.core.services.HabitStatisticsCache;
+import org.example.infrastructure.data.repositories.CachingHabitRepository;
+import org.example.infrastructure.data.repositories.CachingUserRepository;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.TestContext;
+import org.springframework.test.context.support.AbstractTestExecutionListener;
+
+/**
+ * Очищает кэши приложения перед каждым тестом, так как тестовые данные пересоздаются скриптами в обход сервисов.
+ */
+public class CacheResetTestExecutionListener extends AbstractTestExecutionListener {
+
+    @Override
+    public void beforeTestMethod(TestContext testContext) {
+        if (!testContext.hasApplicationContext()) {
+            return;
+        }
+        ApplicationContext context = testContext.getApplicationContext();
+        context.getBeanProvider(HabitOwnershipService.class).ifAvailable(HabitOwnershipService::invalidateAll);
+        context.getBeanProvider(HabitStatisticsCache.class).ifAvailable(HabitStatisticsCache::invalidateAll);
+        context.getBeanProvider(CachingHabitRepository.class).ifAvailable(CachingHabitRepository::invalidateAll);
+        context.getBeanProvider(CachingUserRepository.class).ifAvailable(CachingUserRepository::invalidateAll);
+    }
+}
@@ -0,0 +1,93 @@
+package org.example.aspects;
+
+import com.example.audit_aspect_starter.configs.AuditSpoolConfig;
+import com.example.audit_aspect_starter.dtos.CreateUserAuditDto;
+import com.example.audit_aspect_starter.writers.AuditSpool;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditSpoolTest {
+    @TempDir
+    private Path directory;
+    private AuditSpoolConfig config;
+
+    @BeforeEach
+    void setUp() {
+        config = new AuditSpoolConfig();
+        config.setDirectory(directory);
+        config.setSegmentSize(DataSize.ofBytes(256));
+    }
+
+    @Test
+    @DisplayName("Spooled records are read back from sealed segments in order")
+    void read_whenSegmentsAreSealed_thenRecordsAreReadInOrder() throws Exception {
+        AuditSpool auditSpool = new AuditSpool(config);
+        LocalDateTime timestamp = LocalDateTime.of(2024, 5, 1, 12, 30, 15, 123_000_000);
+        List<CreateUserAuditDto> dtos = List.of(
+                new CreateUserAuditDto(1, "/api/v1/habits", "{\"name\":\"Бег\"}", null, timestamp),
+                new CreateUserAuditDto(2, "/api/v1/users", null, "{}", timestamp),
+                new CreateUserAuditDto(3, "/api/v1/habits/1", null, null, timestamp)
+        );
+
+        auditSpool.append(dtos);
+        auditSpool.append(dtos);
+        assertThat(auditSpool.getSealedSegments()).hasSizeGreaterThan(0);
+        auditSpool.sealActiveSegment();
+
+        List<CreateUserAuditDto> spooled = auditSpool.getSealedSegments().stream()
+                .flatMap(segment -> {
+                    try {
+                        return auditSpool.read(segment).stream();
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                })
+                .toList();
+        assertThat(spooled).containsExactlyElementsOf(List.of(dtos.get(0), dtos.get(1), dtos.get(2),
+                dtos.get(0), dtos.get(1), dtos.get(2)));
+    }
+
+    @Test
+    @DisplayName("Reading stops at the first corrupted record")
+    void read_whenRecordIsCorrupted_thenPreviousRecordsAreReturned() throws Exception {
+        config.setSegmentSize(DataSize.ofKilobytes(4));
+        AuditSpool auditSpool = new AuditSpool(config);
+        LocalDateTime timestamp = LocalDateTime.of(2024, 5, 1, 12, 30);
+        auditSpool.append(List.of(
+                new CreateUserAuditDto(1, "/uri", null, null, timestamp),
+                new CreateUserAuditDto(2, "/uri", null, null, timestamp)
+        ));
+        auditSpool.sealActiveSegment();
+        Path segment = auditSpool.getSealedSegments().get(0);
+        int recordSize = 2 * Integer.BYTES + 32;
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.seek(recordSize + 2 * Integer.BYTES);
+            file.writeInt(42);
+        }
+
+        assertThat(auditSpool.read(segment)).extracting(CreateUserAuditDto::getUserId).containsExactly(1);
+    }
+
+    @Test
+    @DisplayName("Segments left by previous run are treated as sealed")
+    void getSealedSegments_whenSpoolIsReopened_thenOldSegmentsAreSealed() throws Exception {
+        AuditSpool auditSpool = new AuditSpool(config);
+        auditSpool.append(List.of(new CreateUserAuditDto(1, "/uri", null, null, LocalDateTime.now())));
+        auditSpool.destroy();
+
+        AuditSpool reopened = new AuditSpool(config);
+
+        assertThat(reopened.getSealedSegments()).hasSize(1);
+        assertThat(reopened.hasActiveSegment()).isFalse();
+    }
+}
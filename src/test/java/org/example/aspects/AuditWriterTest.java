@@ -0,0 +1,147 @@
+package org.example.aspects;
+
+import com.example.audit_aspect_starter.configs.AuditSpoolConfig;
+import com.example.audit_aspect_starter.configs.AuditWriterConfig;
+import com.example.audit_aspect_starter.dtos.CreateUserAuditDto;
+import com.example.audit_aspect_starter.repositories.JdbcUserAuditRepository;
+import com.example.audit_aspect_starter.writers.AuditSpool;
+import com.example.audit_aspect_starter.writers.AuditWriter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.SmartLifecycle;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class AuditWriterTest {
+    @Mock
+    private JdbcUserAuditRepository jdbcUserAuditRepository;
+    @Mock
+    private AuditSpool auditSpool;
+    private AuditWriterConfig config;
+    private AuditSpoolConfig spoolConfig;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        config = new AuditWriterConfig();
+        config.setQueueCapacity(2);
+        config.setBatchSize(10);
+        config.setFlushInterval(Duration.ofMinutes(1));
+        spoolConfig = new AuditSpoolConfig();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    @DisplayName("Drop oldest policy evicts old records and counts them")
+    void submit_whenQueueIsFullAndPolicyIsDropOldest_thenOldestRecordsAreDropped() throws Exception {
+        config.setOverflowPolicy(AuditWriterConfig.OverflowPolicy.DROP_OLDEST);
+        AuditWriter auditWriter = new AuditWriter(jdbcUserAuditRepository, config, auditSpool, spoolConfig, meterRegistry);
+        List<Integer> savedUserIds = new ArrayList<>();
+        doAnswer(invocation -> {
+            List<CreateUserAuditDto> batch = invocation.getArgument(0);
+            batch.forEach(dto -> savedUserIds.add(dto.getUserId()));
+            return null;
+        }).when(jdbcUserAuditRepository).createAll(anyList());
+
+        for (int userId = 1; userId <= 5; userId++) {
+            auditWriter.submit(new CreateUserAuditDto(userId, "/uri", null, null));
+        }
+        auditWriter.start();
+        auditWriter.stop();
+
+        assertThat(auditWriter.getDroppedCount()).isEqualTo(3);
+        assertThat(savedUserIds).containsExactly(4, 5);
+    }
+
+    @Test
+    @DisplayName("Drop policy rejects new records and counts them")
+    void submit_whenQueueIsFullAndPolicyIsDrop_thenNewRecordsAreDropped() throws Exception {
+        config.setOverflowPolicy(AuditWriterConfig.OverflowPolicy.DROP);
+        AuditWriter auditWriter = new AuditWriter(jdbcUserAuditRepository, config, auditSpool, spoolConfig, meterRegistry);
+
+        for (int userId = 1; userId <= 3; userId++) {
+            auditWriter.submit(new CreateUserAuditDto(userId, "/uri", null, null));
+        }
+
+        assertThat(auditWriter.getDroppedCount()).isEqualTo(1);
+        assertThat(auditWriter.getQueueSize()).isEqualTo(2);
+        assertThat(meterRegistry.get("audit.writer.dropped").functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("audit.writer.queue.size").gauge().value()).isEqualTo(2);
+        verify(jdbcUserAuditRepository, never()).createAll(anyList());
+    }
+
+    @Test
+    @DisplayName("Spool policy writes new records to spool when queue is full")
+    void submit_whenQueueIsFullAndPolicyIsSpool_thenNewRecordsAreSpooled() {
+        config.setOverflowPolicy(AuditWriterConfig.OverflowPolicy.SPOOL);
+        AuditWriter auditWriter = new AuditWriter(jdbcUserAuditRepository, config, auditSpool, spoolConfig, meterRegistry);
+
+        for (int userId = 1; userId <= 3; userId++) {
+            auditWriter.submit(new CreateUserAuditDto(userId, "/uri", null, null));
+        }
+
+        assertThat(auditWriter.getDroppedCount()).isZero();
+        assertThat(auditWriter.getQueueSize()).isEqualTo(2);
+        verify(auditSpool).append(argThat(dtos -> dtos.size() == 1 && dtos.get(0).getUserId() == 3));
+    }
+
+    @Test
+    @DisplayName("Batch that failed to save is written to spool")
+    void flush_whenDatabaseIsUnavailable_thenBatchIsSpooled() throws Exception {
+        AuditWriter auditWriter = new AuditWriter(jdbcUserAuditRepository, config, auditSpool, spoolConfig, meterRegistry);
+        List<Integer> spooledUserIds = new ArrayList<>();
+        doThrow(SQLException.class).when(jdbcUserAuditRepository).createAll(anyList());
+        doAnswer(invocation -> {
+            List<CreateUserAuditDto> batch = invocation.getArgument(0);
+            batch.forEach(dto -> spooledUserIds.add(dto.getUserId()));
+            return null;
+        }).when(auditSpool).append(anyList());
+
+        auditWriter.submit(new CreateUserAuditDto(1, "/uri", null, null));
+        auditWriter.submit(new CreateUserAuditDto(2, "/uri", null, null));
+        auditWriter.start();
+        auditWriter.stop();
+
+        assertThat(spooledUserIds).containsExactly(1, 2);
+        assertThat(auditWriter.getDroppedCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Writer stops after the web server and saves records submitted after it stopped")
+    void submit_whenWriterStopped_thenRecordIsSavedImmediately() throws Exception {
+        AuditWriter auditWriter = new AuditWriter(jdbcUserAuditRepository, config, auditSpool, spoolConfig, meterRegistry);
+        List<List<Integer>> savedBatches = new ArrayList<>();
+        doAnswer(invocation -> {
+            List<CreateUserAuditDto> batch = invocation.getArgument(0);
+            savedBatches.add(batch.stream().map(CreateUserAuditDto::getUserId).toList());
+            return null;
+        }).when(jdbcUserAuditRepository).createAll(anyList());
+        auditWriter.submit(new CreateUserAuditDto(1, "/uri", null, null));
+        auditWriter.start();
+        auditWriter.stop();
+
+        auditWriter.submit(new CreateUserAuditDto(2, "/uri", null, null));
+
+        assertThat(savedBatches).containsExactly(List.of(1), List.of(2));
+        assertThat(auditWriter.getQueueSize()).isZero();
+        assertThat(auditWriter.getDroppedCount()).isZero();
+        assertThat(auditWriter.getPhase()).isLessThan(SmartLifecycle.DEFAULT_PHASE - 2048);
+    }
+}
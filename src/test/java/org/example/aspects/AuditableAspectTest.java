@@ -1,8 +1,8 @@
 package org.example.aspects;
 
 import com.example.audit_aspect_starter.aspects.AuditableAspect;
-import com.example.audit_aspect_starter.repositories.JdbcUserAuditRepository;
-import com.example.audit_aspect_starter.util.TokenHelper;
+import com.example.audit_aspect_starter.util.UserIdResolver;
+import com.example.audit_aspect_starter.writers.AuditWriter;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.http.HttpServletRequest;
 import org.aspectj.lang.ProceedingJoinPoint;
@@ -14,7 +14,6 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.web.bind.annotation.RequestBody;
-import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
@@ -31,9 +30,9 @@ class AuditableAspectTest {
     @Mock
     ObjectMapper mapper;
     @Mock
-    TokenHelper tokenHelper;
+    UserIdResolver userIdResolver;
     @Mock
-    private JdbcUserAuditRepository jdbcUserAuditRepository;
+    private AuditWriter auditWriter;
     @Mock
     private ProceedingJoinPoint joinPoint;
     @InjectMocks
@@ -41,29 +40,25 @@ class AuditableAspectTest {
 
     @Test
     void testAudit_whenAllDataExisted_thenCreateUserAudit() throws Throwable {
-        String token = "Bearer 123";
         String requestUri = "/test/uri";
         String requestBody = "test";
         String responseBody = "test";
         when(mapper.writeValueAsString(Mockito.anyString())).thenReturn("test");
         Method method = mock(Method.class);
 
-        Parameter headerParam = mock(Parameter.class);
-        RequestHeader headerAnnotation = mock(RequestHeader.class);
-        when(headerAnnotation.value()).thenReturn("Authorization");
-        when(headerParam.getAnnotation(RequestHeader.class)).thenReturn(headerAnnotation);
+        Parameter pathParam = mock(Parameter.class);
+        when(pathParam.getAnnotation(RequestBody.class)).thenReturn(null);
 
         Parameter bodyParam = mock(Parameter.class);
         when(bodyParam.getAnnotation(RequestBody.class)).thenReturn(mock(RequestBody.class));
-        when(bodyParam.getAnnotation(RequestHeader.class)).thenReturn(null);
 
-        when(method.getParameters()).thenReturn(new Parameter[]{headerParam, bodyParam});
+        when(method.getParameters()).thenReturn(new Parameter[]{pathParam, bodyParam});
 
         MethodSignature methodSignature = mock(MethodSignature.class);
         when(joinPoint.getSignature()).thenReturn(methodSignature);
         when(methodSignature.getMethod()).thenReturn(method);
 
-        when(joinPoint.getArgs()).thenReturn(new Object[]{token, requestBody});
+        when(joinPoint.getArgs()).thenReturn(new Object[]{1, requestBody});
         when(joinPoint.proceed()).thenReturn(responseBody);
 
         HttpServletRequest mockRequest = mock(HttpServletRequest.class);
@@ -73,12 +68,12 @@ class AuditableAspectTest {
         RequestContextHolder.setRequestAttributes(mockRequestAttributes);
 
         when(mockRequest.getRequestURI()).thenReturn(requestUri);
-        when(tokenHelper.getUserIdFromToken(token)).thenReturn(Optional.of(123));
+        when(userIdResolver.resolveUserId(mockRequest)).thenReturn(Optional.of(123));
 
         Object result = auditableAspect.audit(joinPoint);
 
-        verify(jdbcUserAuditRepository, times(1))
-                .create(argThat(argument -> argument.getUserId() == 123 &&
+        verify(auditWriter, times(1))
+                .submit(argThat(argument -> argument.getUserId() == 123 &&
                         argument.getRequestBody() != null &&
                         argument.getRequestUri().equals(requestUri) &&
                         argument.getResponseBody() != null));
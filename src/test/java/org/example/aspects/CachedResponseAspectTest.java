@@ -0,0 +1,189 @@
+package org.example.aspects;
+
+import com.example.cache_aspect_starter.annotations.CachedResponse;
+import com.example.cache_aspect_starter.annotations.EvictResponse;
+import com.example.cache_aspect_starter.aspects.CachedResponseAspect;
+import com.example.cache_aspect_starter.stores.InMemoryResponseStore;
+import com.example.cache_aspect_starter.stores.ResponseKey;
+import com.example.cache_aspect_starter.util.PrincipalResolver;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.example.core.models.Habit;
+import org.example.core.models.HabitFrequency;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CachedResponseAspectTest {
+    private static final AtomicInteger CALLS = new AtomicInteger();
+
+    private MeterRegistry meterRegistry;
+    private MockHttpServletRequest request;
+    private HabitEndpoint endpoint;
+    private List<Duration> storedTtls;
+
+    @BeforeEach
+    void setUp() {
+        CALLS.set(0);
+        meterRegistry = new SimpleMeterRegistry();
+        request = new MockHttpServletRequest();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        storedTtls = new ArrayList<>();
+        CachedResponseAspect aspect = new CachedResponseAspect(
+                new InMemoryResponseStore(100, 100) {
+                    @Override
+                    public void put(ResponseKey key, byte[] value, Duration ttl) {
+                        storedTtls.add(ttl);
+                        super.put(key, value, ttl);
+                    }
+                },
+                new AttributePrincipalResolver(),
+                new ObjectMapper().registerModule(new JavaTimeModule()),
+                meterRegistry,
+                Clock.fixed(Instant.parse("2026-10-18T23:59:50Z"), ZoneOffset.UTC)
+        );
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(new HabitEndpoint());
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAspect(aspect);
+        endpoint = proxyFactory.getProxy();
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    @DisplayName("Response is computed once per principal and key and then read from cache")
+    void cache_whenSameRequestRepeats_thenResponseIsReadFromCache() {
+        request.setAttribute("user", "1");
+
+        Habit first = endpoint.getHabit(1);
+        Habit second = endpoint.getHabit(1);
+        endpoint.getHabit(2);
+
+        assertThat(CALLS).hasValue(2);
+        assertThat(second).usingRecursiveComparison().isEqualTo(first);
+        assertThat(meterRegistry.counter("response.cache.requests", "cache", "habits", "result", "hit").count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Responses are cached separately for each principal and evicted on mutation")
+    void cache_whenOtherPrincipalOrMutation_thenResponseIsComputedAgain() {
+        request.setAttribute("user", "1");
+        endpoint.getHabit(1);
+        request.setAttribute("user", "2");
+        endpoint.getHabit(1);
+        assertThat(CALLS).hasValue(2);
+
+        endpoint.updateHabit(1);
+        endpoint.getHabit(1);
+        request.setAttribute("user", "1");
+        endpoint.getHabit(1);
+
+        assertThat(CALLS).hasValue(3);
+    }
+
+    @Test
+    @DisplayName("Anonymous requests are not cached")
+    void cache_whenPrincipalIsMissing_thenResponseIsNotCached() {
+        endpoint.getHabit(1);
+        endpoint.getHabit(1);
+
+        assertThat(CALLS).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Responses to a privileged principal are not cached")
+    void cache_whenPrincipalIsPrivileged_thenResponseIsNotCached() {
+        request.setAttribute("user", "1");
+        request.setAttribute("admin", true);
+
+        endpoint.getHabit(1);
+        endpoint.getHabit(1);
+
+        assertThat(CALLS).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Mutation by a privileged principal evicts responses of all principals")
+    void evict_whenPrincipalIsPrivileged_thenResponsesOfAllPrincipalsAreEvicted() {
+        request.setAttribute("user", "1");
+        endpoint.getHabit(1);
+        request.setAttribute("user", "2");
+        endpoint.getHabit(1);
+
+        request.setAttribute("user", "3");
+        request.setAttribute("admin", true);
+        endpoint.updateHabit(1);
+        request.removeAttribute("admin");
+        request.setAttribute("user", "1");
+        endpoint.getHabit(1);
+        request.setAttribute("user", "2");
+        endpoint.getHabit(1);
+
+        assertThat(CALLS).hasValue(4);
+    }
+
+    @Test
+    @DisplayName("Date-dependent response lives no longer than until midnight")
+    void cache_whenExpireAtMidnight_thenTtlIsCappedAtMidnight() {
+        request.setAttribute("user", "1");
+
+        endpoint.getHabit(1);
+        endpoint.getCompletionStatus(1);
+
+        assertThat(storedTtls).containsExactly(Duration.ofMinutes(1), Duration.ofSeconds(10));
+    }
+
+    static class AttributePrincipalResolver implements PrincipalResolver {
+        @Override
+        public Optional<String> resolvePrincipal(HttpServletRequest request) {
+            return Optional.ofNullable((String) request.getAttribute("user"));
+        }
+
+        @Override
+        public boolean isPrivileged(HttpServletRequest request) {
+            return request.getAttribute("admin") != null;
+        }
+    }
+
+    static class HabitEndpoint {
+        @CachedResponse(cache = "habits", key = "#habitId")
+        public Habit getHabit(int habitId) {
+            CALLS.incrementAndGet();
+            return new Habit(habitId, 1, "Drink water", "Need to drink water", HabitFrequency.DAILY, LocalDate.now());
+        }
+
+        @CachedResponse(cache = "habit-statistics", key = "#habitId", ttl = "30s", expireAtMidnight = true)
+        public boolean getCompletionStatus(int habitId) {
+            CALLS.incrementAndGet();
+            return true;
+        }
+
+        @EvictResponse(cache = "habits")
+        public void updateHabit(int habitId) {
+        }
+    }
+}
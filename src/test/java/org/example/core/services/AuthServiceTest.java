@@ -3,8 +3,11 @@ package org.example.core.services;
 import io.jsonwebtoken.Claims;
 import org.assertj.core.api.SoftAssertions;
 import org.example.core.dtos.auth_dtos.AuthDto;
+import org.example.core.dtos.auth_dtos.RefreshTokenDto;
 import org.example.core.dtos.user_dtos.AuthUserDto;
 import org.example.exceptions.InvalidEmailException;
+import org.example.exceptions.InvalidTokenException;
+import org.example.exceptions.ServiceOverloadedException;
 import org.example.exceptions.UserAlreadyExistException;
 import org.example.exceptions.UserNotFoundException;
 import org.example.infrastructure.util.JwtProvider;
@@ -19,6 +22,7 @@ import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @SpringBootTest
@@ -35,7 +39,7 @@ class AuthServiceTest {
 
     @DisplayName("Check login with correct credentials")
     @Test
-    void login_shouldGetUser_whenCredentialsIsCorrect() throws UserNotFoundException {
+    void login_shouldGetUser_whenCredentialsIsCorrect() throws UserNotFoundException, ServiceOverloadedException {
         AuthDto authDto = authService.login(new AuthUserDto("ex@mail.ru", "123"));
 
         SoftAssertions softly = new SoftAssertions();
@@ -55,7 +59,7 @@ class AuthServiceTest {
 
     @DisplayName("Check register with valid email")
     @Test
-    void register_shouldGetUser_whenEmailIsValid() throws UserAlreadyExistException, InvalidEmailException {
+    void register_shouldGetUser_whenEmailIsValid() throws UserAlreadyExistException, InvalidEmailException, ServiceOverloadedException {
         AuthDto authDto = authService.register(new AuthUserDto("newUser@mail.ru", "123"));
 
         SoftAssertions softly = new SoftAssertions();
@@ -78,4 +82,35 @@ class AuthServiceTest {
     void register_shouldThrowException_whenUserIsAlreadyExist() {
         assertThatThrownBy(() -> authService.register(new AuthUserDto("ex@mail.ru", "123"))).isInstanceOf(UserAlreadyExistException.class);
     }
-}
\ No newline at end of file
+
+    @DisplayName("Check refresh issues new tokens and the used refresh token cannot be reused")
+    @Test
+    void refresh_shouldRotateRefreshToken() throws Exception {
+        AuthDto login = authService.login(new AuthUserDto("ex@mail.ru", "123"));
+        assertThat(login.getRefreshToken()).isNotBlank();
+
+        AuthDto refreshed = authService.refresh(new RefreshTokenDto(login.getRefreshToken()));
+
+        SoftAssertions softly = new SoftAssertions();
+        softly.assertThat(refreshed.getRefreshToken()).isNotBlank().isNotEqualTo(login.getRefreshToken());
+        Claims claims = jwtProvider.getClaims(refreshed.getToken()).get();
+        softly.assertThat(claims).containsEntry("user_id", 1).containsEntry("is_admin", false);
+        softly.assertAll();
+        assertThatThrownBy(() -> authService.refresh(new RefreshTokenDto(login.getRefreshToken())))
+                .isInstanceOf(InvalidTokenException.class);
+    }
+
+    @DisplayName("Check revoke invalidates all refresh tokens of the user")
+    @Test
+    void revoke_shouldInvalidateRefreshTokens() throws Exception {
+        AuthDto first = authService.login(new AuthUserDto("ex@mail.ru", "123"));
+        AuthDto second = authService.login(new AuthUserDto("ex@mail.ru", "123"));
+
+        authService.revoke(1);
+
+        assertThatThrownBy(() -> authService.refresh(new RefreshTokenDto(first.getRefreshToken())))
+                .isInstanceOf(InvalidTokenException.class);
+        assertThatThrownBy(() -> authService.refresh(new RefreshTokenDto(second.getRefreshToken())))
+                .isInstanceOf(InvalidTokenException.class);
+    }
+}
@@ -0,0 +1,100 @@
+package org.example.core.services;
+
+import org.example.core.models.HabitTrack;
+import org.example.core.repositories.IHabitTrackRepository;
+import org.example.infrastructure.configs.CacheConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class HabitCompletionIndexTest {
+    private static final LocalDate TODAY = LocalDate.of(2026, 10, 18);
+
+    @Mock
+    private IHabitTrackRepository habitTrackRepository;
+    private AtomicLong nanos;
+    private HabitCompletionIndex habitCompletionIndex;
+
+    @BeforeEach
+    void setUp() {
+        nanos = new AtomicLong();
+        habitCompletionIndex = new HabitCompletionIndex(habitTrackRepository, new CacheConfig(), nanos::get);
+    }
+
+    private static int epochDay(LocalDate date) {
+        return (int) date.toEpochDay();
+    }
+
+    @Test
+    @DisplayName("Created and removed tracks update the loaded index without reading tracks again")
+    void onTrackCreatedAndRemoved_whenHabitIsIndexed_thenIndexIsUpdated() {
+        when(habitTrackRepository.getHabitTracks(1)).thenReturn(List.of(new HabitTrack(1, 1, TODAY.minusDays(1))));
+        habitCompletionIndex.getCompletionDays(1);
+
+        habitCompletionIndex.onTrackCreated(new HabitTrack(2, 1, TODAY));
+        assertThat(habitCompletionIndex.getCompletionDays(1).currentStreak(epochDay(TODAY), 1)).isEqualTo(2);
+
+        habitCompletionIndex.onTrackRemoved(new HabitTrack(1, 1, TODAY.minusDays(1)));
+        assertThat(habitCompletionIndex.getCompletionDays(1).contains(epochDay(TODAY.minusDays(1)))).isFalse();
+        assertThat(habitCompletionIndex.getCompletionDays(1).size()).isEqualTo(1);
+
+        verify(habitTrackRepository, times(1)).getHabitTracks(1);
+    }
+
+    @Test
+    @DisplayName("Tracks of a habit that is not indexed are read when the habit is first requested")
+    void onTrackCreated_whenHabitIsNotIndexed_thenIndexIsLoadedLater() {
+        habitCompletionIndex.onTrackCreated(new HabitTrack(1, 1, TODAY));
+        when(habitTrackRepository.getHabitTracks(1)).thenReturn(List.of(
+                new HabitTrack(1, 1, TODAY), new HabitTrack(2, 1, TODAY.minusDays(3))));
+
+        assertThat(habitCompletionIndex.getCompletionDays(1).size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Habits missing from the index are loaded with one batch query")
+    void getCompletionDays_whenSomeHabitsAreIndexed_thenOnlyMissingAreLoaded() {
+        when(habitTrackRepository.getHabitTracks(1)).thenReturn(List.of(new HabitTrack(1, 1, TODAY)));
+        when(habitTrackRepository.getHabitTracks(List.of(2))).thenReturn(Map.of(2, List.of()));
+        habitCompletionIndex.getCompletionDays(1);
+
+        var completionDays = habitCompletionIndex.getCompletionDays(List.of(1, 2));
+
+        assertThat(completionDays).containsOnlyKeys(1, 2);
+        assertThat(completionDays.get(1).contains(epochDay(TODAY))).isTrue();
+        assertThat(completionDays.get(2).isEmpty()).isTrue();
+        verify(habitTrackRepository, never()).getHabitTracks(List.of(1, 2));
+    }
+
+    @Test
+    @DisplayName("Evicted habit and expired entries are read from the repository again")
+    void getCompletionDays_whenEvictedOrExpired_thenIndexIsReloaded() {
+        when(habitTrackRepository.getHabitTracks(anyInt())).thenReturn(List.of(new HabitTrack(1, 1, TODAY)));
+        habitCompletionIndex.getCompletionDays(1);
+
+        habitCompletionIndex.evictHabit(1);
+        habitCompletionIndex.getCompletionDays(1);
+        habitCompletionIndex.onTrackCreated(new HabitTrack(2, 1, TODAY.plusDays(1)));
+        nanos.addAndGet(Duration.ofMinutes(10).toNanos());
+        habitCompletionIndex.getCompletionDays(1);
+
+        verify(habitTrackRepository, times(3)).getHabitTracks(1);
+    }
+}
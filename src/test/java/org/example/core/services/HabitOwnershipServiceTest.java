@@ -0,0 +1,101 @@
+package org.example.core.services;
+
+import org.example.core.repositories.IHabitRepository;
+import org.example.infrastructure.configs.CacheConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class HabitOwnershipServiceTest {
+    @Mock
+    private IHabitRepository habitRepository;
+    private CacheConfig cacheConfig;
+
+    @BeforeEach
+    void setUp() {
+        cacheConfig = new CacheConfig();
+    }
+
+    @Test
+    @DisplayName("Ownership is checked against the index loaded once per user")
+    void isOwner_whenUserIsIndexed_thenRepositoryIsQueriedOnce() {
+        HabitOwnershipService habitOwnershipService = new HabitOwnershipService(habitRepository, cacheConfig);
+        when(habitRepository.getHabitIdsByUserId(1)).thenReturn(new int[]{1, 2, 3});
+
+        assertThat(habitOwnershipService.isOwner(1, 2)).isTrue();
+        assertThat(habitOwnershipService.isOwner(1, 3)).isTrue();
+
+        verify(habitRepository, times(1)).getHabitIdsByUserId(1);
+        verify(habitRepository, never()).existsByIdAndUserId(anyInt(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Habit missing from the index is checked with EXISTS query and indexed if found")
+    void isOwner_whenHabitIsMissingFromIndex_thenExistsQueryIsUsed() {
+        HabitOwnershipService habitOwnershipService = new HabitOwnershipService(habitRepository, cacheConfig);
+        when(habitRepository.getHabitIdsByUserId(1)).thenReturn(new int[]{1});
+        when(habitRepository.existsByIdAndUserId(4, 1)).thenReturn(true);
+        when(habitRepository.existsByIdAndUserId(5, 1)).thenReturn(false);
+
+        assertThat(habitOwnershipService.isOwner(1, 5)).isFalse();
+        assertThat(habitOwnershipService.isOwner(1, 5)).isFalse();
+        assertThat(habitOwnershipService.isOwner(1, 4)).isTrue();
+        assertThat(habitOwnershipService.isOwner(1, 4)).isTrue();
+
+        verify(habitRepository, times(2)).existsByIdAndUserId(5, 1);
+        verify(habitRepository, times(1)).existsByIdAndUserId(4, 1);
+    }
+
+    @Test
+    @DisplayName("Created and removed habits are reflected in the index")
+    void isOwner_whenHabitsAreCreatedAndRemoved_thenIndexIsUpdated() {
+        HabitOwnershipService habitOwnershipService = new HabitOwnershipService(habitRepository, cacheConfig);
+        when(habitRepository.getHabitIdsByUserId(1)).thenReturn(new int[0]);
+
+        assertThat(habitOwnershipService.isOwner(1, 5)).isFalse();
+        habitOwnershipService.onHabitCreated(1, 5);
+        assertThat(habitOwnershipService.isOwner(1, 5)).isTrue();
+        habitOwnershipService.onHabitRemoved(1, 5);
+        assertThat(habitOwnershipService.isOwner(1, 5)).isFalse();
+
+        verify(habitRepository, times(1)).getHabitIdsByUserId(1);
+    }
+
+    @Test
+    @DisplayName("Users with too many habits are checked with EXISTS query")
+    void isOwner_whenUserHasTooManyHabits_thenExistsQueryIsUsed() {
+        cacheConfig.getOwnership().setMaxHabitsPerUser(2);
+        HabitOwnershipService habitOwnershipService = new HabitOwnershipService(habitRepository, cacheConfig);
+        when(habitRepository.getHabitIdsByUserId(1)).thenReturn(new int[]{1, 2, 3});
+        when(habitRepository.existsByIdAndUserId(3, 1)).thenReturn(true);
+
+        assertThat(habitOwnershipService.isOwner(1, 3)).isTrue();
+
+        verify(habitRepository).existsByIdAndUserId(3, 1);
+    }
+
+    @Test
+    @DisplayName("Failed index load falls back to EXISTS query and is retried later")
+    void isOwner_whenIndexLoadFails_thenExistsQueryIsUsed() {
+        HabitOwnershipService habitOwnershipService = new HabitOwnershipService(habitRepository, cacheConfig);
+        when(habitRepository.getHabitIdsByUserId(1)).thenReturn(null, new int[]{7});
+        when(habitRepository.existsByIdAndUserId(7, 1)).thenReturn(true);
+
+        assertThat(habitOwnershipService.isOwner(1, 7)).isTrue();
+        assertThat(habitOwnershipService.isOwner(1, 7)).isTrue();
+
+        verify(habitRepository, times(1)).existsByIdAndUserId(7, 1);
+        verify(habitRepository, times(2)).getHabitIdsByUserId(1);
+    }
+}
@@ -4,10 +4,8 @@ import org.assertj.core.api.SoftAssertions;
 import org.example.core.dtos.habit_dtos.CreateHabitDto;
 import org.example.core.dtos.habit_dtos.UpdateHabitDto;
 import org.example.core.models.HabitFrequency;
-import org.example.core.models.User;
+import org.example.core.models.UserPrincipal;
 import org.example.exceptions.HabitNotFoundException;
-import org.example.exceptions.InvalidTokenException;
-import org.example.infrastructure.util.JwtProvider;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -18,6 +16,7 @@ import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.Period;
 import java.util.Map;
@@ -36,15 +35,13 @@ class HabitServiceTest {
     @Autowired
     HabitTrackService habitTrackService;
 
-    @Autowired
-    JwtProvider jwtProvider;
-    private String testTokenForUser1;
-    private String testTokenForUser2;
+    private UserPrincipal testPrincipalForUser1;
+    private UserPrincipal testPrincipalForUser2;
 
     @BeforeEach
     void setUp() {
-        testTokenForUser1 = "Bearer " + jwtProvider.generateAccessToken(new User(1, "ex@mail.ru", "password", false));
-        testTokenForUser2 = "Bearer " + jwtProvider.generateAccessToken(new User(2, "admin", "password", true));
+        testPrincipalForUser1 = new UserPrincipal(1, false, Instant.now().plusSeconds(300));
+        testPrincipalForUser2 = new UserPrincipal(2, true, Instant.now().plusSeconds(300));
     }
 
 
@@ -58,9 +55,9 @@ class HabitServiceTest {
 
     @DisplayName("Check create habit")
     @Test
-    void createHabit_shouldAddHabitInDb_whenAllIsCorrect() throws InvalidTokenException {
+    void createHabit_shouldAddHabitInDb_whenAllIsCorrect() {
         habitService.createUserHabit(
-                testTokenForUser2, new CreateHabitDto(
+                testPrincipalForUser2, new CreateHabitDto(
                         2,
                         "testName",
                         "testDescription",
@@ -133,14 +130,14 @@ class HabitServiceTest {
 
     @DisplayName("Check remove habits and their tracks")
     @Test
-    void removeHabitAndTracks_shouldRemoveHabitAndTheirTracksInDb() throws HabitNotFoundException, InvalidTokenException {
+    void removeHabitAndTracks_shouldRemoveHabitAndTheirTracksInDb() throws HabitNotFoundException {
         habitService.removeUserHabit(1, 3);
         var userHabits = habitService.getUserHabits(1);
 
 
         SoftAssertions softly = new SoftAssertions();
         softly.assertThat(userHabits).isNotNull().hasSize(2);
-        softly.assertThatThrownBy(() -> habitTrackService.getHabitTracks(testTokenForUser1, 3))
+        softly.assertThatThrownBy(() -> habitTrackService.getHabitTracks(testPrincipalForUser1, 3))
                 .isInstanceOf(HabitNotFoundException.class);
         softly.assertAll();
     }
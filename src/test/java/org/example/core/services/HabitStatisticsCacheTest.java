@@ -0,0 +1,169 @@
+package org.example.core.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.core.models.HabitFrequency;
+import org.example.core.models.HabitStatistics;
+import org.example.core.repositories.IHabitRepository;
+import org.example.core.repositories.IHabitStatisticsRepository;
+import org.example.infrastructure.configs.CacheConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class HabitStatisticsCacheTest {
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2026-10-18T23:00:00Z"), ZoneOffset.UTC);
+    private static final LocalDate TODAY = LocalDate.now(CLOCK);
+
+    @Mock
+    private IHabitStatisticsRepository habitStatisticsRepository;
+    @Mock
+    private IHabitRepository habitRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private AtomicLong nanos;
+    private Queue<Runnable> refreshes;
+    private HabitStatisticsCache habitStatisticsCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        nanos = new AtomicLong();
+        refreshes = new ArrayDeque<>();
+        habitStatisticsCache = new HabitStatisticsCache(habitStatisticsRepository, habitRepository, new CacheConfig(),
+                meterRegistry, CLOCK, nanos::get, refreshes::add);
+    }
+
+    private static HabitStatistics statistics(int trackCount) {
+        return new HabitStatistics(1, HabitFrequency.DAILY, TODAY, trackCount, TODAY, true, trackCount, trackCount);
+    }
+
+    private void advance(Duration duration) {
+        nanos.addAndGet(duration.toNanos());
+    }
+
+    @Test
+    @DisplayName("Statistics are loaded once and served from cache")
+    void getHabitStatistics_whenCached_thenRepositoryIsQueriedOnce() {
+        when(habitStatisticsRepository.getStatisticsByHabitId(1, TODAY)).thenReturn(statistics(1));
+
+        habitStatisticsCache.getHabitStatistics(1);
+        assertThat(habitStatisticsCache.getHabitStatistics(1).getTrackCount()).isEqualTo(1);
+
+        verify(habitStatisticsRepository, times(1)).getStatisticsByHabitId(1, TODAY);
+    }
+
+    @Test
+    @DisplayName("Stale statistics are returned immediately and refreshed in background")
+    void getHabitStatistics_whenStale_thenOldValueIsReturnedAndRefreshed() {
+        when(habitStatisticsRepository.getStatisticsByHabitId(1, TODAY)).thenReturn(statistics(1), statistics(2));
+        habitStatisticsCache.getHabitStatistics(1);
+
+        advance(Duration.ofSeconds(31));
+
+        assertThat(habitStatisticsCache.getHabitStatistics(1).getTrackCount()).isEqualTo(1);
+        refreshes.forEach(Runnable::run);
+        assertThat(habitStatisticsCache.getHabitStatistics(1).getTrackCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Statistics expire at midnight")
+    void getUserStatistics_whenDayRollsOver_thenStatisticsAreReloaded() {
+        when(habitStatisticsRepository.getStatisticsByUserId(1, TODAY)).thenReturn(List.of(statistics(1)));
+        habitStatisticsCache.getUserStatistics(1);
+
+        advance(Duration.ofMinutes(59));
+        habitStatisticsCache.getUserStatistics(1);
+        refreshes.clear();
+        verify(habitStatisticsRepository, times(1)).getStatisticsByUserId(1, TODAY);
+
+        advance(Duration.ofMinutes(2));
+        habitStatisticsCache.getUserStatistics(1);
+        verify(habitStatisticsRepository, times(2)).getStatisticsByUserId(1, TODAY);
+    }
+
+    @Test
+    @DisplayName("Changed habit is reloaded for the habit and its owner")
+    void onHabitChanged_whenHabitChanges_thenStatisticsAreReloaded() {
+        when(habitStatisticsRepository.getStatisticsByHabitId(1, TODAY)).thenReturn(statistics(1), statistics(2));
+        when(habitStatisticsRepository.getStatisticsByUserId(1, TODAY)).thenReturn(List.of(statistics(1)));
+        habitStatisticsCache.getHabitStatistics(1);
+        habitStatisticsCache.getUserStatistics(1);
+
+        habitStatisticsCache.onHabitChanged(1, 1);
+
+        assertThat(habitStatisticsCache.getHabitStatistics(1).getTrackCount()).isEqualTo(2);
+        habitStatisticsCache.getUserStatistics(1);
+        verify(habitStatisticsRepository, times(2)).getStatisticsByUserId(1, TODAY);
+    }
+
+    @Test
+    @DisplayName("Cache metrics are registered in the injected registry")
+    void getHabitStatistics_whenLoaded_thenMissIsRecordedInRegistry() {
+        when(habitStatisticsRepository.getStatisticsByHabitId(1, TODAY)).thenReturn(statistics(1));
+
+        habitStatisticsCache.getHabitStatistics(1);
+        habitStatisticsCache.getHabitStatistics(1);
+
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "habits.statistics.by-habit-id").tag("result", "miss")
+                .functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "habits.statistics.by-habit-id").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Concurrent requests for the same habit share one load and are counted as coalesced")
+    void getHabitStatistics_whenLoadIsInProgress_thenCallerWaitsForIt() throws Exception {
+        CountDownLatch loadStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoad = new CountDownLatch(1);
+        when(habitStatisticsRepository.getStatisticsByHabitId(1, TODAY)).thenAnswer(invocation -> {
+            loadStarted.countDown();
+            releaseLoad.await();
+            return statistics(1);
+        });
+
+        CompletableFuture<HabitStatistics> first = CompletableFuture.supplyAsync(() -> habitStatisticsCache.getHabitStatistics(1));
+        loadStarted.await();
+        CompletableFuture<HabitStatistics> second = CompletableFuture.supplyAsync(() -> habitStatisticsCache.getHabitStatistics(1));
+        while (meterRegistry.counter("habits.statistics.coalesced", "scope", "habit").count() == 0) {
+            Thread.onSpinWait();
+        }
+        releaseLoad.countDown();
+
+        assertThat(second.get()).isSameAs(first.get());
+        verify(habitStatisticsRepository, times(1)).getStatisticsByHabitId(1, TODAY);
+        assertThat(meterRegistry.counter("habits.statistics.coalesced", "scope", "habit").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Cached and background-refreshed statistics are not counted as coalesced")
+    void getHabitStatistics_whenServedFromCache_thenNothingIsCoalesced() {
+        when(habitStatisticsRepository.getStatisticsByHabitId(1, TODAY)).thenReturn(statistics(1), statistics(2));
+        habitStatisticsCache.getHabitStatistics(1);
+        advance(Duration.ofSeconds(31));
+        habitStatisticsCache.getHabitStatistics(1);
+        refreshes.forEach(Runnable::run);
+        habitStatisticsCache.getHabitStatistics(1);
+
+        assertThat(meterRegistry.counter("habits.statistics.coalesced", "scope", "habit").count()).isZero();
+    }
+}
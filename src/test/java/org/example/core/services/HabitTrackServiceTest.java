@@ -1,10 +1,8 @@
 package org.example.core.services;
 
 import org.assertj.core.api.SoftAssertions;
-import org.example.core.models.User;
+import org.example.core.models.UserPrincipal;
 import org.example.exceptions.HabitNotFoundException;
-import org.example.exceptions.InvalidTokenException;
-import org.example.infrastructure.util.JwtProvider;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -15,6 +13,7 @@ import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.time.Instant;
 import java.time.LocalDate;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -27,23 +26,21 @@ class HabitTrackServiceTest {
     @Autowired
     HabitTrackService habitTrackService;
 
-    @Autowired
-    JwtProvider jwtProvider;
-    private String testToken;
+    private UserPrincipal testPrincipal;
 
     @BeforeEach
     void setUp() {
-        testToken = "Bearer " + jwtProvider.generateAccessToken(new User(1, "ex@mail.ru", "password", false));
+        testPrincipal = new UserPrincipal(1, false, Instant.now().plusSeconds(300));
     }
 
 
     @DisplayName("Check after completeHabit execute HabitTrack was created")
     @Test
-    void completeHabit_shouldCreateHabitTrackInMemory_whenExecuteCompleteHabitMethod() throws InvalidTokenException, HabitNotFoundException {
-        habitTrackService.completeHabit(testToken, 2);
+    void completeHabit_shouldCreateHabitTrackInMemory_whenExecuteCompleteHabitMethod() throws HabitNotFoundException {
+        habitTrackService.completeHabit(testPrincipal, 2);
 
         SoftAssertions softly = new SoftAssertions();
-        var tracks = habitTrackService.getHabitTracks(testToken, 2);
+        var tracks = habitTrackService.getHabitTracks(testPrincipal, 2);
         softly.assertThat(tracks).hasSize(1);
         var track = tracks.get(0);
         softly.assertThat(track.getHabitId()).isEqualTo(2);
@@ -51,10 +48,19 @@ class HabitTrackServiceTest {
         softly.assertAll();
     }
 
+    @DisplayName("Check that repeated completeHabit on the same day keeps one track")
+    @Test
+    void completeHabit_whenCalledTwice_shouldKeepOneTrack() throws HabitNotFoundException {
+        habitTrackService.completeHabit(testPrincipal, 2);
+        habitTrackService.completeHabit(testPrincipal, 2);
+
+        assertThat(habitTrackService.getHabitTracks(testPrincipal, 2)).hasSize(1);
+    }
+
     @DisplayName("Check that getHabitTracks return all habit tracks")
     @Test
-    void getHabitTracks_shouldReturnAllHabitTracks() throws InvalidTokenException, HabitNotFoundException {
-        var tracks = habitTrackService.getHabitTracks(testToken, 3);
+    void getHabitTracks_shouldReturnAllHabitTracks() throws HabitNotFoundException {
+        var tracks = habitTrackService.getHabitTracks(testPrincipal, 3);
 
         assertThat(tracks)
                 .isNotNull()
@@ -65,10 +71,10 @@ class HabitTrackServiceTest {
 
     @DisplayName("Check that removeHabitTracks remove all habit tracks")
     @Test
-    void removeHabitTracks_shouldRemoveHabitFromMemory() throws InvalidTokenException, HabitNotFoundException {
-        habitTrackService.removeUserHabitTracks(testToken, 2);
+    void removeHabitTracks_shouldRemoveHabitFromMemory() throws HabitNotFoundException {
+        habitTrackService.removeUserHabitTracks(testPrincipal, 2);
 
-        var tracks = habitTrackService.getHabitTracks(testToken, 2);
+        var tracks = habitTrackService.getHabitTracks(testPrincipal, 2);
         assertThat(tracks)
                 .isNotNull()
                 .isEmpty();
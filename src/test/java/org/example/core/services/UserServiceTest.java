@@ -6,6 +6,8 @@ import org.example.core.dtos.user_dtos.ChangeAdminStatusDto;
 import org.example.core.dtos.user_dtos.UpdateUserDto;
 import org.example.core.util.PasswordManager;
 import org.example.exceptions.InvalidEmailException;
+import org.example.exceptions.ServiceOverloadedException;
+import org.example.exceptions.UserAlreadyExistException;
 import org.example.exceptions.UserNotFoundException;
 import org.example.infrastructure.util.JwtProvider;
 import org.junit.jupiter.api.DisplayName;
@@ -36,7 +38,7 @@ class UserServiceTest {
 
     @DisplayName("Check that create successfully create user")
     @Test
-    void create_shouldCreateUser() throws UserNotFoundException {
+    void create_shouldCreateUser() throws UserNotFoundException, UserAlreadyExistException {
         userService.create(new AuthUserDto("test@mail.ru", "123"));
 
         var user = userService.getUserByEmail("test@mail.ru");
@@ -80,7 +82,7 @@ class UserServiceTest {
 
     @DisplayName("Check update user working is correct")
     @Test
-    void update_shouldUpdateUser_whenEmailIsCorrectAndUserExist() throws UserNotFoundException, InvalidEmailException {
+    void update_shouldUpdateUser_whenEmailIsCorrectAndUserExist() throws UserNotFoundException, InvalidEmailException, ServiceOverloadedException {
         userService.update(1, new UpdateUserDto("new@mail.ru", "1234"));
 
         assertThatThrownBy(() -> userService.getUserByEmail("ex@mail.ru")).isInstanceOf(UserNotFoundException.class);
@@ -0,0 +1,97 @@
+package org.example.core.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompletionDaysTest {
+    private static final int DAILY = 1;
+    private static final int WEEKLY = 7;
+    private static final int TODAY = day(2026, 10, 18);
+
+    private static int day(int year, int month, int dayOfMonth) {
+        return (int) LocalDate.of(year, month, dayOfMonth).toEpochDay();
+    }
+
+    @Test
+    @DisplayName("Days are added and removed across word boundaries without losing other days")
+    void withAndWithout_whenDaysSpanSeveralWords_thenOtherDaysAreKept() {
+        CompletionDays days = CompletionDays.of(TODAY)
+                .with(TODAY - 64)
+                .with(TODAY + 64)
+                .with(TODAY - 1)
+                .with(TODAY);
+
+        assertThat(days.size()).isEqualTo(4);
+        assertThat(days.contains(TODAY - 64)).isTrue();
+        assertThat(days.contains(TODAY - 63)).isFalse();
+        assertThat(days.contains(TODAY + 64)).isTrue();
+        assertThat(days.last()).isEqualTo(TODAY + 64);
+
+        CompletionDays removed = days.without(TODAY + 64).without(TODAY - 2);
+
+        assertThat(removed.size()).isEqualTo(3);
+        assertThat(removed.last()).isEqualTo(TODAY);
+        assertThat(removed.previous(TODAY - 2)).isEqualTo(TODAY - 64);
+        assertThat(removed.next(TODAY - 63)).isEqualTo(TODAY - 1);
+        assertThat(days.contains(TODAY + 64)).isTrue();
+        assertThat(removed.without(TODAY).without(TODAY - 1).without(TODAY - 64).isEmpty()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Search finds days at the first and last bit of a word")
+    void previousAndNext_whenDayIsOnWordEdge_thenItIsFound() {
+        int firstBit = Math.floorDiv(TODAY, 64) * 64;
+        CompletionDays days = CompletionDays.of(firstBit, firstBit + 63);
+
+        assertThat(days.previous(firstBit + 62)).isEqualTo(firstBit);
+        assertThat(days.previous(firstBit - 1)).isEqualTo(CompletionDays.NONE);
+        assertThat(days.next(firstBit + 1)).isEqualTo(firstBit + 63);
+        assertThat(days.next(firstBit + 64)).isEqualTo(CompletionDays.NONE);
+        assertThat(days.previous(Integer.MAX_VALUE)).isEqualTo(firstBit + 63);
+        assertThat(CompletionDays.of().last()).isEqualTo(CompletionDays.NONE);
+    }
+
+    @Test
+    @DisplayName("Habit is complete only while the last completion is inside the current period")
+    void isCompleteAt_whenPeriodEnds_thenHabitIsNotComplete() {
+        CompletionDays days = CompletionDays.of(TODAY - 1);
+
+        assertThat(days.isCompleteAt(TODAY - 1, DAILY)).isTrue();
+        assertThat(days.isCompleteAt(TODAY, DAILY)).isFalse();
+        assertThat(days.isCompleteAt(TODAY + 5, WEEKLY)).isTrue();
+        assertThat(days.isCompleteAt(TODAY + 6, WEEKLY)).isFalse();
+        assertThat(days.isCompleteAt(TODAY - 2, DAILY)).isFalse();
+        assertThat(CompletionDays.of().isCompleteAt(TODAY, DAILY)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Deadline is one period after the last completion or after creation")
+    void deadline_whenHabitHasNoCompletions_thenCountsFromCreation() {
+        int dayOfCreation = day(2026, 10, 1);
+
+        assertThat(CompletionDays.of().deadline(dayOfCreation, WEEKLY)).isEqualTo(day(2026, 10, 8));
+        assertThat(CompletionDays.of(TODAY - 3, TODAY).deadline(dayOfCreation, DAILY)).isEqualTo(TODAY + 1);
+    }
+
+    @Test
+    @DisplayName("Streak continues while completions are at most one period apart")
+    void streaks_whenGapExceedsPeriod_thenStreakIsBroken() {
+        CompletionDays daily = CompletionDays.of(TODAY - 70, TODAY - 65, TODAY - 64, TODAY - 63, TODAY - 62,
+                TODAY - 2, TODAY - 1, TODAY);
+
+        assertThat(daily.currentStreak(TODAY, DAILY)).isEqualTo(3);
+        assertThat(daily.currentStreak(TODAY + 1, DAILY)).isZero();
+        assertThat(daily.longestStreak(DAILY)).isEqualTo(4);
+
+        CompletionDays weekly = CompletionDays.of(TODAY - 22, TODAY - 14, TODAY - 7, TODAY);
+
+        assertThat(weekly.currentStreak(TODAY, WEEKLY)).isEqualTo(3);
+        assertThat(weekly.longestStreak(WEEKLY)).isEqualTo(3);
+        assertThat(weekly.currentStreak(TODAY + 7, WEEKLY)).isZero();
+        assertThat(CompletionDays.of().longestStreak(DAILY)).isZero();
+    }
+}
@@ -0,0 +1,20 @@
+package org.example.exceptions;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DomainExceptionTest {
+
+    @Test
+    @DisplayName("Domain exceptions do not capture a stack trace")
+    void newException_thenStackTraceIsEmpty() {
+        assertThat(new UserNotFoundException().getStackTrace()).isEmpty();
+        assertThat(new HabitNotFoundException().getStackTrace()).isEmpty();
+        assertThat(new UserAlreadyExistException("User with ex@mail.ru already exist"))
+                .hasMessage("User with ex@mail.ru already exist")
+                .extracting(Throwable::getStackTrace)
+                .satisfies(stackTrace -> assertThat(stackTrace).isEmpty());
+    }
+}
@@ -5,13 +5,18 @@ import jakarta.validation.Validation;
 import jakarta.validation.Validator;
 import jakarta.validation.ValidatorFactory;
 import org.example.core.dtos.auth_dtos.AuthDto;
+import org.example.core.dtos.auth_dtos.RefreshTokenDto;
 import org.example.core.dtos.user_dtos.AuthUserDto;
 import org.example.core.services.AuthService;
 import org.example.exceptions.InvalidEmailException;
+import org.example.exceptions.InvalidTokenException;
+import org.example.exceptions.ServiceOverloadedException;
+import org.example.exceptions.TooManyAttemptsException;
 import org.example.exceptions.UserAlreadyExistException;
 import org.example.exceptions.UserNotFoundException;
 import org.example.infrastructure.exception_handlers.GlobalExceptionHandler;
 import org.example.infrastructure.exception_handlers.UserExceptionHandler;
+import org.example.infrastructure.util.LoginThrottle;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -39,6 +44,9 @@ class AuthControllerTest {
     @Mock
     private AuthService authService;
 
+    @Mock
+    private LoginThrottle loginThrottle;
+
     @InjectMocks
     private AuthController authController;
 
@@ -88,6 +96,40 @@ class AuthControllerTest {
         verify(authService, times(1)).login(authUserDto);
     }
 
+    @Test
+    @DisplayName("When login attempts are throttled then return Too Many Requests without calling the service")
+    void login_whenThrottled_thenReturnTooManyRequests() throws Exception {
+        AuthUserDto authUserDto = new AuthUserDto("test@mail.ru", "password");
+
+        doThrow(new TooManyAttemptsException(60)).when(loginThrottle).acquire(anyString(), eq("test@mail.ru"));
+
+        mockMvc.perform(post("/api/v1/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(authUserDto))
+                        .characterEncoding(StandardCharsets.UTF_8))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "60"))
+                .andExpect(jsonPath("$.error").value("Too many attempts. Try later"));
+
+        verifyNoInteractions(authService);
+    }
+
+    @Test
+    @DisplayName("When password hashing is overloaded then return Service Unavailable with Retry-After")
+    void login_whenHashingOverloaded_thenReturnServiceUnavailable() throws Exception {
+        AuthUserDto authUserDto = new AuthUserDto("test@mail.ru", "password");
+
+        when(authService.login(authUserDto)).thenThrow(ServiceOverloadedException.class);
+
+        mockMvc.perform(post("/api/v1/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(authUserDto))
+                        .characterEncoding(StandardCharsets.UTF_8))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.error").value("Service is overloaded. Try later"));
+    }
+
     @Test
     @DisplayName("When user register with valid data then return Auth Dto")
     void register_whenValidData_thenReturnAuthDto() throws Exception {
@@ -166,4 +208,35 @@ class AuthControllerTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(content().json(expectedJson));
     }
+
+    @Test
+    @DisplayName("When refresh with valid refresh token then return new tokens")
+    void refresh_whenValidRefreshToken_thenReturnAuthDto() throws Exception {
+        RefreshTokenDto refreshTokenDto = new RefreshTokenDto("refresh");
+
+        when(authService.refresh(refreshTokenDto)).thenReturn(new AuthDto("1", "new-refresh"));
+
+        mockMvc.perform(post("/api/v1/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(refreshTokenDto))
+                        .characterEncoding(StandardCharsets.UTF_8))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").value("1"))
+                .andExpect(jsonPath("$.refreshToken").value("new-refresh"));
+    }
+
+    @Test
+    @DisplayName("When refresh with used or unknown refresh token then return Unauthorized")
+    void refresh_whenInvalidRefreshToken_thenReturnUnauthorized() throws Exception {
+        RefreshTokenDto refreshTokenDto = new RefreshTokenDto("refresh");
+
+        when(authService.refresh(refreshTokenDto)).thenThrow(InvalidTokenException.class);
+
+        mockMvc.perform(post("/api/v1/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(refreshTokenDto))
+                        .characterEncoding(StandardCharsets.UTF_8))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.error").value("User is not authorized or token is invalid"));
+    }
 }
@@ -9,6 +9,8 @@ import org.example.core.models.User;
 import org.example.core.services.HabitService;
 import org.example.infrastructure.exception_handlers.GlobalExceptionHandler;
 import org.example.infrastructure.exception_handlers.HabitExceptionHandler;
+import org.example.infrastructure.filters.JwtAuthenticationFilter;
+import org.example.infrastructure.resolvers.UserPrincipalArgumentResolver;
 import org.example.infrastructure.util.JwtProvider;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -27,6 +29,8 @@ import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -45,9 +49,11 @@ class HabitControllerTest {
     void setUp() {
         JwtProvider jwtProvider = new JwtProvider("a2V5a2V5a2V5a2V5a2V5a2V5a2V5a2V5a2V5a2V5a2V5a2V5a2V5a2V5");
         testToken = "Bearer " + jwtProvider.generateAccessToken(new User(1, "ex@mail.ru", "password", false));
-        HabitController habitController = new HabitController(habitService, jwtProvider);
+        HabitController habitController = new HabitController(habitService);
         mockMvc = MockMvcBuilders.standaloneSetup(habitController)
                 .setControllerAdvice(new HabitExceptionHandler(), new GlobalExceptionHandler())
+                .addFilters(new JwtAuthenticationFilter(jwtProvider))
+                .setCustomArgumentResolvers(new UserPrincipalArgumentResolver())
                 .build();
     }
 
@@ -125,7 +131,7 @@ class HabitControllerTest {
                 .andDo(print())
                 .andExpect(status().isCreated());
 
-        verify(habitService).createUserHabit(testToken, dto);
+        verify(habitService).createUserHabit(argThat(principal -> principal.getUserId() == 1), eq(dto));
     }
 
     @Test
@@ -7,6 +7,8 @@ import org.example.exceptions.HabitNotFoundException;
 import org.example.exceptions.HabitTrackNotFoundException;
 import org.example.infrastructure.exception_handlers.HabitExceptionHandler;
 import org.example.infrastructure.exception_handlers.HabitTrackExceptionHandler;
+import org.example.infrastructure.filters.JwtAuthenticationFilter;
+import org.example.infrastructure.resolvers.UserPrincipalArgumentResolver;
 import org.example.infrastructure.util.JwtProvider;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -23,6 +25,8 @@ import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.List;
 
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
@@ -43,6 +47,8 @@ class HabitTrackControllerTest {
         testToken = "Bearer " + jwtProvider.generateAccessToken(new User(1, "ex@mail.ru", "password", false));
         mockMvc = MockMvcBuilders.standaloneSetup(habitTrackController)
                 .setControllerAdvice(new HabitExceptionHandler(), new HabitTrackExceptionHandler())
+                .addFilters(new JwtAuthenticationFilter(jwtProvider))
+                .setCustomArgumentResolvers(new UserPrincipalArgumentResolver())
                 .build();
     }
 
@@ -76,7 +82,7 @@ class HabitTrackControllerTest {
                 ]
                 """;
 
-        when(habitTrackService.getHabitTracks(testToken, 1)).thenReturn(tracks);
+        when(habitTrackService.getHabitTracks(argThat(principal -> principal.getUserId() == 1), eq(1))).thenReturn(tracks);
 
         mockMvc.perform(get("/api/v1/tracks/by-habit-id/1")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -86,7 +92,7 @@ class HabitTrackControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().json(expectedJson));
 
-        verify(habitTrackService).getHabitTracks(testToken, 1);
+        verify(habitTrackService).getHabitTracks(argThat(principal -> principal.getUserId() == 1), eq(1));
     }
 
     @Test
@@ -131,7 +137,7 @@ class HabitTrackControllerTest {
     @Test
     @DisplayName("Should return not found when habit not found while fetching habit tracks")
     void getHabitTracks_whenUserIsNotUserHabit_thenReturnNotFound() throws Exception {
-        doThrow(HabitNotFoundException.class).when(habitTrackService).getHabitTracks(testToken, 1);
+        doThrow(HabitNotFoundException.class).when(habitTrackService).getHabitTracks(argThat(principal -> principal.getUserId() == 1), eq(1));
 
         mockMvc.perform(get("/api/v1/tracks/by-habit-id/1")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -141,13 +147,13 @@ class HabitTrackControllerTest {
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.error").value("Habit not found"));
 
-        verify(habitTrackService).getHabitTracks(testToken, 1);
+        verify(habitTrackService).getHabitTracks(argThat(principal -> principal.getUserId() == 1), eq(1));
     }
 
     @Test
     @DisplayName("Should return not found when habit not found while removing habit tracks")
     void removeHabitTracks_whenUserIsNotAuthorized_thenReturnNotFound() throws Exception {
-        doThrow(HabitNotFoundException.class).when(habitTrackService).removeUserHabitTracks(testToken, 1);
+        doThrow(HabitNotFoundException.class).when(habitTrackService).removeUserHabitTracks(argThat(principal -> principal.getUserId() == 1), eq(1));
 
         mockMvc.perform(delete("/api/v1/tracks/by-habit-id/1")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -157,13 +163,13 @@ class HabitTrackControllerTest {
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.error").value("Habit not found"));
 
-        verify(habitTrackService).removeUserHabitTracks(testToken, 1);
+        verify(habitTrackService).removeUserHabitTracks(argThat(principal -> principal.getUserId() == 1), eq(1));
     }
 
     @Test
     @DisplayName("Should return bad request when habit track not found while removing track")
     void removeTrack_whenUserIsNotUserHabitTrack_thenReturnNotFound() throws Exception {
-        doThrow(HabitTrackNotFoundException.class).when(habitTrackService).remove(testToken, 1);
+        doThrow(HabitTrackNotFoundException.class).when(habitTrackService).remove(argThat(principal -> principal.getUserId() == 1), eq(1));
 
         mockMvc.perform(delete("/api/v1/tracks/1")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -173,13 +179,13 @@ class HabitTrackControllerTest {
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.error").value("Habit track not found"));
 
-        verify(habitTrackService).remove(testToken, 1);
+        verify(habitTrackService).remove(argThat(principal -> principal.getUserId() == 1), eq(1));
     }
 
     @Test
     @DisplayName("Should return not found when habit not found while completing habit")
     void completeHabit_whenUserIsNotUserHabit_thenReturnNotFound() throws Exception {
-        doThrow(HabitNotFoundException.class).when(habitTrackService).completeHabit(testToken, 1);
+        doThrow(HabitNotFoundException.class).when(habitTrackService).completeHabit(argThat(principal -> principal.getUserId() == 1), eq(1));
 
         mockMvc.perform(post("/api/v1/tracks/complete-habit/1")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -189,6 +195,6 @@ class HabitTrackControllerTest {
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.error").value("Habit not found"));
 
-        verify(habitTrackService).completeHabit(testToken, 1);
+        verify(habitTrackService).completeHabit(argThat(principal -> principal.getUserId() == 1), eq(1));
     }
 }
@@ -8,6 +8,8 @@ import org.example.core.models.User;
 import org.example.core.services.UserService;
 import org.example.infrastructure.data.mappers.UserMapper;
 import org.example.infrastructure.exception_handlers.UserExceptionHandler;
+import org.example.infrastructure.filters.JwtAuthenticationFilter;
+import org.example.infrastructure.resolvers.UserPrincipalArgumentResolver;
 import org.example.infrastructure.util.JwtProvider;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -46,9 +48,11 @@ class UserControllerTest {
     void setUp() {
         JwtProvider jwtProvider = new JwtProvider("a2V5a2V5a2V5a2V5a2V5a2V5a2V5a2V5a2V5a2V5a2V5a2V5a2V5a2V5");
         test_token = "Bearer " + jwtProvider.generateAccessToken(new User(1, "ex@mail.ru", "password", false));
-        userController = new UserController(userMapper, userService, jwtProvider);
+        userController = new UserController(userMapper, userService);
         mockMvc = MockMvcBuilders.standaloneSetup(userController)
                 .setControllerAdvice(new UserExceptionHandler())
+                .addFilters(new JwtAuthenticationFilter(jwtProvider))
+                .setCustomArgumentResolvers(new UserPrincipalArgumentResolver())
                 .build();
     }
 
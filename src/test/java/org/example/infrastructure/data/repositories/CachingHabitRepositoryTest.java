@@ -0,0 +1,93 @@
+package org.example.infrastructure.data.repositories;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.core.dtos.habit_dtos.CreateHabitDto;
+import org.example.core.dtos.habit_dtos.UpdateHabitDto;
+import org.example.core.models.Habit;
+import org.example.core.models.HabitFrequency;
+import org.example.core.repositories.IHabitRepository;
+import org.example.infrastructure.configs.CacheConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CachingHabitRepositoryTest {
+    @Mock
+    private IHabitRepository delegate;
+    private CachingHabitRepository habitRepository;
+
+    @BeforeEach
+    void setUp() {
+        habitRepository = new CachingHabitRepository(
+                delegate,
+                new CacheConfig(),
+                new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class)
+        );
+    }
+
+    private static Habit habit(int id, String name) {
+        return new Habit(id, 1, name, "description", HabitFrequency.DAILY, LocalDate.now());
+    }
+
+    @Test
+    @DisplayName("Habit list is loaded once and then served from cache")
+    void getAllHabitsByUserId_whenListIsCached_thenDelegateIsQueriedOnce() {
+        when(delegate.getAllHabitsByUserId(1)).thenReturn(List.of(habit(1, "Drink water")));
+
+        habitRepository.getAllHabitsByUserId(1);
+        var habits = habitRepository.getAllHabitsByUserId(1);
+
+        assertThat(habits).extracting(Habit::getId).containsExactly(1);
+        assertThat(habitRepository.existsByIdAndUserId(1, 1)).isTrue();
+        assertThat(habitRepository.getHabitIdsByUserId(1)).containsExactly(1);
+        verify(delegate, times(1)).getAllHabitsByUserId(1);
+    }
+
+    @Test
+    @DisplayName("Created, updated and removed habits are written through to the cached list")
+    void getAllHabitsByUserId_whenHabitsChange_thenCachedListIsUpdated() {
+        when(delegate.getAllHabitsByUserId(1)).thenReturn(List.of(habit(1, "Drink water")));
+        when(delegate.create(any())).thenReturn(habit(2, "Walk"));
+        when(delegate.updateForUser(1, 1, new UpdateHabitDto("Drink tea", "description", "WEEKLY"))).thenReturn(1);
+        when(delegate.removeForUser(2, 1)).thenReturn(1);
+        habitRepository.getAllHabitsByUserId(1);
+
+        habitRepository.create(new CreateHabitDto(1, "Walk", "description", "DAILY"));
+        assertThat(habitRepository.getAllHabitsByUserId(1)).extracting(Habit::getId).containsExactly(1, 2);
+
+        habitRepository.updateForUser(1, 1, new UpdateHabitDto("Drink tea", "description", "WEEKLY"));
+        assertThat(habitRepository.getAllHabitsByUserId(1).get(0))
+                .extracting(Habit::getName, Habit::getFrequency)
+                .containsExactly("Drink tea", HabitFrequency.WEEKLY);
+
+        habitRepository.removeForUser(2, 1);
+        assertThat(habitRepository.getAllHabitsByUserId(1)).extracting(Habit::getId).containsExactly(1);
+        verify(delegate, times(1)).getAllHabitsByUserId(1);
+    }
+
+    @Test
+    @DisplayName("Empty list is cached only when the user really has no habits")
+    void getAllHabitsByUserId_whenLoadFails_thenEmptyListIsNotCached() {
+        when(delegate.getAllHabitsByUserId(1)).thenReturn(List.of());
+        when(delegate.getHabitIdsByUserId(1)).thenReturn(null);
+
+        habitRepository.getAllHabitsByUserId(1);
+        habitRepository.getAllHabitsByUserId(1);
+
+        verify(delegate, times(4)).getAllHabitsByUserId(1);
+    }
+}
@@ -0,0 +1,105 @@
+package org.example.infrastructure.data.repositories;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.core.dtos.user_dtos.AuthUserDto;
+import org.example.core.dtos.user_dtos.ChangeAdminStatusDto;
+import org.example.core.models.User;
+import org.example.core.repositories.IUserRepository;
+import org.example.exceptions.UserNotFoundException;
+import org.example.infrastructure.configs.CacheConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CachingUserRepositoryTest {
+    @Mock
+    private IUserRepository delegate;
+    @Mock
+    private CachingHabitRepository habitRepository;
+    private MeterRegistry meterRegistry;
+    private CachingUserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        userRepository = new CachingUserRepository(
+                delegate,
+                habitRepository,
+                new CacheConfig(),
+                new StaticListableBeanFactory(Map.of("meterRegistry", meterRegistry)).getBeanProvider(MeterRegistry.class)
+        );
+    }
+
+    @Test
+    @DisplayName("Created user is cached, and a taken email is not")
+    void create_whenUserIsCreated_thenLookupsDoNotHitDelegate() {
+        User user = new User(4, "new@mail.ru", "hash", false);
+        when(delegate.create(any())).thenReturn(Optional.of(user)).thenReturn(Optional.empty());
+
+        assertThat(userRepository.create(new AuthUserDto("new@mail.ru", "hash"))).containsSame(user);
+        assertThat(userRepository.findByEmail("new@mail.ru")).containsSame(user);
+        assertThat(userRepository.create(new AuthUserDto("new@mail.ru", "hash"))).isEmpty();
+        assertThat(userRepository.findByEmail("new@mail.ru")).containsSame(user);
+
+        verify(delegate, times(0)).findByEmail("new@mail.ru");
+    }
+
+    @Test
+    @DisplayName("User loaded by email is served from cache by id and by email")
+    void getByEmail_whenUserIsLoaded_thenNextLookupsDoNotHitDelegate() throws UserNotFoundException {
+        User user = new User(1, "ex@mail.ru", "hash", false);
+        when(delegate.getByEmail("ex@mail.ru")).thenReturn(user);
+
+        assertThat(userRepository.getByEmail("ex@mail.ru")).isSameAs(user);
+        assertThat(userRepository.getByEmail("ex@mail.ru")).isSameAs(user);
+        assertThat(userRepository.getById(1)).isSameAs(user);
+
+        verify(delegate, times(1)).getByEmail("ex@mail.ru");
+        verify(delegate, times(0)).getById(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "users.by-id").tag("result", "hit").functionCounter().count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Changing admin status evicts the cached user")
+    void changeUserAdminStatus_whenUserIsCached_thenUserIsReloaded() throws UserNotFoundException {
+        when(delegate.getById(1))
+                .thenReturn(new User(1, "ex@mail.ru", "hash", false))
+                .thenReturn(new User(1, "ex@mail.ru", "hash", true));
+        when(delegate.changeUserAdminStatus(anyInt(), any())).thenReturn(1);
+
+        assertThat(userRepository.getById(1).isAdmin()).isFalse();
+        userRepository.changeUserAdminStatus(1, new ChangeAdminStatusDto(true));
+
+        assertThat(userRepository.getById(1).isAdmin()).isTrue();
+        verify(delegate, times(2)).getById(1);
+    }
+
+    @Test
+    @DisplayName("Missing users are not cached")
+    void getById_whenUserIsMissing_thenDelegateIsQueriedEveryTime() throws UserNotFoundException {
+        when(delegate.getById(2)).thenThrow(new UserNotFoundException());
+
+        assertThatThrownBy(() -> userRepository.getById(2)).isInstanceOf(UserNotFoundException.class);
+        assertThatThrownBy(() -> userRepository.getById(2)).isInstanceOf(UserNotFoundException.class);
+
+        verify(delegate, times(2)).getById(2);
+    }
+}
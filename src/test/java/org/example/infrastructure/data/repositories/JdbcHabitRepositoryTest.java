@@ -75,4 +75,12 @@ class JdbcHabitRepositoryTest {
 
         assertThat(removedHabit).isNull();
     }
+
+    @Test
+    @DisplayName("Should find habit by id or return empty")
+    void findHabitById_shouldReturnHabitOrEmpty() {
+        assertThat(habitRepository.findHabitById(3))
+                .hasValueSatisfying(habit -> assertThat(habit.getFrequency()).isEqualTo(HabitFrequency.WEEKLY));
+        assertThat(habitRepository.findHabitById(100)).isEmpty();
+    }
 }
@@ -0,0 +1,89 @@
+package org.example.infrastructure.data.repositories;
+
+import org.example.core.models.HabitStatistics;
+import org.example.exceptions.HabitNotFoundException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+@TestPropertySource(value = "classpath:application.yml")
+@Sql(value = {"classpath:test_sql_scripts/remove-all-data.sql", "classpath:test_sql_scripts/insert-test-data.sql"})
+class JdbcHabitStatisticsRepositoryTest {
+
+    @Autowired
+    private JdbcHabitStatisticsRepository habitStatisticsRepository;
+
+    @Autowired
+    private JdbcHabitTrackRepository habitTrackRepository;
+
+    @DisplayName("Check that getStatisticsByUserId returns statistics for every user habit")
+    @Test
+    void getStatisticsByUserId_shouldReturnStatisticsForAllHabits() {
+        var statistics = habitStatisticsRepository.getStatisticsByUserId(1, LocalDate.now());
+
+        assertThat(statistics).extracting(HabitStatistics::getHabitId).containsExactly(1, 2, 3);
+        assertThat(statistics).extracting(HabitStatistics::getTrackCount).containsExactly(1, 0, 3);
+        assertThat(statistics).extracting(HabitStatistics::isComplete).containsExactly(true, false, true);
+        assertThat(statistics).extracting(HabitStatistics::getCurrentStreak).containsExactly(1, 0, 3);
+    }
+
+    @DisplayName("Check that streak is reset when habit is not completed in current period")
+    @Test
+    void getStatisticsByHabitId_shouldReturnZeroStreak_whenHabitIsNotComplete() {
+        var statistics = habitStatisticsRepository.getStatisticsByHabitId(3, LocalDate.now().plusWeeks(2));
+
+        assertThat(statistics).isNotNull();
+        assertThat(statistics.getTrackCount()).isEqualTo(3);
+        assertThat(statistics.getLastCompleteDate()).isEqualTo(LocalDate.now());
+        assertThat(statistics.isComplete()).isFalse();
+        assertThat(statistics.getCurrentStreak()).isZero();
+    }
+
+    @DisplayName("Check that creating habit track updates stored statistics")
+    @Test
+    void create_shouldUpdateStatistics() throws HabitNotFoundException {
+        habitTrackRepository.create(2);
+
+        var statistics = habitStatisticsRepository.getStatisticsByHabitId(2, LocalDate.now());
+
+        assertThat(statistics.getTrackCount()).isEqualTo(1);
+        assertThat(statistics.getLastCompleteDate()).isEqualTo(LocalDate.now());
+        assertThat(statistics.isComplete()).isTrue();
+        assertThat(statistics.getCurrentStreak()).isEqualTo(1);
+        assertThat(statistics.getLongestStreak()).isEqualTo(1);
+    }
+
+    @DisplayName("Check that removing habit track recalculates stored statistics")
+    @Test
+    void remove_shouldRecalculateStatistics() {
+        habitTrackRepository.remove(3);
+
+        var statistics = habitStatisticsRepository.getStatisticsByHabitId(3, LocalDate.now());
+
+        assertThat(statistics.getTrackCount()).isEqualTo(2);
+        assertThat(statistics.getCurrentStreak()).isEqualTo(1);
+        assertThat(statistics.getLongestStreak()).isEqualTo(1);
+    }
+
+    @DisplayName("Check that rebuildAll restores statistics from habit tracks")
+    @Test
+    void rebuildAll_shouldRestoreStatisticsFromTracks() {
+        var expected = habitStatisticsRepository.getStatisticsByUserId(1, LocalDate.now());
+
+        assertThat(habitStatisticsRepository.rebuildAll()).isEqualTo(3);
+        assertThat(habitStatisticsRepository.getStatisticsByUserId(1, LocalDate.now()))
+                .usingRecursiveFieldByFieldElementComparator()
+                .isEqualTo(expected);
+    }
+}
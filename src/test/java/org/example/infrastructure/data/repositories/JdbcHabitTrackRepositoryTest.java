@@ -1,5 +1,7 @@
 package org.example.infrastructure.data.repositories;
 
+import org.example.core.models.HabitTrack;
+import org.example.exceptions.HabitNotFoundException;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -10,8 +12,10 @@ import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import java.time.LocalDate;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @SpringBootTest
 @ExtendWith(SpringExtension.class)
@@ -23,9 +27,12 @@ class JdbcHabitTrackRepositoryTest {
     @Autowired
     private JdbcHabitTrackRepository habitTrackRepository;
 
+    @Autowired
+    private JdbcHabitStatisticsRepository habitStatisticsRepository;
+
     @DisplayName("Check that create habit working correctly")
     @Test
-    void create_shouldCreateHabitTrackInDb() {
+    void create_shouldCreateHabitTrackInDb() throws HabitNotFoundException {
         habitTrackRepository.create(2);
 
         var tracks = habitTrackRepository.getHabitTracks(2);
@@ -47,6 +54,39 @@ class JdbcHabitTrackRepositoryTest {
                 .allMatch(habitTrack -> habitTrack.getHabitId() == 3);
     }
 
+    @DisplayName("Check that getHabitTracks by several habit ids returns tracks grouped by habit")
+    @Test
+    void getHabitTracks_byHabitIds_shouldReturnTracksOfEveryHabit() {
+        var tracks = habitTrackRepository.getHabitTracks(List.of(1, 2, 3, 100));
+
+        assertThat(tracks).containsOnlyKeys(1, 2, 3, 100);
+        assertThat(tracks.get(1)).hasSize(1);
+        assertThat(tracks.get(2)).isEmpty();
+        assertThat(tracks.get(3))
+                .hasSize(3)
+                .allMatch(habitTrack -> habitTrack.getHabitId() == 3);
+        assertThat(tracks.get(100)).isEmpty();
+    }
+
+    @DisplayName("Check that getUserHabitTracks returns tracks of all user habits")
+    @Test
+    void getUserHabitTracks_shouldReturnTracksOfAllUserHabits() {
+        var tracks = habitTrackRepository.getUserHabitTracks(1);
+
+        assertThat(tracks).containsOnlyKeys(1, 2, 3);
+        assertThat(tracks.get(2)).isEmpty();
+        assertThat(tracks.get(3)).hasSize(3);
+        assertThat(habitTrackRepository.getUserHabitTracks(3)).isEmpty();
+    }
+
+    @DisplayName("Check that findHabitTrackById returns track or empty")
+    @Test
+    void findHabitTrackById_shouldReturnTrackOrEmpty() {
+        assertThat(habitTrackRepository.findHabitTrackById(2))
+                .hasValueSatisfying(track -> assertThat(track.getHabitId()).isEqualTo(3));
+        assertThat(habitTrackRepository.findHabitTrackById(100)).isEmpty();
+    }
+
     @DisplayName("Check that remove habit working correctly")
     @Test
     void removeAllByHabitId_shouldRemoveHabitFromDb() {
@@ -56,6 +96,10 @@ class JdbcHabitTrackRepositoryTest {
         assertThat(tracks)
                 .isNotNull()
                 .isEmpty();
+        var statistics = habitStatisticsRepository.getStatisticsByHabitId(3, LocalDate.now());
+        assertThat(statistics.getTrackCount()).isZero();
+        assertThat(statistics.getCurrentStreak()).isZero();
+        assertThat(statistics.getLongestStreak()).isZero();
     }
 
     @DisplayName("Check that remove habit track working correctly")
@@ -69,4 +113,38 @@ class JdbcHabitTrackRepositoryTest {
         assertThat(tracks).allMatch(habitTrack -> habitTrack.getId() != 1);
 
     }
-}
\ No newline at end of file
+
+    @DisplayName("Check that createForUser creates track only for habit owner")
+    @Test
+    void createForUser_shouldCreateHabitTrackOnlyForOwner() throws HabitNotFoundException {
+        assertThatThrownBy(() -> habitTrackRepository.createForUser(2, 2)).isInstanceOf(HabitNotFoundException.class);
+        assertThat(habitTrackRepository.createForUser(2, 1)).map(HabitTrack::getCompleteDate).hasValue(LocalDate.now());
+
+        assertThat(habitTrackRepository.getHabitTracks(2)).hasSize(1);
+    }
+
+    @DisplayName("Check that repeated create on the same day does not create another track")
+    @Test
+    void create_whenHabitAlreadyCompletedToday_shouldNotCreateTrack() throws HabitNotFoundException {
+        assertThat(habitTrackRepository.create(2)).isPresent();
+        assertThat(habitTrackRepository.create(2)).isEmpty();
+        assertThat(habitTrackRepository.createForUser(2, 1)).isEmpty();
+
+        assertThat(habitTrackRepository.getHabitTracks(2)).hasSize(1);
+    }
+
+    @DisplayName("Check that create for non-existent habit throws exception")
+    @Test
+    void create_whenHabitNotExists_shouldThrowException() {
+        assertThatThrownBy(() -> habitTrackRepository.create(100)).isInstanceOf(HabitNotFoundException.class);
+    }
+
+    @DisplayName("Check that removeForUser removes track only for habit owner")
+    @Test
+    void removeForUser_shouldRemoveHabitTrackOnlyForOwner() {
+        assertThat(habitTrackRepository.removeForUser(1, 2)).isEmpty();
+        assertThat(habitTrackRepository.removeForUser(1, 1)).map(HabitTrack::getId).hasValue(1);
+
+        assertThat(habitTrackRepository.getHabitTracks(1)).isEmpty();
+    }
+}
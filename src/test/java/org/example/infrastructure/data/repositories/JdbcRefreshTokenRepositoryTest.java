@@ -0,0 +1,56 @@
+package org.example.infrastructure.data.repositories;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+@TestPropertySource(value = "classpath:application.yml")
+@Sql(value = {"classpath:test_sql_scripts/remove-all-data.sql", "classpath:test_sql_scripts/insert-test-data.sql"})
+class JdbcRefreshTokenRepositoryTest {
+    private final Instant tomorrow = Instant.now().plus(1, ChronoUnit.DAYS);
+
+    @Autowired
+    private JdbcRefreshTokenRepository refreshTokenRepository;
+
+    @DisplayName("Check rotate consumes the token once and stores the new one")
+    @Test
+    void rotate_shouldConsumeTokenOnce() {
+        refreshTokenRepository.create(1, "first", tomorrow);
+
+        assertThat(refreshTokenRepository.rotate("first", "second", tomorrow)).contains(1);
+        assertThat(refreshTokenRepository.rotate("first", "third", tomorrow)).isEmpty();
+        assertThat(refreshTokenRepository.rotate("second", "third", tomorrow)).contains(1);
+    }
+
+    @DisplayName("Check expired token cannot be rotated")
+    @Test
+    void rotate_shouldIgnoreExpiredToken() {
+        refreshTokenRepository.create(1, "expired", Instant.now().minusSeconds(1));
+
+        assertThat(refreshTokenRepository.rotate("expired", "new", tomorrow)).isEmpty();
+    }
+
+    @DisplayName("Check remove all revokes only tokens of the user")
+    @Test
+    void removeAllByUserId_shouldRevokeUserTokens() {
+        refreshTokenRepository.create(1, "first", tomorrow);
+        refreshTokenRepository.create(1, "second", tomorrow);
+        refreshTokenRepository.create(2, "other", tomorrow);
+
+        assertThat(refreshTokenRepository.removeAllByUserId(1)).isEqualTo(2);
+        assertThat(refreshTokenRepository.rotate("first", "new", tomorrow)).isEmpty();
+        assertThat(refreshTokenRepository.rotate("other", "new", tomorrow)).contains(2);
+    }
+}
@@ -41,6 +41,33 @@ class JdbcUserRepositoryTest {
         softly.assertAll();
     }
 
+    @DisplayName("Check create does not create user with already registered email")
+    @Test
+    void create_shouldReturnEmpty_whenEmailAlreadyExist() {
+        assertThat(userRepository.create(new AuthUserDto("ex@mail.ru", "123"))).isEmpty();
+
+        assertThat(userRepository.getAll()).hasSize(3);
+    }
+
+    @DisplayName("Check create returns created user")
+    @Test
+    void create_shouldReturnCreatedUser() {
+        var user = userRepository.create(new AuthUserDto("test@mail.ru", "123"));
+
+        assertThat(user).hasValueSatisfying(created -> {
+            assertThat(created.getId()).isEqualTo(4);
+            assertThat(created.getEmail()).isEqualTo("test@mail.ru");
+            assertThat(created.isAdmin()).isFalse();
+        });
+    }
+
+    @DisplayName("Check findByEmail returns empty if user not exist")
+    @Test
+    void findByEmail_shouldReturnEmpty_whenUserNotExist() {
+        assertThat(userRepository.findByEmail("test@test")).isEmpty();
+        assertThat(userRepository.findByEmail("ex@mail.ru")).hasValueSatisfying(user -> assertThat(user.getId()).isEqualTo(1));
+    }
+
     @DisplayName("Check getByEmail working correctly")
     @Test
     void getByEmail_shouldReturnUser_whenUserExist() throws UserNotFoundException {
@@ -64,6 +91,13 @@ class JdbcUserRepositoryTest {
         softly.assertAll();
     }
 
+    @DisplayName("Check findById returns empty if user not exist")
+    @Test
+    void findById_shouldReturnEmpty_whenUserNotExist() {
+        assertThat(userRepository.findById(2)).hasValueSatisfying(user -> assertThat(user.isAdmin()).isTrue());
+        assertThat(userRepository.findById(100)).isEmpty();
+    }
+
     @DisplayName("Check getByEmail throws exception if user not exist")
     @Test
     void getByEmail_shouldThrowException_whenUserNotExist() {
@@ -0,0 +1,116 @@
+package org.example.infrastructure.data.repositories;
+
+import org.example.infrastructure.constants.SqlConstants;
+import org.example.infrastructure.util.ConnectionManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+@TestPropertySource(value = "classpath:application.yml")
+@Sql(value = {"classpath:test_sql_scripts/remove-all-data.sql", "classpath:test_sql_scripts/insert-volume-data.sql"})
+class QueryPlanTest {
+    private static final String GET_USER_AUDIT_SQL = "SELECT * FROM habit_tracker_schema.user_audit WHERE user_id = ? AND timestamp >= ? ORDER BY timestamp DESC";
+    private static final String GET_AUDIT_BY_PERIOD_SQL = "SELECT * FROM habit_tracker_schema.user_audit WHERE timestamp >= ? AND timestamp < ?";
+
+    @Autowired
+    private ConnectionManager connectionManager;
+
+    @DisplayName("Check that habits of a user are read by index")
+    @Test
+    void getUserHabits_shouldUseIndex() throws SQLException {
+        assertThat(explain(SqlConstants.GET_USER_HABITS_SQL, statement -> statement.setInt(1, 1000)))
+                .contains("idx_habits_user_id")
+                .doesNotContain("Seq Scan");
+        assertThat(explain(SqlConstants.GET_USER_HABIT_IDS_SQL, statement -> statement.setInt(1, 1000)))
+                .doesNotContain("Seq Scan");
+    }
+
+    @DisplayName("Check that tracks of a habit are read by the covering index")
+    @Test
+    void getHabitTracks_shouldUseCoveringIndex() throws SQLException {
+        assertThat(explain(SqlConstants.GET_HABIT_TRACKS_SQL, statement -> statement.setInt(1, 5000)))
+                .contains("uq_habit_tracks_habit_id_complete_date")
+                .doesNotContain("Seq Scan");
+        assertThat(explain(SqlConstants.GET_HABITS_TRACKS_SQL, statement -> statement.setArray(1,
+                statement.getConnection().createArrayOf("integer", new Integer[]{10, 20, 30, 40, 50}))))
+                .contains("uq_habit_tracks_habit_id_complete_date")
+                .doesNotContain("Seq Scan");
+        assertThat(explain(SqlConstants.GET_USER_HABITS_TRACKS_SQL, statement -> statement.setInt(1, 1000)))
+                .contains("idx_habits_user_id", "uq_habit_tracks_habit_id_complete_date")
+                .doesNotContain("Seq Scan");
+    }
+
+    @DisplayName("Check that statistics of a user habits are read by index")
+    @Test
+    void getUserHabitsStatistics_shouldUseIndex() throws SQLException {
+        Date today = Date.valueOf(LocalDate.now());
+        assertThat(explain(SqlConstants.GET_USER_HABITS_STATISTICS_SQL, statement -> {
+            statement.setDate(1, today);
+            statement.setDate(2, today);
+            statement.setInt(3, 1000);
+        })).doesNotContain("Seq Scan");
+    }
+
+    @DisplayName("Check that user is found by email using index")
+    @Test
+    void getUserByEmail_shouldUseIndex() throws SQLException {
+        assertThat(explain(SqlConstants.GET_USER_BY_EMAIL_SQL, statement -> statement.setString(1, "user1000@mail.ru")))
+                .doesNotContain("Seq Scan");
+    }
+
+    @DisplayName("Check that audit of a user and audit by period are read by index")
+    @Test
+    void getUserAudit_shouldUseIndex() throws SQLException {
+        Timestamp hourAgo = Timestamp.valueOf(LocalDateTime.now().minusHours(1));
+        assertThat(explain(GET_USER_AUDIT_SQL, statement -> {
+            statement.setInt(1, 1000);
+            statement.setTimestamp(2, Timestamp.valueOf(LocalDateTime.now().minusDays(7)));
+        }))
+                .contains("idx_user_audit_user_id_timestamp")
+                .doesNotContain("Seq Scan");
+        assertThat(explain(GET_AUDIT_BY_PERIOD_SQL, statement -> {
+            statement.setTimestamp(1, hourAgo);
+            statement.setTimestamp(2, Timestamp.valueOf(LocalDateTime.now()));
+        }))
+                .contains("idx_user_audit_timestamp_brin")
+                .doesNotContain("Seq Scan");
+    }
+
+    private String explain(String sql, StatementBinder binder) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (Connection connection = connectionManager.open();
+             PreparedStatement preparedStatement = connection.prepareStatement("EXPLAIN " + sql)) {
+
+            binder.bind(preparedStatement);
+            ResultSet resultSet = preparedStatement.executeQuery();
+
+            while (resultSet.next()) {
+                plan.append(resultSet.getString(1)).append('\n');
+            }
+        }
+        return plan.toString();
+    }
+
+    @FunctionalInterface
+    private interface StatementBinder {
+        void bind(PreparedStatement statement) throws SQLException;
+    }
+}
@@ -0,0 +1,171 @@
+package org.example.infrastructure.util;
+
+import org.example.core.models.Habit;
+import org.example.core.models.HabitFrequency;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConnectionManagerTest {
+    private final Habit habit = new Habit(1, 1, "name", "description", HabitFrequency.DAILY, LocalDate.now());
+    @Mock
+    private DataSource dataSource;
+    @Mock
+    private Connection connection;
+    private ConnectionManager connectionManager;
+
+    @BeforeEach
+    void setUp() {
+        connectionManager = new ConnectionManager(dataSource);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        connectionManager.end();
+    }
+
+    @Test
+    @DisplayName("Without a unit of work every open takes a new connection from the pool")
+    void open_whenNoUnitOfWork_thenTakesConnectionFromPool() throws SQLException {
+        when(dataSource.getConnection()).thenReturn(connection);
+
+        try (Connection opened = connectionManager.open()) {
+            assertThat(opened).isSameAs(connection);
+        }
+        connectionManager.open();
+
+        verify(dataSource, times(2)).getConnection();
+        verify(connection).close();
+    }
+
+    @Test
+    @DisplayName("A unit of work shares one lazily acquired connection until it ends")
+    void open_whenUnitOfWorkBound_thenSharesOneConnection() throws SQLException {
+        connectionManager.begin(false);
+        verifyNoInteractions(dataSource);
+        when(dataSource.getConnection()).thenReturn(connection);
+
+        Connection first = connectionManager.open();
+        first.close();
+        Connection second = connectionManager.open();
+        second.close();
+
+        assertThat(second).isSameAs(first);
+        verify(dataSource).getConnection();
+        verify(connection, never()).close();
+
+        connectionManager.end();
+
+        verify(connection).close();
+        verify(connection, never()).commit();
+    }
+
+    @Test
+    @DisplayName("A read-only unit of work runs in a read-only transaction and commits it at the end")
+    void end_whenReadOnlyUnitOfWork_thenCommitsAndRestoresConnection() throws SQLException {
+        when(dataSource.getConnection()).thenReturn(connection);
+        connectionManager.begin(true);
+
+        connectionManager.open();
+        connectionManager.end();
+
+        InOrder inOrder = inOrder(connection);
+        inOrder.verify(connection).setReadOnly(true);
+        inOrder.verify(connection).setAutoCommit(false);
+        inOrder.verify(connection).commit();
+        inOrder.verify(connection).setAutoCommit(true);
+        inOrder.verify(connection).setReadOnly(false);
+        inOrder.verify(connection).close();
+    }
+
+    @Test
+    @DisplayName("A unit of work that never touched the database does not take a connection")
+    void end_whenConnectionNeverOpened_thenPoolIsUntouched() throws SQLException {
+        connectionManager.begin(true);
+
+        connectionManager.end();
+
+        verifyNoInteractions(dataSource);
+    }
+
+    @Test
+    @DisplayName("Units of work cannot be nested")
+    void begin_whenUnitOfWorkAlreadyBound_thenThrows() {
+        connectionManager.begin(false);
+
+        assertThatThrownBy(() -> connectionManager.begin(true)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("The identity map returns loaded entities only inside a read-only unit of work")
+    void getLoaded_whenReadOnlyUnitOfWork_thenReturnsRegisteredEntity() throws SQLException {
+        connectionManager.registerLoaded(Habit.class, 1, habit);
+        assertThat((Habit) connectionManager.getLoaded(Habit.class, 1)).isNull();
+
+        connectionManager.begin(false);
+        connectionManager.registerLoaded(Habit.class, 1, habit);
+        assertThat((Habit) connectionManager.getLoaded(Habit.class, 1)).isNull();
+        connectionManager.end();
+
+        connectionManager.begin(true);
+        connectionManager.registerLoaded(Habit.class, 1, habit);
+        assertThat((Habit) connectionManager.getLoaded(Habit.class, 1)).isSameAs(habit);
+        assertThat((Habit) connectionManager.getLoaded(Habit.class, 2)).isNull();
+        connectionManager.end();
+
+        assertThat((Habit) connectionManager.getLoaded(Habit.class, 1)).isNull();
+    }
+
+    @Test
+    @DisplayName("A transaction inside a read-only unit of work rolls back to a savepoint instead of the whole unit")
+    void inTransaction_whenUnitOfWorkInTransaction_thenUsesSavepoint() throws SQLException {
+        Savepoint savepoint = mock(Savepoint.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.getAutoCommit()).thenReturn(false);
+        when(connection.setSavepoint()).thenReturn(savepoint);
+        connectionManager.begin(true);
+
+        assertThatThrownBy(() -> connectionManager.inTransaction(c -> {
+            throw new SQLException("read-only");
+        })).isInstanceOf(SQLException.class);
+
+        verify(connection).rollback(savepoint);
+        verify(connection, never()).rollback();
+        verify(connection, never()).commit();
+    }
+
+    @Test
+    @DisplayName("A failed read in a read-only unit of work rolls back to its savepoint so later reads still work")
+    void open_whenReadFailsInReadOnlyUnit_thenRollsBackToSavepoint() throws SQLException {
+        Savepoint failed = mock(Savepoint.class);
+        Savepoint succeeded = mock(Savepoint.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.setSavepoint()).thenReturn(failed, succeeded);
+        doThrow(new SQLException("current transaction is aborted")).when(connection).releaseSavepoint(failed);
+        connectionManager.begin(true);
+
+        connectionManager.open().close();
+        connectionManager.open().close();
+
+        verify(connection).rollback(failed);
+        verify(connection).releaseSavepoint(succeeded);
+        verify(connection, never()).rollback(succeeded);
+        verify(dataSource).getConnection();
+    }
+}
@@ -0,0 +1,106 @@
+package org.example.infrastructure.util;
+
+import io.jsonwebtoken.Claims;
+import org.example.core.models.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtProviderTest {
+    private static final String SIGNING_KEY = "a2V5a2V5a2V5a2V5a2V5a2V5a2V5a2V5a2V5a2V5a2V5a2V5a2V5a2V5";
+    private static final String OTHER_SIGNING_KEY = "b3RoZXJvdGhlcm90aGVyb3RoZXJvdGhlcm90aGVyb3RoZXJvdGhlcg==";
+
+    private MutableClock clock;
+    private JwtProvider jwtProvider;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2026-10-18T12:00:00Z"));
+        jwtProvider = new JwtProvider(SIGNING_KEY, 100, clock, () -> TimeUnit.MILLISECONDS.toNanos(clock.millis()));
+        user = new User(1, "ex@mail.ru", "hash", false);
+    }
+
+    @Test
+    @DisplayName("Token is parsed once and then served from cache")
+    void getClaims_whenTokenRepeats_thenClaimsAreServedFromCache() {
+        String token = jwtProvider.generateAccessToken(user);
+        assertThat(jwtProvider.isCached(token)).isFalse();
+
+        Claims first = jwtProvider.getClaims("Bearer " + token).orElseThrow();
+        Claims second = jwtProvider.getClaims("Bearer " + token).orElseThrow();
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.get("user_id", Integer.class)).isEqualTo(1);
+        assertThat(jwtProvider.isCached(token)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Cached token is evicted when it expires")
+    void getClaims_whenTokenExpires_thenCacheEntryIsEvicted() {
+        String token = jwtProvider.generateAccessToken(user);
+        Claims claims = jwtProvider.getClaims("Bearer " + token).orElseThrow();
+
+        clock.advance(Duration.ofMinutes(5).minusMillis(1));
+        assertThat(jwtProvider.isCached(token)).isTrue();
+        assertThat(jwtProvider.getClaims("Bearer " + token)).containsSame(claims);
+
+        clock.advance(Duration.ofMillis(1));
+        assertThat(jwtProvider.isCached(token)).isFalse();
+        assertThat(jwtProvider.getClaims("Bearer " + token)).isEmpty();
+        assertThat(jwtProvider.isCached(token)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Tampered token or token signed with another key is rejected and not cached")
+    void getClaims_whenSignatureIsInvalid_thenTokenIsNotCached() {
+        String token = jwtProvider.generateAccessToken(user);
+        jwtProvider.getClaims("Bearer " + token);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+        JwtProvider otherProvider = new JwtProvider(OTHER_SIGNING_KEY, 100, clock, () -> 0L);
+        String otherSigned = otherProvider.generateAccessToken(user);
+
+        assertThat(jwtProvider.getClaims("Bearer " + tampered)).isEmpty();
+        assertThat(jwtProvider.getClaims("Bearer " + tampered)).isEmpty();
+        assertThat(jwtProvider.getClaims("Bearer " + otherSigned)).isEmpty();
+        assertThat(jwtProvider.isCached(token)).isTrue();
+        assertThat(jwtProvider.isCached(tampered)).isFalse();
+        assertThat(jwtProvider.isCached(otherSigned)).isFalse();
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        private void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
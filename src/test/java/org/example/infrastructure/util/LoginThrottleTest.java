@@ -0,0 +1,137 @@
+package org.example.infrastructure.util;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.exceptions.TooManyAttemptsException;
+import org.example.infrastructure.configs.LoginThrottleConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LoginThrottleTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong now = new AtomicLong();
+    private LoginThrottleConfig config;
+
+    @BeforeEach
+    void setUp() {
+        config = new LoginThrottleConfig();
+        config.setWindow(Duration.ofMinutes(1));
+        config.setMaxAttemptsPerIp(10);
+        config.setMaxAttemptsPerEmail(3);
+    }
+
+    @Test
+    @DisplayName("Attempts for one email over the limit are rejected regardless of the client address or letter case")
+    void acquire_whenEmailLimitExceeded_thenThrows() throws TooManyAttemptsException {
+        LoginThrottle throttle = newThrottle();
+
+        throttle.acquire("10.0.0.1", "user@mail.ru");
+        throttle.acquire("10.0.0.2", "USER@mail.ru");
+        throttle.acquire("10.0.0.3", "user@mail.ru");
+
+        assertThatThrownBy(() -> throttle.acquire("10.0.0.4", "user@mail.ru"))
+                .isInstanceOf(TooManyAttemptsException.class)
+                .extracting("retryAfterSeconds").isEqualTo(60L);
+        assertThatCode(() -> throttle.acquire("10.0.0.4", "other@mail.ru")).doesNotThrowAnyException();
+        assertThat(meterRegistry.get("login.throttle.rejected").tag("key", "email").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Attempts from one address over the limit are rejected for any email")
+    void acquire_whenIpLimitExceeded_thenThrows() throws TooManyAttemptsException {
+        LoginThrottle throttle = newThrottle();
+
+        for (int i = 0; i < 10; i++) {
+            throttle.acquire("10.0.0.1", "user" + i + "@mail.ru");
+        }
+
+        assertThatThrownBy(() -> throttle.acquire("10.0.0.1", "fresh@mail.ru")).isInstanceOf(TooManyAttemptsException.class);
+        assertThatCode(() -> throttle.acquire("10.0.0.2", "fresh@mail.ru")).doesNotThrowAnyException();
+        assertThat(meterRegistry.get("login.throttle.rejected").tag("key", "ip").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("The window slides: attempts of the previous window are forgotten gradually")
+    void acquire_whenWindowSlides_thenAllowsAttemptsAgain() throws TooManyAttemptsException {
+        LoginThrottle throttle = newThrottle();
+        for (int i = 0; i < 3; i++) {
+            throttle.acquire(null, "user@mail.ru");
+        }
+
+        advance(Duration.ofSeconds(60));
+        assertThatThrownBy(() -> throttle.acquire(null, "user@mail.ru")).isInstanceOf(TooManyAttemptsException.class);
+
+        advance(Duration.ofSeconds(30));
+        throttle.acquire(null, "user@mail.ru");
+        throttle.acquire(null, "user@mail.ru");
+        assertThatThrownBy(() -> throttle.acquire(null, "user@mail.ru")).isInstanceOf(TooManyAttemptsException.class);
+
+        advance(Duration.ofMinutes(2));
+        assertThatCode(() -> throttle.acquire(null, "user@mail.ru")).doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("Concurrent attempts never exceed the limit")
+    void acquire_whenConcurrent_thenAllowsExactlyLimit() throws Exception {
+        config.setMaxAttemptsPerEmail(100);
+        LoginThrottle throttle = newThrottle();
+        AtomicInteger allowed = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 100; i++) {
+                        try {
+                            throttle.acquire(null, "user@mail.ru");
+                            allowed.incrementAndGet();
+                        } catch (TooManyAttemptsException ignored) {
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(allowed).hasValue(100);
+    }
+
+    @Test
+    @DisplayName("A disabled throttle allows every attempt")
+    void acquire_whenDisabled_thenAllowsEverything() {
+        config.setEnabled(false);
+        LoginThrottle throttle = newThrottle();
+
+        assertThatCode(() -> {
+            for (int i = 0; i < 100; i++) {
+                throttle.acquire("10.0.0.1", "user@mail.ru");
+            }
+        }).doesNotThrowAnyException();
+    }
+
+    private LoginThrottle newThrottle() {
+        return new LoginThrottle(config, meterRegistry, now::get);
+    }
+
+    private void advance(Duration duration) {
+        now.addAndGet(duration.toNanos());
+    }
+}
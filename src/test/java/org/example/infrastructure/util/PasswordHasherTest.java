@@ -0,0 +1,91 @@
+package org.example.infrastructure.util;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.core.util.PasswordManager;
+import org.example.exceptions.ServiceOverloadedException;
+import org.example.infrastructure.configs.PasswordHashConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PasswordHasherTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+    private PasswordHasher passwordHasher;
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        if (passwordHasher != null) {
+            passwordHasher.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("Hashes computed on the executor are the same as PasswordManager hashes")
+    void hash_shouldMatchPasswordManager() throws ServiceOverloadedException {
+        passwordHasher = new PasswordHasher(config(2, 4), meterRegistry);
+
+        String hash = passwordHasher.hash("123");
+
+        assertThat(hash).isEqualTo(PasswordManager.getPasswordHash("123"));
+        assertThat(passwordHasher.matches("123", hash)).isTrue();
+        assertThat(passwordHasher.matches("1234", hash)).isFalse();
+        assertThat(meterRegistry.get("password.hash.duration").timer().count()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("When the hash queue is full new requests are rejected without waiting")
+    void hash_whenQueueIsFull_thenThrowsServiceOverloaded() throws Exception {
+        passwordHasher = new PasswordHasher(config(1, 1), meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> running = submitAsync(release);
+        CompletableFuture<String> queued = submitAsync(release);
+        waitUntil("password.hash.active", 1);
+        waitUntil("password.hash.queue.size", 1);
+
+        assertThatThrownBy(() -> passwordHasher.hash("123")).isInstanceOf(ServiceOverloadedException.class);
+        assertThat(meterRegistry.get("password.hash.rejected").counter().count()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("done");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("done");
+        assertThat(passwordHasher.hash("123")).isEqualTo(PasswordManager.getPasswordHash("123"));
+    }
+
+    private CompletableFuture<String> submitAsync(CountDownLatch release) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return passwordHasher.submit(() -> {
+                    release.await();
+                    return "done";
+                });
+            } catch (ServiceOverloadedException e) {
+                throw new IllegalStateException(e);
+            }
+        }, callers);
+    }
+
+    private void waitUntil(String gauge, int value) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get(gauge).gauge().value() < value && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+
+    private static PasswordHashConfig config(int threads, int queueCapacity) {
+        PasswordHashConfig config = new PasswordHashConfig();
+        config.setThreads(threads);
+        config.setQueueCapacity(queueCapacity);
+        return config;
+    }
+}
@@ -12,4 +12,8 @@ INSERT INTO habit_tracker_schema.habit_tracks (habit_id, complete_date)
 VALUES (1, current_date),
        (3, current_date),
        (3, current_date - interval '1 weeks'),
-       (3, current_date - interval '2 weeks');
\ No newline at end of file
+       (3, current_date - interval '2 weeks');
+
+INSERT INTO habit_tracker_schema.habit_stats (habit_id, track_count, last_complete_date, current_streak, longest_streak)
+VALUES (1, 1, current_date, 1, 1),
+       (3, 3, current_date, 3, 3);
@@ -0,0 +1,27 @@
+INSERT INTO habit_tracker_schema.users (email, password, is_admin)
+SELECT 'user' || n || '@mail.ru', 'uirnF4LXZpkp2lxkqs1V4Q==', false
+FROM generate_series(1, 2000) AS n;
+
+INSERT INTO habit_tracker_schema.habits (user_id, name, description, frequency, day_of_creation)
+SELECT u, 'Habit ' || h, 'Description ' || h, CASE WHEN h % 2 = 0 THEN 'DAILY' ELSE 'WEEKLY' END, current_date - 365
+FROM generate_series(1, 2000) AS u,
+     generate_series(1, 5) AS h;
+
+INSERT INTO habit_tracker_schema.habit_tracks (habit_id, complete_date)
+SELECT h, current_date - d
+FROM generate_series(1, 10000) AS h,
+     generate_series(0, 29) AS d;
+
+INSERT INTO habit_tracker_schema.habit_stats (habit_id, track_count, last_complete_date, current_streak, longest_streak)
+SELECT id, 30, current_date, 30, 30
+FROM habit_tracker_schema.habits;
+
+INSERT INTO habit_tracker_schema.user_audit (user_id, request_uri, request_body, response_body, timestamp)
+SELECT 1 + n % 2000, '/api/v1/habits', NULL, '[]', now() - (200000 - n) * interval '1 minute'
+FROM generate_series(1, 200000) AS n;
+
+ANALYZE habit_tracker_schema.users;
+ANALYZE habit_tracker_schema.habits;
+ANALYZE habit_tracker_schema.habit_tracks;
+ANALYZE habit_tracker_schema.habit_stats;
+ANALYZE habit_tracker_schema.user_audit;
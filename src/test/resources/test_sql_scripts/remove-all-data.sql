@@ -1,4 +1,5 @@
 TRUNCATE TABLE habit_tracker_schema.habit_tracks RESTART IDENTITY CASCADE;
 TRUNCATE TABLE habit_tracker_schema.user_audit RESTART IDENTITY CASCADE;
+TRUNCATE TABLE habit_tracker_schema.refresh_tokens RESTART IDENTITY CASCADE;
 TRUNCATE TABLE habit_tracker_schema.users RESTART IDENTITY CASCADE;
 TRUNCATE TABLE habit_tracker_schema.habits RESTART IDENTITY CASCADE;
\ No newline at end of file